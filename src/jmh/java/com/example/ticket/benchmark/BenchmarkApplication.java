@@ -0,0 +1,69 @@
+package com.example.ticket.benchmark;
+
+import com.example.ticket.TicketApplication;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.service.TicketService;
+import com.example.ticket.service.UserService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Application complète sur H2 en mémoire, peuplée de TICKETS tickets répartis sur 5 agents (un tiers non assignés)
+final class BenchmarkApplication implements AutoCloseable {
+    
+    static final int TICKETS = 10_000;
+    
+    final TicketService ticketService;
+    final Long ticketId;
+    final String username = "agent1";
+    private final ConfigurableApplicationContext context;
+    
+    private BenchmarkApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.ticketService = context.getBean(TicketService.class);
+        UserService userService = context.getBean(UserService.class);
+        
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            userIds.add(userService.create(UserDTO.builder()
+                .username("agent" + i)
+                .email("agent" + i + "@example.com")
+                .build()).getId());
+        }
+        
+        List<TicketDTO> batch = new ArrayList<>(TICKETS);
+        TicketStatus[] statuses = TicketStatus.values();
+        for (int i = 0; i < TICKETS; i++) {
+            batch.add(TicketDTO.builder()
+                .title("Ticket " + i)
+                .description("Description du ticket " + i)
+                .status(statuses[i % statuses.length])
+                .assignedUserId(i % 3 == 0 ? null : userIds.get(i % userIds.size()))
+                .build());
+        }
+        ticketService.createAll(batch);
+        this.ticketId = ticketService.findPage(null, null, null, 1).getContent().get(0).getId();
+    }
+    
+    static BenchmarkApplication start() {
+        return new BenchmarkApplication(new SpringApplication(TicketApplication.class).run(
+            "--server.port=0",
+            "--spring.profiles.active=dev",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--logging.level.com.example.ticket=WARN",
+            "--logging.level.org.springframework=WARN",
+            "--logging.level.org.springdoc=WARN",
+            "--spring.main.banner-mode=off",
+            "--ticket.outbox.poll-interval=1h"));
+    }
+    
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ticket.benchmark;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.entity.User;
+import com.example.ticket.model.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Jeux de données réalistes : titres et descriptions de taille moyenne, un tiers des tickets non assignés
+final class BenchmarkData {
+    
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    
+    private BenchmarkData() {
+    }
+    
+    static User user(long id) {
+        User user = User.builder()
+            .username("agent" + id)
+            .email("agent" + id + "@example.com")
+            .build();
+        user.setId(id);
+        user.setVersion(0L);
+        return user;
+    }
+    
+    static List<Ticket> tickets(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = List.of(user(1), user(2), user(3), user(4), user(5));
+        List<Ticket> tickets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Ticket ticket = Ticket.builder()
+                .title("Impossible de se connecter au VPN #" + i)
+                .description("Depuis la mise à jour du poste, la connexion VPN échoue avec une erreur "
+                    + "de certificat. Le redémarrage ne change rien. Ticket " + i)
+                .status(STATUSES[i % STATUSES.length])
+                .assignedUser(i % 3 == 0 ? null : users.get(i % users.size()))
+                .build();
+            ticket.setId((long) i + 1);
+            ticket.setVersion((long) i % 4);
+            ticket.setCreatedAt(now.minusMinutes(count - i));
+            ticket.setUpdatedAt(now);
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+    
+    static List<TicketDTO> ticketDTOs(int count) {
+        return tickets(count).stream()
+            .map(ticket -> TicketDTO.builder()
+                .id(ticket.getId())
+                .title(ticket.getTitle())
+                .description(ticket.getDescription())
+                .status(ticket.getStatus())
+                .assignedUserId(ticket.getAssignedUser() != null ? ticket.getAssignedUser().getId() : null)
+                .assignedUsername(ticket.getAssignedUser() != null ? ticket.getAssignedUser().getUsername() : null)
+                .version(ticket.getVersion())
+                .build())
+            .toList();
+    }
+}
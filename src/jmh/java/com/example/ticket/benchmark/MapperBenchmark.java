@@ -0,0 +1,82 @@
+package com.example.ticket.benchmark;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.dto.mapper.TicketMapper;
+import com.example.ticket.dto.mapper.UserMapper;
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.entity.User;
+import com.example.ticket.model.enums.TicketStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Conversion entité -> DTO telle que faite pour chaque ticket renvoyé par l'API
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+    
+    @Param({"1", "100", "10000"})
+    private int size;
+    
+    private final TicketMapper ticketMapper = new TicketMapper();
+    private final UserMapper userMapper = new UserMapper();
+    private List<Ticket> tickets;
+    private List<User> users;
+    
+    @Setup
+    public void setUp() {
+        tickets = BenchmarkData.tickets(size);
+        users = tickets.stream()
+            .map(Ticket::getAssignedUser)
+            .map(user -> user != null ? user : BenchmarkData.user(0))
+            .toList();
+    }
+    
+    @Benchmark
+    public void ticketToDTO(Blackhole blackhole) {
+        for (Ticket ticket : tickets) {
+            blackhole.consume(ticketMapper.toDTO(ticket));
+        }
+    }
+    
+    @Benchmark
+    public void userToDTO(Blackhole blackhole) {
+        for (User user : users) {
+            blackhole.consume(userMapper.toDTO(user));
+        }
+    }
+    
+    // Coût du builder Lombok seul, sans lecture d'entité
+    @Benchmark
+    public void ticketDTOBuilder(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(TicketDTO.builder()
+                .id((long) i)
+                .title("Titre")
+                .description("Description")
+                .status(TicketStatus.EN_COURS)
+                .assignedUserId(1L)
+                .assignedUsername("agent1")
+                .version(0L)
+                .build());
+        }
+    }
+    
+    @Benchmark
+    public void userDTOBuilder(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(UserDTO.builder()
+                .id((long) i)
+                .username("agent1")
+                .email("agent1@example.com")
+                .build());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ticket.benchmark;
+
+import com.example.ticket.dto.CursorPage;
+import com.example.ticket.dto.TicketDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sérialisation JSON des réponses, avec un ObjectMapper configuré comme celui de Spring Boot.
+// Le statut passe par le @JsonValue de TicketStatus (libellé affiché).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    
+    @Param({"1", "100", "10000"})
+    private int size;
+    
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<TicketDTO> tickets;
+    private CursorPage<TicketDTO> page;
+    private byte[] json;
+    
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(new TypeReference<List<TicketDTO>>() { });
+        tickets = BenchmarkData.ticketDTOs(size);
+        page = CursorPage.<TicketDTO>builder().content(tickets).next("curseur").size(size).build();
+        json = listWriter.writeValueAsBytes(tickets);
+    }
+    
+    @Benchmark
+    public byte[] writeList() throws Exception {
+        return listWriter.writeValueAsBytes(tickets);
+    }
+    
+    // Chemin réel de GET /api/tickets : le type est résolu à chaque appel
+    @Benchmark
+    public byte[] writePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public List<TicketDTO> readList() throws Exception {
+        return objectMapper.readValue(json, new TypeReference<List<TicketDTO>>() { });
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ticket.benchmark;
+
+import com.example.ticket.dto.TicketDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Lectures de TicketServiceImpl sans taille de page : un seul démarrage de l'application pour l'ensemble
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketLookupBenchmark {
+    
+    private BenchmarkApplication application;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+    
+    // Servi par le cache après le premier appel
+    @Benchmark
+    public Optional<TicketDTO> findById() {
+        return application.ticketService.findById(application.ticketId);
+    }
+    
+    // Export complet en flux des BenchmarkApplication.TICKETS tickets
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public long exportAll(Blackhole blackhole) {
+        return application.ticketService.exportAll(blackhole::consume);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ticket.benchmark;
+
+import com.example.ticket.dto.CursorPage;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.model.enums.TicketStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Pages de TicketServiceImpl sur H2 en mémoire, application complète démarrée une fois par taille de page.
+// Les lectures indépendantes de la taille sont dans TicketLookupBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketServiceBenchmark {
+    
+    // Taille de page demandée ; 10000 est ramené à CursorPage.MAX_SIZE par le service
+    @Param({"1", "100", "10000"})
+    private int size;
+    
+    private BenchmarkApplication application;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = BenchmarkApplication.start();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+    
+    @Benchmark
+    public CursorPage<TicketDTO> findPage() {
+        return application.ticketService.findPage(null, null, null, size);
+    }
+    
+    @Benchmark
+    public CursorPage<TicketDTO> findPageByAssignedUser() {
+        return application.ticketService.findPageByAssignedUser(
+            application.username, TicketStatus.EN_COURS, null, size);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ticket.config;
+
+import org.hibernate.dialect.H2Dialect;
+
+// H2 2.x accepte FOR UPDATE SKIP LOCKED mais le dialecte Hibernate ne le génère pas : sans lui,
+// les dispatchers de l'outbox s'attendraient au lieu de se partager les lignes.
+// Inutile sur PostgreSQL, MySQL 8 ou Oracle, dont les dialectes le supportent déjà.
+public class H2SkipLockedDialect extends H2Dialect {
+    
+    @Override
+    public boolean supportsSkipLocked() {
+        return true;
+    }
+    
+    @Override
+    public String getForUpdateSkipLockedString() {
+        return " for update skip locked";
+    }
+    
+    @Override
+    public String getForUpdateSkipLockedString(String aliases) {
+        return getForUpdateSkipLockedString();
+    }
+}
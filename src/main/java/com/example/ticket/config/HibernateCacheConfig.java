@@ -0,0 +1,49 @@
+package com.example.ticket.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Cache de second niveau Hibernate (JCache sur Caffeine) : entité User et résolution username -> id.
+// Les régions sont déclarées ici avec une taille bornée ; une région absente fait échouer le démarrage
+@Configuration
+public class HibernateCacheConfig {
+    
+    public static final String USERS_REGION = "users";
+    public static final String USERS_BY_USERNAME_REGION = "users-by-username";
+    
+    // Gestionnaire propre au contexte : plusieurs contextes de test partagent la JVM et le CachingProvider
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${ticket.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${ticket.user-cache.expire-after-write:1h}") Duration expireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : List.of(USERS_REGION, USERS_BY_USERNAME_REGION)) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+            // Les entrées d'Hibernate sont déjà des copies désassemblées : pas de copie par sérialisation
+            configuration.setStoreByValue(false);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
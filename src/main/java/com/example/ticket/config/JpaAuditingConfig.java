@@ -0,0 +1,11 @@
+package com.example.ticket.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+// Renseigne @CreatedDate / @LastModifiedDate de BaseEntity (updatedAt sert aux ETag et à la synchronisation).
+// Classe séparée : les tests @WebMvcTest n'ont pas de contexte JPA
+@Configuration
+@EnableJpaAuditing
+public class JpaAuditingConfig {
+}
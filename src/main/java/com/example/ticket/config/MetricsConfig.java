@@ -0,0 +1,43 @@
+package com.example.ticket.config;
+
+import com.example.ticket.metrics.DataSourceProxyPostProcessor;
+import com.example.ticket.metrics.QueryCountFilter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+public class MetricsConfig {
+    
+    // Active @Timed sur les services (timer service.method, étiquettes class, method, exception)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+    
+    // Statique : un BeanPostProcessor doit exister avant les beans qu'il traite (DataSource)
+    @Bean
+    public static DataSourceProxyPostProcessor dataSourceProxyPostProcessor(
+            ObjectProvider<MeterRegistry> registry,
+            @Value("${ticket.sql.slow-threshold:100ms}") Duration slowThreshold) {
+        return new DataSourceProxyPostProcessor(registry, slowThreshold);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(
+            MeterRegistry registry,
+            @Value("${ticket.sql.repeated-statement-threshold:5}") int repeatedThreshold) {
+        FilterRegistrationBean<QueryCountFilter> registration =
+            new FilterRegistrationBean<>(new QueryCountFilter(registry, repeatedThreshold));
+        // Avant la sécurité : les requêtes refusées sont aussi comptées
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -27,10 +27,11 @@ public class OpenApiConfig {
 	                    .name("Apache 2.0")
 	                    .url("https://www.apache.org/licenses/LICENSE-2.0.html")))
 	            .components(new Components()
-	                .addSecuritySchemes("basicAuth", new SecurityScheme()
+	                .addSecuritySchemes("bearerAuth", new SecurityScheme()
 	                    .type(SecurityScheme.Type.HTTP)
-	                    .scheme("basic")))
-	            .addSecurityItem(new SecurityRequirement().addList("basicAuth"));
+	                    .scheme("bearer")
+	                    .bearerFormat("JWT")))
+	            .addSecurityItem(new SecurityRequirement().addList("bearerAuth"));
 	    }
 
 }
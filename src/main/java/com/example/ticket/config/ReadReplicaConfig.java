@@ -0,0 +1,88 @@
+package com.example.ticket.config;
+
+import com.example.ticket.datasource.ReadWriteRoutingDataSource;
+import com.example.ticket.datasource.ReadYourWritesFilter;
+import com.example.ticket.datasource.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lectures sur réplicas (ticket.datasource.routing.enabled=true) : les transactions readOnly sont servies par
+// un réplica dont le retard reste sous max-replica-lag, les écritures et le reste de leur requête HTTP par le primaire.
+// Seul le DataSource routé est un bean : il est le seul observé par datasource-proxy, chaque requête comptée une fois
+@Configuration
+@ConditionalOnProperty(name = "ticket.datasource.routing.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+    
+    @Bean(destroyMethod = "close")
+    public ReplicaSet replicaSet(
+            DataSourceProperties properties,
+            MeterRegistry registry,
+            @Value("${ticket.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${ticket.datasource.max-replica-lag:2s}") Duration maxReplicaLag,
+            @Value("${ticket.datasource.heartbeat-interval:1s}") Duration heartbeatInterval,
+            @Value("${ticket.sync.settle-window:5s}") Duration settleWindow) {
+        if (replicaUrls.isEmpty()) {
+            throw new IllegalStateException("ticket.datasource.replica-urls est obligatoire avec le routage");
+        }
+        // Un changement encore absent du réplica ne doit pas être dépassé par le curseur de synchronisation.
+        // Le retard est mesuré sur le battement précédent : l'écart réel peut atteindre tolérance + intervalle
+        if (maxReplicaLag.plus(heartbeatInterval).compareTo(settleWindow) >= 0) {
+            throw new IllegalStateException("ticket.datasource.max-replica-lag (" + maxReplicaLag
+                + ") + ticket.datasource.heartbeat-interval (" + heartbeatInterval
+                + ") doit rester inférieur à ticket.sync.settle-window (" + settleWindow + ")");
+        }
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, pool(properties, replicaUrls.get(i).trim(), name, registry));
+        }
+        return new ReplicaSet(pool(properties, properties.determineUrl(), "primary", registry),
+            replicas, maxReplicaLag, heartbeatInterval, registry);
+    }
+    
+    @Bean
+    public DataSource dataSource(ReplicaSet replicaSet) {
+        LazyConnectionDataSourceProxy dataSource =
+            new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(replicaSet));
+        // Valeurs par défaut des pools H2 : évite d'ouvrir une connexion au démarrage pour les lire
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+    
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+            new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+    
+    // Un pool Hikari par base, mêmes identifiants que spring.datasource.* ; métriques hikaricp_* par pool
+    static HikariDataSource pool(DataSourceProperties properties, String url, String name,
+                                 MeterRegistry registry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .url(url)
+            .build();
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        return pool;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.ticket.config;
+
+import com.example.ticket.datasource.ShardRoutingDataSource;
+import com.example.ticket.datasource.ShardSchema;
+import com.example.ticket.datasource.TicketShardRouting;
+import com.example.ticket.datasource.TicketShards;
+import com.example.ticket.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+// Partitionnement des tickets (ticket.sharding.enabled=true) : spring.datasource.url est le shard 0, suivi des
+// bases de ticket.sharding.shard-urls. Un ticket est rangé sur le shard de son assigné (hachage de user_id),
+// les tickets non assignés sur ticket.sharding.unassigned-shard. Voir TicketShardRouting pour le routage
+@Configuration
+@ConditionalOnProperty(name = "ticket.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+    
+    @Bean(destroyMethod = "close")
+    public TicketShards ticketShards(
+            DataSourceProperties properties,
+            MeterRegistry registry,
+            @Value("${ticket.sharding.shard-urls}") List<String> shardUrls,
+            @Value("${ticket.sharding.unassigned-shard:0}") int unassignedShard,
+            @Value("${ticket.sharding.fan-out-threads:16}") int fanOutThreads,
+            @Value("${ticket.datasource.routing.enabled:false}") boolean replicaRouting,
+            @Value("${ticket.dataset.enabled:false}") boolean dataset) {
+        if (shardUrls.isEmpty()) {
+            throw new IllegalStateException("ticket.sharding.shard-urls est obligatoire avec le partitionnement");
+        }
+        if (replicaRouting) {
+            throw new IllegalStateException(
+                "ticket.sharding.enabled et ticket.datasource.routing.enabled ne peuvent pas être combinés");
+        }
+        // Le générateur écrit en JDBC sur une seule base, sans répartir les tickets
+        if (dataset) {
+            throw new IllegalStateException(
+                "ticket.dataset.enabled n'est pas disponible avec le partitionnement des tickets");
+        }
+        List<HikariDataSource> pools = new ArrayList<>();
+        pools.add(ReadReplicaConfig.pool(properties, properties.determineUrl(), "shard-0", registry));
+        for (int i = 0; i < shardUrls.size(); i++) {
+            pools.add(ReadReplicaConfig.pool(properties, shardUrls.get(i).trim(), "shard-" + (i + 1), registry));
+        }
+        return new TicketShards(pools, unassignedShard, fanOutThreads);
+    }
+    
+    @Bean
+    public DataSource dataSource(TicketShards ticketShards) {
+        LazyConnectionDataSourceProxy dataSource =
+            new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(ticketShards));
+        // Valeurs par défaut des pools H2 : évite d'ouvrir une connexion au démarrage pour les lire
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+    
+    @Bean
+    public ShardSchema shardSchema(TicketShards ticketShards, EntityManagerFactory entityManagerFactory,
+                                   @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchema(ticketShards, entityManagerFactory, ddlAuto);
+    }
+    
+    @Bean
+    public TicketShardRouting ticketShardRouting(TicketShards ticketShards,
+                                                 ObjectProvider<PlatformTransactionManager> transactionManager,
+                                                 ObjectProvider<UserRepository> userRepository) {
+        return new TicketShardRouting(ticketShards, transactionManager, userRepository);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ticket.controller;
+
+import com.example.ticket.dto.AuthRequestDTO;
+import com.example.ticket.dto.TokenResponseDTO;
+import com.example.ticket.security.JwtService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@Tag(name = "Authentification", description = "Obtention des jetons d'accès")
+public class AuthController {
+    
+    private final AuthenticationManager authenticationManager;
+    private final JwtService jwtService;
+    
+    @PostMapping("/token")
+    @Operation(summary = "Échanger des identifiants contre un jeton JWT")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Jeton émis"),
+        @ApiResponse(responseCode = "400", description = "Données invalides"),
+        @ApiResponse(responseCode = "401", description = "Identifiants incorrects")
+    })
+    public ResponseEntity<TokenResponseDTO> createToken(@Valid @RequestBody AuthRequestDTO request) {
+        // Seul point où le mot de passe est vérifié (BCrypt) ; les requêtes suivantes valident le jeton
+        Authentication authentication = authenticationManager.authenticate(
+            UsernamePasswordAuthenticationToken.unauthenticated(request.getUsername(), request.getPassword()));
+        
+        return ResponseEntity.ok(TokenResponseDTO.builder()
+            .accessToken(jwtService.generateToken(authentication))
+            .tokenType("Bearer")
+            .expiresIn(jwtService.getExpiration().toSeconds())
+            .build());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.ticket.controller;
+
+import com.example.ticket.dto.CollectionVersionDTO;
+import com.example.ticket.dto.TicketVersionDTO;
+import com.example.ticket.exception.BadRequestException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+// ETag forts calculés à partir des versions / dates de modification, sans sérialiser la ressource
+final class ETags {
+    
+    // Le client peut garder la réponse mais doit la revalider (If-None-Match) à chaque lecture
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
+    private ETags() {
+    }
+    
+    // "version" ou "version-versionAssigné" : un renommage de l'assigné change aussi le ticket exposé
+    static String of(TicketVersionDTO version) {
+        return version.getAssigneeVersion() == null
+            ? quote(String.valueOf(version.getVersion()))
+            : quote(version.getVersion() + "-" + version.getAssigneeVersion());
+    }
+    
+    static String of(CollectionVersionDTO version) {
+        LocalDateTime lastModified = version.getLastModified();
+        long micros = lastModified == null ? 0
+            : ChronoUnit.MICROS.between(Instant.EPOCH, lastModified.toInstant(ZoneOffset.UTC));
+        return quote(version.getCount() + "-" + micros);
+    }
+    
+    static String ofVersion(Long version) {
+        return quote(String.valueOf(version));
+    }
+    
+    // Comparaison faible (RFC 9110) : W/ ignoré, liste séparée par des virgules, * accepté
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || stripWeak(value).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Version du ticket portée par If-Match : "3", W/"3" ou "3-7" (ETag de GET) ; * = aucune condition
+    static Long leadingVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = stripWeak(ifMatch.trim()).replace("\"", "");
+        int separator = value.indexOf('-');
+        if (separator >= 0) {
+            value = value.substring(0, separator);
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("En-tête If-Match invalide: " + ifMatch);
+        }
+    }
+    
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(REVALIDATE)
+            .build();
+    }
+    
+    static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(REVALIDATE)
+            .body(body);
+    }
+    
+    private static String stripWeak(String value) {
+        return value.startsWith("W/") ? value.substring(2) : value;
+    }
+    
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
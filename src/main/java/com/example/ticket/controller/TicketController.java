@@ -1,21 +1,42 @@
 package com.example.ticket.controller;
 
+import com.example.ticket.dto.BatchItemResultDTO;
+import com.example.ticket.dto.BulkStatusUpdateDTO;
+import com.example.ticket.dto.BulkUpdateResultDTO;
+import com.example.ticket.dto.CacheStatsDTO;
+import com.example.ticket.dto.CursorPage;
+import com.example.ticket.dto.TicketChangesDTO;
 import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketStatsDTO;
+import com.example.ticket.dto.TicketVersionDTO;
 import com.example.ticket.exception.UnauthorizedException;
 import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.security.TicketAccess;
 import com.example.ticket.service.TicketService;
+import com.example.ticket.service.stream.TicketEventBroadcaster;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/tickets")
@@ -24,47 +45,176 @@ import java.util.List;
 public class TicketController {
     
     private final TicketService ticketService;
+    private final ObjectMapper objectMapper;
+    private final TicketEventBroadcaster ticketEventBroadcaster;
     
     @GetMapping
-    @Operation(summary = "Récupérer tous les tickets")
-    @ApiResponse(responseCode = "200", description = "Liste des tickets récupérée")
-    public ResponseEntity<List<TicketDTO>> getAllTickets(
+    @Operation(summary = "Récupérer les tickets, page par page")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page de tickets récupérée"),
+        @ApiResponse(responseCode = "304", description = "Aucun ticket du filtre n'a changé (If-None-Match)"),
+        @ApiResponse(responseCode = "400", description = "Curseur de pagination invalide")
+    })
+    public ResponseEntity<CursorPage<TicketDTO>> getAllTickets(
             Authentication authentication,
-            @RequestParam(required = false) TicketStatus status) {
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) Long assignedUserId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         // Contrôle d'accès: admin voit tous les tickets, user voit seulement les siens
+        // Le statut est filtré en base pour tous les rôles ; les tickets archivés seulement sur demande
+        // L'ETag (nombre + dernière modification du filtre) est vérifié avant de charger la page
         if (authentication.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            if (status != null) {
-                return ResponseEntity.ok(ticketService.findByStatus(status));
+            String etag = ETags.of(ticketService.findPageVersion(status, assignedUserId, includeArchived));
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
             }
-            return ResponseEntity.ok(ticketService.findAll());
+            return ETags.ok(etag, ticketService.findPage(status, assignedUserId, includeArchived, cursor, size));
         } else {
             String username = authentication.getName();
-            return ResponseEntity.ok(ticketService.findByAssignedUser(username));
+            String etag = ETags.of(ticketService.findPageVersionByAssignedUser(username, status, includeArchived));
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+            return ETags.ok(etag,
+                ticketService.findPageByAssignedUser(username, status, includeArchived, cursor, size));
+        }
+    }
+    
+    @GetMapping("/changes")
+    @Operation(summary = "Tickets créés, modifiés ou supprimés depuis un jeton de synchronisation")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Changements et nouveau jeton"),
+        @ApiResponse(responseCode = "400", description = "Jeton de synchronisation invalide")
+    })
+    public ResponseEntity<TicketChangesDTO> getTicketChanges(
+            Authentication authentication,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + TicketChangesDTO.DEFAULT_SIZE) int size) {
+        
+        // Même règle que la liste : admin reçoit tous les tickets, user seulement les siens
+        if (authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            return ResponseEntity.ok(ticketService.findChanges(since, size));
+        }
+        return ResponseEntity.ok(ticketService.findChangesByAssignedUser(authentication.getName(), since, size));
+    }
+    
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Flux Server-Sent Events des changements de tickets (filtrés par rôle)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Événements « ticket », « resync » quand il faut recharger")
+    })
+    public SseEmitter streamTicketEvents(Authentication authentication) {
+        // Le thread de requête est libéré aussitôt : les envois passent par le pool du broadcaster
+        return ticketEventBroadcaster.subscribe(authentication);
+    }
+    
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Exporter tous les tickets au format NDJSON (admin uniquement)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Flux NDJSON des tickets"),
+        @ApiResponse(responseCode = "403", description = "Accès non autorisé")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTickets(Authentication authentication) {
+        
+        if (!authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            throw new UnauthorizedException(
+                "Seul un administrateur peut exporter les tickets");
+        }
+        
+        // Une ligne JSON par ticket, écrite au fil de la lecture sans construire de liste
+        ObjectWriter writer = objectMapper.writerFor(TicketDTO.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.setRootValueSeparator(null);
+            ticketService.exportAll(ticket -> {
+                try {
+                    writer.writeValue(generator, ticket);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets.ndjson\"")
+            .body(body);
+    }
+    
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Statistiques du cache de tickets (admin uniquement)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Succès, échecs et évictions du cache"),
+        @ApiResponse(responseCode = "403", description = "Accès non autorisé")
+    })
+    public ResponseEntity<CacheStatsDTO> getCacheStats(Authentication authentication) {
+        
+        if (!authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            throw new UnauthorizedException(
+                "Seul un administrateur peut consulter les statistiques du cache");
+        }
+        
+        return ResponseEntity.ok(ticketService.cacheStats());
+    }
+    
+    @GetMapping("/stats")
+    @Operation(summary = "Nombre de tickets par statut et par assigné (admin uniquement)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Compteurs de tickets"),
+        @ApiResponse(responseCode = "403", description = "Accès non autorisé")
+    })
+    public ResponseEntity<TicketStatsDTO> getTicketStats(Authentication authentication) {
+        
+        if (!authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            throw new UnauthorizedException(
+                "Seul un administrateur peut consulter les statistiques des tickets");
         }
+        
+        return ResponseEntity.ok(ticketService.statistics());
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Récupérer un ticket par son ID")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Ticket trouvé"),
+        @ApiResponse(responseCode = "304", description = "Ticket inchangé (If-None-Match)"),
         @ApiResponse(responseCode = "404", description = "Ticket non trouvé"),
         @ApiResponse(responseCode = "403", description = "Accès non autorisé")
     })
     public ResponseEntity<TicketDTO> getTicketById(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Authentication authentication) {
         
+        // Versions lues par une requête minimale : un ticket inchangé ne coûte ni mapping ni corps
+        TicketVersionDTO version = ticketService.findVersion(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Vérifier que l'utilisateur a le droit d'accéder à ce ticket (avant de révéler qu'il n'a pas changé)
+        if (!hasAccessToTicket(version.getAssignedUsername(), authentication)) {
+            throw new UnauthorizedException(
+                "Vous n'avez pas accès à ce ticket");
+        }
+        
+        String etag = ETags.of(version);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
         return ticketService.findById(id)
-            .map(ticket -> {
-                // Vérifier que l'utilisateur a le droit d'accéder à ce ticket
-                if (!hasAccessToTicket(ticket, authentication)) {
-                    throw new UnauthorizedException(
-                        "Vous n'avez pas accès à ce ticket");
-                }
-                return ResponseEntity.ok(ticket);
-            })
+            .map(ticket -> withETag(ticket, version))
             .orElse(ResponseEntity.notFound().build());
     }
     
@@ -80,28 +230,80 @@ public class TicketController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
+    @PostMapping("/batch")
+    @Operation(summary = "Créer des tickets par lot")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Résultat de chaque élément du lot"),
+        @ApiResponse(responseCode = "400", description = "Lot trop volumineux")
+    })
+    public ResponseEntity<List<BatchItemResultDTO>> createTickets(
+            @RequestBody List<TicketDTO> ticketDTOs) {
+        return ResponseEntity.ok(ticketService.createAll(ticketDTOs));
+    }
+    
+    @PatchMapping("/batch")
+    @Operation(summary = "Mettre à jour des tickets par lot")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Résultat de chaque élément du lot"),
+        @ApiResponse(responseCode = "400", description = "Lot trop volumineux")
+    })
+    public ResponseEntity<List<BatchItemResultDTO>> updateTickets(
+            @RequestBody List<TicketDTO> ticketDTOs,
+            Authentication authentication) {
+        
+        // Un user ne peut modifier que ses propres tickets, vérifié élément par élément
+        String restrictToUsername = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))
+            ? null : authentication.getName();
+        return ResponseEntity.ok(ticketService.updateAll(ticketDTOs, restrictToUsername));
+    }
+    
+    @PostMapping("/status-transitions")
+    @Operation(summary = "Changer le statut de tous les tickets correspondant à un filtre (admin uniquement)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Nombre de tickets modifiés"),
+        @ApiResponse(responseCode = "400", description = "Filtre absent ou invalide"),
+        @ApiResponse(responseCode = "403", description = "Accès non autorisé")
+    })
+    public ResponseEntity<BulkUpdateResultDTO> transitionStatus(
+            @Valid @RequestBody BulkStatusUpdateDTO request,
+            Authentication authentication) {
+        
+        if (!authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+            throw new UnauthorizedException(
+                "Seul un administrateur peut changer le statut de tickets en masse");
+        }
+        
+        return ResponseEntity.ok(ticketService.transitionStatus(request));
+    }
+    
     @PutMapping("/{id}")
     @Operation(summary = "Mettre à jour un ticket")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Ticket mis à jour"),
         @ApiResponse(responseCode = "404", description = "Ticket non trouvé"),
-        @ApiResponse(responseCode = "403", description = "Accès non autorisé")
+        @ApiResponse(responseCode = "403", description = "Accès non autorisé"),
+        @ApiResponse(responseCode = "409", description = "Ticket modifié entre-temps (If-Match ou version périmés)")
     })
     public ResponseEntity<TicketDTO> updateTicket(
             @PathVariable Long id,
             @Valid @RequestBody TicketDTO ticketDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
         
-        // Vérifier l'accès avant la mise à jour
-        ticketService.findById(id).ifPresent(ticket -> {
-            if (!hasAccessToTicket(ticket, authentication)) {
-                throw new UnauthorizedException(
-                    "Vous n'avez pas le droit de modifier ce ticket");
-            }
-        });
+        // If-Match (ETag renvoyé par GET) prime sur la version du corps
+        Long expectedVersion = ETags.leadingVersion(ifMatch);
+        if (expectedVersion != null) {
+            ticketDTO.setVersion(expectedVersion);
+        }
         
-        TicketDTO updated = ticketService.update(id, ticketDTO);
-        return ResponseEntity.ok(updated);
+        // Un user ne peut modifier que ses propres tickets : vérifié dans la requête de lecture du service
+        String restrictToUsername = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))
+            ? null : authentication.getName();
+        TicketDTO updated = ticketService.update(id, ticketDTO, restrictToUsername);
+        return withCurrentETag(updated);
     }
     
     @PutMapping("/{id}/assign/{userId}")
@@ -114,7 +316,7 @@ public class TicketController {
             @PathVariable Long id,
             @PathVariable Long userId) {
         TicketDTO assigned = ticketService.assignTicket(id, userId);
-        return ResponseEntity.ok(assigned);
+        return withCurrentETag(assigned);
     }
     
     @DeleteMapping("/{id}")
@@ -139,17 +341,25 @@ public class TicketController {
         return ResponseEntity.noContent().build();
     }
     
-    // Méthode utilitaire pour vérifier l'accès
-    private boolean hasAccessToTicket(TicketDTO ticket, Authentication auth) {
-        // Admin a accès à tout
-        if (auth.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-            return true;
+    private ResponseEntity<TicketDTO> withCurrentETag(TicketDTO ticket) {
+        return ticketService.findVersion(ticket.getId())
+            .map(version -> withETag(ticket, version))
+            .orElse(ResponseEntity.ok(ticket));
+    }
+    
+    // L'ETag n'est posé que s'il décrit exactement le corps renvoyé (le DTO peut venir du cache
+    // ou avoir été relu après un commit concurrent) ; sinon le client refera simplement un GET complet
+    private ResponseEntity<TicketDTO> withETag(TicketDTO ticket, TicketVersionDTO version) {
+        if (Objects.equals(ticket.getVersion(), version.getVersion())
+                && Objects.equals(ticket.getAssignedUserId(), version.getAssignedUserId())
+                && Objects.equals(ticket.getAssignedUsername(), version.getAssignedUsername())) {
+            return ETags.ok(ETags.of(version), ticket);
         }
-        
-        // User a accès seulement à ses tickets
-        String username = auth.getName();
-        return ticket.getAssignedUsername() != null && 
-               ticket.getAssignedUsername().equals(username);
+        return ResponseEntity.ok(ticket);
+    }
+    
+    // Méthode utilitaire pour vérifier l'accès
+    private boolean hasAccessToTicket(String assignedUsername, Authentication auth) {
+        return TicketAccess.canAccess(assignedUsername, auth);
     }
 }
\ No newline at end of file
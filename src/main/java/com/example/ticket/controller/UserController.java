@@ -1,5 +1,6 @@
 package com.example.ticket.controller;
 
+import com.example.ticket.dto.CursorPage;
 import com.example.ticket.dto.TicketDTO;
 import com.example.ticket.dto.UserDTO;
 import com.example.ticket.service.UserService;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,28 +27,61 @@ public class UserController {
     
     @GetMapping
     @Operation(summary = "Récupérer tous les utilisateurs")
-    @ApiResponse(responseCode = "200", description = "Liste des utilisateurs récupérée")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        return ResponseEntity.ok(userService.findAll());
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Liste des utilisateurs récupérée"),
+        @ApiResponse(responseCode = "304", description = "Aucun utilisateur n'a changé (If-None-Match)")
+    })
+    public ResponseEntity<List<UserDTO>> getAllUsers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of(userService.findAllVersion());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        return ETags.ok(etag, userService.findAll());
     }
     
     @GetMapping("/{id}")
     @Operation(summary = "Récupérer un utilisateur par son ID")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Utilisateur trouvé"),
+        @ApiResponse(responseCode = "304", description = "Utilisateur inchangé (If-None-Match)"),
         @ApiResponse(responseCode = "404", description = "Utilisateur non trouvé")
     })
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDTO> getUserById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // La version est lue avant l'utilisateur : le corps renvoyé est au moins aussi récent que l'ETag
+        Long version = userService.findVersion(id).orElse(null);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ETags.ofVersion(version);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
         return userService.findById(id)
-            .map(ResponseEntity::ok)
+            .map(user -> ETags.ok(etag, user))
             .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/{id}/tickets")
     @Operation(summary = "Récupérer les tickets assignés à un utilisateur")
-    @ApiResponse(responseCode = "200", description = "Liste des tickets récupérée")
-    public ResponseEntity<List<TicketDTO>> getUserTickets(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserTickets(id));
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page de tickets récupérée"),
+        @ApiResponse(responseCode = "304", description = "Aucun ticket de l'utilisateur n'a changé (If-None-Match)"),
+        @ApiResponse(responseCode = "400", description = "Curseur de pagination invalide"),
+        @ApiResponse(responseCode = "404", description = "Utilisateur non trouvé")
+    })
+    public ResponseEntity<CursorPage<TicketDTO>> getUserTickets(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of(userService.getUserTicketsVersion(id));
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        return ETags.ok(etag, userService.getUserTickets(id, cursor, size));
     }
     
     @PostMapping
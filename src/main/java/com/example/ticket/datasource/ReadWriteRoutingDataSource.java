@@ -0,0 +1,42 @@
+package com.example.ticket.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Transactions en lecture seule vers un réplica à jour, tout le reste vers le primaire.
+// À envelopper dans un LazyConnectionDataSourceProxy : la connexion n'est choisie qu'au premier ordre SQL,
+// une fois la transaction démarrée et son caractère lecture seule connu
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    static final String PRIMARY = "primary";
+    
+    private final ReplicaSet replicaSet;
+    
+    public ReadWriteRoutingDataSource(ReplicaSet replicaSet) {
+        this.replicaSet = replicaSet;
+        Map<Object, Object> targets = new HashMap<>(replicaSet.replicas());
+        targets.put(PRIMARY, replicaSet.primary());
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(replicaSet.primary());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.markWritten();
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWrites.hasWritten()) {
+            return PRIMARY;
+        }
+        // Aucun réplica dans la tolérance de retard : la lecture reste correcte sur le primaire
+        return replicaSet.nextFreshReplica().orElse(PRIMARY);
+    }
+}
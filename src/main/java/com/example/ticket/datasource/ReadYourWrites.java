@@ -0,0 +1,34 @@
+package com.example.ticket.datasource;
+
+// Lecture de ses propres écritures : après une transaction d'écriture, la suite de la requête HTTP
+// lit sur le primaire, même en lecture seule (ETag recalculé après un PUT, par exemple)
+public final class ReadYourWrites {
+    
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+    
+    private boolean written;
+    
+    private ReadYourWrites() {
+    }
+    
+    static void start() {
+        CURRENT.set(new ReadYourWrites());
+    }
+    
+    static void finish() {
+        CURRENT.remove();
+    }
+    
+    // Hors requête HTTP (tâches planifiées, démarrage) rien n'est retenu
+    static void markWritten() {
+        ReadYourWrites current = CURRENT.get();
+        if (current != null) {
+            current.written = true;
+        }
+    }
+    
+    static boolean hasWritten() {
+        ReadYourWrites current = CURRENT.get();
+        return current != null && current.written;
+    }
+}
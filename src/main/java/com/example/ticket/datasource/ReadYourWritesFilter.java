@@ -0,0 +1,24 @@
+package com.example.ticket.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Délimite la portée de ReadYourWrites : une requête HTTP
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.finish();
+        }
+    }
+}
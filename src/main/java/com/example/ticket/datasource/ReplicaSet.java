@@ -0,0 +1,154 @@
+package com.example.ticket.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pools du primaire et de ses réplicas. Le retard de chaque réplica est mesuré par battement de cœur :
+// le primaire écrit l'instant courant dans replica_heartbeat, chaque réplica est relu au tour suivant.
+// Un réplica n'est éligible aux lectures que si son retard reste dans la tolérance maxLag, et seulement tant que la
+// dernière mesure a moins de STALE_BEATS battements : une mesure bloquée (pool de planification saturé) ne garde
+// pas un réplica arrêté dans le tourniquet
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+    
+    public static final String LAG_METRIC = "db.replica.lag";
+    
+    static final int STALE_BEATS = 2;
+    
+    private final HikariDataSource primary;
+    private final Map<String, HikariDataSource> replicas;
+    private final Duration maxLag;
+    private final Duration measurementTtl;
+    private final JdbcTemplate primaryJdbc;
+    private final Map<String, JdbcTemplate> replicaJdbc = new ConcurrentHashMap<>();
+    // Absent = réplica injoignable ou jamais mesuré
+    private final Map<String, Duration> lags = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> fresh = List.of();
+    private volatile Instant lastBeat;
+    // Début de la dernière mesure ; null avant la première
+    private volatile Instant measuredAt;
+    private final AtomicBoolean stale = new AtomicBoolean();
+    
+    public ReplicaSet(HikariDataSource primary, Map<String, HikariDataSource> replicas, Duration maxLag,
+                      Duration heartbeatInterval, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = Map.copyOf(replicas);
+        this.maxLag = maxLag;
+        this.measurementTtl = heartbeatInterval.multipliedBy(STALE_BEATS);
+        this.primaryJdbc = new JdbcTemplate(primary);
+        this.primaryJdbc.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat "
+            + "(id INT PRIMARY KEY, beat_at TIMESTAMP(6) NOT NULL)");
+        replicas.forEach((name, dataSource) -> {
+            replicaJdbc.put(name, new JdbcTemplate(dataSource));
+            Gauge.builder(LAG_METRIC, this,
+                    set -> set.lag(name).map(lag -> lag.toMillis() / 1000.0).orElse(Double.NaN))
+                .description("Retard du réplica sur le primaire (NaN si injoignable)")
+                .baseUnit("seconds")
+                .tag("replica", name)
+                .register(registry);
+        });
+    }
+    
+    public DataSource primary() {
+        return primary;
+    }
+    
+    public Map<String, DataSource> replicas() {
+        return Map.copyOf(replicas);
+    }
+    
+    public Optional<Duration> lag(String replica) {
+        return Optional.ofNullable(lags.get(replica));
+    }
+    
+    // Tourniquet sur les réplicas à jour
+    public Optional<String> nextFreshReplica() {
+        return nextFreshReplica(Instant.now());
+    }
+    
+    Optional<String> nextFreshReplica(Instant now) {
+        List<String> candidates = fresh;
+        Instant measured = measuredAt;
+        if (candidates.isEmpty() || measured == null) {
+            return Optional.empty();
+        }
+        if (measured.plus(measurementTtl).isBefore(now)) {
+            if (stale.compareAndSet(false, true)) {
+                log.warn("Retard des réplicas non mesuré depuis {}, lectures reportées sur le primaire", measured);
+            }
+            return Optional.empty();
+        }
+        return Optional.of(candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size())));
+    }
+    
+    // Mesure avant d'écrire le battement suivant : un réplica qui a reçu le dernier battement a un retard nul.
+    // Le retard est relevé sur le battement précédent : l'écart réel peut atteindre maxLag + un intervalle.
+    // Aucun réplica n'est éligible avant le premier battement relu
+    @Scheduled(fixedDelayString = "${ticket.datasource.heartbeat-interval:1s}",
+        initialDelayString = "${ticket.datasource.heartbeat-interval:1s}")
+    public void refresh() {
+        Instant startedAt = Instant.now();
+        Instant reference = lastBeat != null ? lastBeat : startedAt;
+        replicaJdbc.forEach((name, jdbc) -> measure(name, jdbc, reference));
+        fresh = replicaJdbc.keySet().stream()
+            .filter(name -> lag(name).filter(lag -> lag.compareTo(maxLag) <= 0).isPresent())
+            .sorted()
+            .toList();
+        measuredAt = startedAt;
+        if (stale.compareAndSet(true, false)) {
+            log.info("Retard des réplicas de nouveau mesuré");
+        }
+        beat();
+    }
+    
+    private void measure(String name, JdbcTemplate jdbc, Instant reference) {
+        try {
+            Timestamp beatAt = jdbc.query("SELECT beat_at FROM replica_heartbeat WHERE id = 1",
+                rs -> rs.next() ? rs.getTimestamp(1) : null);
+            if (beatAt == null) {
+                lags.remove(name);
+                return;
+            }
+            Duration lag = Duration.between(beatAt.toInstant(), reference);
+            lags.put(name, lag.isNegative() ? Duration.ZERO : lag);
+        } catch (RuntimeException e) {
+            if (lags.remove(name) != null) {
+                log.warn("Réplica {} injoignable, lectures reportées sur le primaire : {}", name, e.getMessage());
+            }
+        }
+    }
+    
+    private void beat() {
+        // Précision de la colonne TIMESTAMP(6) : un réplica à jour relit exactement la même valeur
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        try {
+            primaryJdbc.update("MERGE INTO replica_heartbeat KEY (id) VALUES (1, ?)", Timestamp.from(now));
+            lastBeat = now;
+        } catch (RuntimeException e) {
+            log.warn("Battement de cœur non écrit sur le primaire : {}", e.getMessage());
+        }
+    }
+    
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.ticket.datasource;
+
+// Shard épinglé sur le thread courant : la prochaine connexion physique de ShardRoutingDataSource y est prise.
+// Non épinglé, le thread travaille sur le shard principal (utilisateurs, outbox)
+public final class ShardContext {
+    
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    
+    private ShardContext() {
+    }
+    
+    public static Integer current() {
+        return CURRENT.get();
+    }
+    
+    // Retourne le shard épinglé auparavant, à rendre à restore
+    static Integer pin(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+    
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ticket.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Connexion prise sur le shard épinglé par ShardContext, sinon sur le shard principal.
+// À envelopper dans un LazyConnectionDataSourceProxy : le shard n'est lu qu'au premier ordre SQL,
+// une fois la transaction démarrée sur le thread qui l'a épinglé
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public ShardRoutingDataSource(TicketShards shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            targets.put(shard, shards.dataSource(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.dataSource(TicketShards.HOME));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : TicketShards.HOME;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ticket.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.relational.SchemaManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+// Hibernate ne crée le schéma (ddl-auto) que sur le shard principal : les autres shards reçoivent le même,
+// puis toutes les séquences sont entrelacées. Exécuté avant le démarrage des tâches planifiées.
+// Sans création automatique, le schéma et les séquences entrelacées de chaque shard sont à la charge du déploiement
+@Slf4j
+public class ShardSchema implements SmartInitializingSingleton {
+    
+    private final TicketShards shards;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean createSchema;
+    
+    public ShardSchema(TicketShards shards, EntityManagerFactory entityManagerFactory, String ddlAuto) {
+        this.shards = shards;
+        this.entityManagerFactory = entityManagerFactory;
+        this.createSchema = "create".equals(ddlAuto) || "create-drop".equals(ddlAuto);
+    }
+    
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!createSchema) {
+            return;
+        }
+        SchemaManager schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            if (shard != TicketShards.HOME) {
+                Integer previous = ShardContext.pin(shard);
+                try {
+                    schemaManager.dropMappedObjects(false);
+                    schemaManager.exportMappedObjects(false);
+                } finally {
+                    ShardContext.restore(previous);
+                }
+            }
+            shards.interleaveSequences(shard);
+        }
+        log.info("Schéma créé sur {} shards", shards.count());
+    }
+}
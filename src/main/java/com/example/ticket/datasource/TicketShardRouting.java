@@ -0,0 +1,465 @@
+package com.example.ticket.datasource;
+
+import com.example.ticket.dto.BatchItemResultDTO;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.model.entity.ArchivedTicket;
+import com.example.ticket.model.entity.BaseEntity;
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.entity.User;
+import com.example.ticket.repository.ListVersion;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.repository.TicketRepository;
+import com.example.ticket.repository.UserRepository;
+import com.example.ticket.service.TicketService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Routage des tickets entre shards, sans que services et repositories en aient connaissance.
+// - Écritures : toute la transaction du service est épinglée sur le shard du ticket (ou de son assigné à la création) ;
+//   les lots sont découpés par shard, une transaction par shard. Un ticket réassigné à un utilisateur d'un autre
+//   shard y est déplacé après le commit.
+// - Lectures hors transaction épinglée : une requête limitée à un assigné est envoyée à son seul shard ; les autres
+//   sont lancées en parallèle sur chaque shard, puis fusionnées dans l'ordre de la requête et coupées à sa limite.
+// Précède l'intercepteur transactionnel : le shard est épinglé avant l'ouverture de la transaction.
+// Vient juste après ExposeInvocationInterceptor (HIGHEST_PRECEDENCE + 1), requis par les aspects AspectJ
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class TicketShardRouting {
+    
+    private static final Comparator<Ticket> BY_ID = Comparator.comparing(Ticket::getId);
+    private static final Comparator<Ticket> BY_CREATED_AT =
+        Comparator.comparing(Ticket::getCreatedAt).thenComparing(Ticket::getId);
+    private static final Comparator<Ticket> BY_UPDATED_AT =
+        Comparator.comparing(Ticket::getUpdatedAt).thenComparing(Ticket::getId);
+    private static final Comparator<ArchivedTicket> ARCHIVED_BY_CREATED_AT =
+        Comparator.comparing(ArchivedTicket::getCreatedAt).thenComparing(ArchivedTicket::getId);
+    private static final Comparator<BaseEntity> TOMBSTONE_ORDER =
+        Comparator.comparing(BaseEntity::getCreatedAt).thenComparing(BaseEntity::getId);
+    
+    private final TicketShards shards;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+    private final ObjectProvider<UserRepository> userRepository;
+    
+    public TicketShardRouting(TicketShards shards, ObjectProvider<PlatformTransactionManager> transactionManager,
+                              ObjectProvider<UserRepository> userRepository) {
+        this.shards = shards;
+        this.transactionManager = transactionManager;
+        this.userRepository = userRepository;
+    }
+    
+    @Around("target(com.example.ticket.service.TicketService) && execution(* create(..)) && args(dto)")
+    public Object create(ProceedingJoinPoint pjp, TicketDTO dto) throws Throwable {
+        return proceedOn(shards.shardOf(dto.getAssignedUserId()), pjp, pjp.getArgs());
+    }
+    
+    // Un ticket introuvable est cherché sur le shard des non assignés : le service répond 404
+    @Around("target(com.example.ticket.service.TicketService) "
+        + "&& (execution(* update(..)) || execution(* delete(..))) && args(id, ..)")
+    public Object writeTicket(ProceedingJoinPoint pjp, Long id) throws Throwable {
+        return proceedOn(locate(id), pjp, pjp.getArgs());
+    }
+    
+    @Around("target(com.example.ticket.service.TicketService) && execution(* assignTicket(..)) && args(ticketId, userId)")
+    public Object assignTicket(ProceedingJoinPoint pjp, Long ticketId, Long userId) throws Throwable {
+        int shard = locate(ticketId);
+        Object assigned = proceedOn(shard, pjp, pjp.getArgs());
+        if (shards.shardOf(userId) != shard) {
+            shards.relocate(ticketId, shard);
+        }
+        return assigned;
+    }
+    
+    @Around("target(com.example.ticket.service.TicketService) && execution(* createAll(..)) && args(dtos)")
+    public Object createAll(ProceedingJoinPoint pjp, List<TicketDTO> dtos) throws Throwable {
+        return proceedByShard(pjp, dtos, dto -> shards.shardOf(dto.getAssignedUserId()));
+    }
+    
+    @Around("target(com.example.ticket.service.TicketService) && execution(* updateAll(..)) && args(dtos, ..)")
+    public Object updateAll(ProceedingJoinPoint pjp, List<TicketDTO> dtos) throws Throwable {
+        Map<Long, Integer> located = shards.locateAll(dtos.stream().map(TicketDTO::getId).toList());
+        List<BatchItemResultDTO> results = proceedByShard(pjp, dtos,
+            dto -> located.getOrDefault(dto.getId(), shards.unassignedShard()));
+        for (BatchItemResultDTO result : results) {
+            TicketDTO dto = dtos.get(result.getIndex());
+            if (result.getStatus() == BatchItemResultDTO.Status.UPDATED && dto.getAssignedUserId() != null) {
+                int shard = located.getOrDefault(dto.getId(), shards.unassignedShard());
+                if (shards.shardOf(dto.getAssignedUserId()) != shard) {
+                    shards.relocate(dto.getId(), shard);
+                }
+            }
+        }
+        return results;
+    }
+    
+    // Les utilisateurs sont écrits sur le shard principal, puis recopiés une fois validés
+    @AfterReturning(pointcut = "target(com.example.ticket.service.UserService) && execution(* create(..))",
+        returning = "created")
+    public void copyCreatedUser(UserDTO created) {
+        shards.copyUser(created.getId());
+    }
+    
+    @AfterReturning("target(com.example.ticket.service.UserService) && execution(* update(..)) && args(id, ..)")
+    public void copyUpdatedUser(Long id) {
+        shards.copyUser(id);
+    }
+    
+    // La suppression en cascade des tickets n'atteint que le shard principal
+    @AfterReturning("target(com.example.ticket.service.UserService) && execution(* delete(..)) && args(id)")
+    public void removeDeletedUser(Long id) {
+        shards.removeUser(id);
+    }
+    
+    // Chaque shard a son outbox, écrite dans la transaction des tickets qu'il porte, et archive ses propres tickets
+    @Around("execution(public void com.example.ticket.service.outbox.OutboxDispatcher.dispatch()) "
+        + "|| execution(public void com.example.ticket.service.archive.TicketArchiver.archive())")
+    public void runOnEveryShard(ProceedingJoinPoint pjp) throws Throwable {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            proceedOn(shard, pjp, pjp.getArgs());
+        }
+    }
+    
+    @Around("target(com.example.ticket.repository.TicketRepository)")
+    public Object routeTicketQuery(ProceedingJoinPoint pjp) throws Throwable {
+        Object[] args = pjp.getArgs();
+        String method = pjp.getSignature().getName();
+        if (method.equals("save") || method.equals("saveAndFlush")) {
+            checkNewTicketShard(args[0]);
+        }
+        if (ShardContext.current() != null) {
+            return pjp.proceed();
+        }
+        return switch (method) {
+            case "findById", "findVersionById", "findByIdAndAssignedUsername" ->
+                fanOut(pjp, true).stream()
+                    .map(Optional.class::cast)
+                    .filter(Optional::isPresent)
+                    .findFirst()
+                    .orElse(Optional.empty());
+            case "existsById" -> fanOut(pjp, true).contains(Boolean.TRUE);
+            case "count" -> fanOut(pjp, true).stream().mapToLong(count -> (Long) count).sum();
+            case "findAll" -> args.length == 0 ? mergeTickets(fanOut(pjp, true), BY_ID, Integer.MAX_VALUE) : pjp.proceed();
+            case "findAllById", "findByStatus" -> mergeTickets(fanOut(pjp, true), BY_ID, Integer.MAX_VALUE);
+            case "countByStatusAndAssignee" -> concat(fanOut(pjp, true));
+            case "findByAssignedUserId", "findIdsByAssignedUserId", "countByAssignedUserId" ->
+                proceedInTransaction(shards.shardOf((Long) args[0]), true, pjp);
+            case "findByAssignedUsername" -> proceedInTransaction(usernameShard((String) args[0]), true, pjp);
+            case "touchByAssignedUserId" -> proceedInTransaction(shards.shardOf((Long) args[0]), false, pjp);
+            case "findPage" -> findOrdered(pjp, (TicketFilter) args[0],
+                parts -> mergeTickets(parts, BY_CREATED_AT, (int) args[3]));
+            case "findChanges" -> findOrdered(pjp, (TicketFilter) args[0],
+                parts -> mergeTickets(parts, BY_UPDATED_AT, (int) args[4]));
+            // Un ticket archivé ne change plus de shard : pas de doublon à écarter
+            case "findArchivedPage" -> findOrdered(pjp, (TicketFilter) args[0],
+                parts -> merge(parts, ARCHIVED_BY_CREATED_AT, (int) args[3]));
+            case "listVersion", "archivedListVersion" -> listVersion(pjp, (TicketFilter) args[0]);
+            case "updateStatus" -> {
+                Optional<Integer> shard = assigneeShard((TicketFilter) args[0]);
+                yield shard.isPresent()
+                    ? proceedInTransaction(shard.get(), false, pjp)
+                    : fanOut(pjp, false).stream().mapToInt(updated -> (Integer) updated).sum();
+            }
+            case "deleteAll", "deleteAllInBatch" -> {
+                if (args.length > 0) {
+                    yield pjp.proceed();
+                }
+                fanOut(pjp, false);
+                yield null;
+            }
+            case "streamAll" -> exportStream((TicketRepository) pjp.getThis());
+            default -> pjp.proceed();
+        };
+    }
+    
+    // Un ticket est archivé sur le shard qui le portait
+    @Around("target(com.example.ticket.repository.ArchivedTicketRepository)")
+    public Object routeArchivedTicketQuery(ProceedingJoinPoint pjp) throws Throwable {
+        if (ShardContext.current() != null) {
+            return pjp.proceed();
+        }
+        return switch (pjp.getSignature().getName()) {
+            case "findById", "findVersionById" -> fanOut(pjp, true).stream()
+                .map(Optional.class::cast)
+                .filter(Optional::isPresent)
+                .findFirst()
+                .orElse(Optional.empty());
+            default -> pjp.proceed();
+        };
+    }
+    
+    // Les traces de suppression sont écrites sur le shard du ticket supprimé
+    @Around("target(com.example.ticket.repository.TicketTombstoneRepository)")
+    public Object routeTombstoneQuery(ProceedingJoinPoint pjp) throws Throwable {
+        if (ShardContext.current() != null) {
+            return pjp.proceed();
+        }
+        Object[] args = pjp.getArgs();
+        return switch (pjp.getSignature().getName()) {
+            case "findDeletedAfter", "findByUserIdAfter" -> {
+                int limit = ((Limit) args[args.length - 1]).max();
+                yield merge(fanOut(pjp, true), TOMBSTONE_ORDER, limit);
+            }
+            case "deleteCreatedBefore" -> fanOut(pjp, false).stream().mapToInt(purged -> (Integer) purged).sum();
+            default -> pjp.proceed();
+        };
+    }
+    
+    // Shard de l'assigné si le filtre en désigne un, sinon toutes les bases sont lues
+    private Object findOrdered(ProceedingJoinPoint pjp, TicketFilter filter, Function<List<Object>, List<?>> merger)
+            throws Throwable {
+        Optional<Integer> shard = assigneeShard(filter);
+        if (shard.isPresent()) {
+            return proceedInTransaction(shard.get(), true, pjp);
+        }
+        // Chaque shard renvoie ses limit premiers tickets après le curseur : les limit premiers de la fusion
+        // sont les limit premiers de l'ensemble, la page suivante repart du dernier renvoyé
+        return merger.apply(fanOut(pjp, true));
+    }
+    
+    private Object listVersion(ProceedingJoinPoint pjp, TicketFilter filter) throws Throwable {
+        Optional<Integer> shard = assigneeShard(filter);
+        if (shard.isPresent()) {
+            return proceedInTransaction(shard.get(), true, pjp);
+        }
+        long count = 0;
+        LocalDateTime lastModified = null;
+        for (Object part : fanOut(pjp, true)) {
+            ListVersion version = (ListVersion) part;
+            count += version.count();
+            if (version.lastModified() != null
+                    && (lastModified == null || version.lastModified().isAfter(lastModified))) {
+                lastModified = version.lastModified();
+            }
+        }
+        return new ListVersion(count, lastModified);
+    }
+    
+    private Optional<Integer> assigneeShard(TicketFilter filter) {
+        if (filter.getAssignedUserId() != null) {
+            return Optional.of(shards.shardOf(filter.getAssignedUserId()));
+        }
+        if (filter.getAssignedUsername() != null) {
+            return Optional.of(usernameShard(filter.getAssignedUsername()));
+        }
+        return Optional.empty();
+    }
+    
+    // Résolu par le cache de second niveau ; un nom inconnu n'a de tickets sur aucun shard
+    private int usernameShard(String username) {
+        return shards.shardOf(userRepository.getObject().findByUsername(username)
+            .map(User::getId)
+            .orElse(null));
+    }
+    
+    private int locate(Long ticketId) {
+        return shards.locate(ticketId).orElse(shards.unassignedShard());
+    }
+    
+    // Garde-fou : un nouveau ticket est écrit sur le shard de son assigné
+    private void checkNewTicketShard(Object entity) {
+        if (entity instanceof Ticket ticket && ticket.getId() == null) {
+            int expected = shards.shardOf(ticket.getAssignedUser() != null ? ticket.getAssignedUser().getId() : null);
+            int current = Objects.requireNonNullElse(ShardContext.current(), TicketShards.HOME);
+            if (expected != current) {
+                throw new IllegalStateException("Nouveau ticket écrit sur le shard " + current
+                    + " au lieu du shard " + expected + " de son assigné");
+            }
+        }
+    }
+    
+    // Un lot est découpé par shard et chaque partie passe par le service dans sa propre transaction ;
+    // les index des résultats sont ramenés à ceux de la requête
+    @SuppressWarnings("unchecked")
+    private List<BatchItemResultDTO> proceedByShard(ProceedingJoinPoint pjp, List<TicketDTO> dtos,
+                                                    ToIntFunction<TicketDTO> shardOf) throws Throwable {
+        // Un lot trop grand est refusé par le service avant toute écriture
+        if (dtos.size() > TicketService.MAX_BATCH_ITEMS) {
+            return (List<BatchItemResultDTO>) pjp.proceed();
+        }
+        Map<Integer, List<Integer>> indexesByShard = new TreeMap<>();
+        for (int index = 0; index < dtos.size(); index++) {
+            indexesByShard.computeIfAbsent(shardOf.applyAsInt(dtos.get(index)), shard -> new ArrayList<>())
+                .add(index);
+        }
+        if (indexesByShard.size() <= 1) {
+            int shard = indexesByShard.isEmpty() ? TicketShards.HOME : indexesByShard.keySet().iterator().next();
+            return (List<BatchItemResultDTO>) proceedOn(shard, pjp, pjp.getArgs());
+        }
+        BatchItemResultDTO[] results = new BatchItemResultDTO[dtos.size()];
+        for (Map.Entry<Integer, List<Integer>> entry : indexesByShard.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            Object[] args = pjp.getArgs().clone();
+            args[0] = indexes.stream().map(dtos::get).toList();
+            for (BatchItemResultDTO result : (List<BatchItemResultDTO>) proceedOn(entry.getKey(), pjp, args)) {
+                result.setIndex(indexes.get(result.getIndex()));
+                results[result.getIndex()] = result;
+            }
+        }
+        return Arrays.asList(results);
+    }
+    
+    // Export dans l'ordre des identifiants : fusion des shards lus chacun par lots, une transaction courte par lot
+    private Stream<Ticket> exportStream(TicketRepository repository) {
+        PriorityQueue<ShardCursor> cursors = new PriorityQueue<>(Comparator.comparing(ShardCursor::headId));
+        for (int shard = 0; shard < shards.count(); shard++) {
+            ShardCursor cursor = new ShardCursor(shard, repository);
+            if (cursor.hasNext()) {
+                cursors.add(cursor);
+            }
+        }
+        Iterator<Ticket> merged = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !cursors.isEmpty();
+            }
+    
+            @Override
+            public Ticket next() {
+                ShardCursor cursor = cursors.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                Ticket ticket = cursor.next();
+                if (cursor.hasNext()) {
+                    cursors.add(cursor);
+                }
+                return ticket;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged,
+            Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    private final class ShardCursor {
+        private final int shard;
+        private final TicketRepository repository;
+        private final Deque<Ticket> buffer = new ArrayDeque<>();
+        private Long lastId = 0L;
+        private boolean exhausted;
+    
+        ShardCursor(int shard, TicketRepository repository) {
+            this.shard = shard;
+            this.repository = repository;
+        }
+    
+        boolean hasNext() {
+            if (buffer.isEmpty() && !exhausted) {
+                List<Ticket> batch = inTransaction(shard, true, () -> repository.findByIdGreaterThanOrderByIdAsc(
+                    lastId, Limit.of(TicketRepository.EXPORT_FETCH_SIZE)));
+                buffer.addAll(batch);
+                exhausted = batch.size() < TicketRepository.EXPORT_FETCH_SIZE;
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            }
+            return !buffer.isEmpty();
+        }
+    
+        Long headId() {
+            return buffer.getFirst().getId();
+        }
+    
+        Ticket next() {
+            return buffer.removeFirst();
+        }
+    }
+    
+    private List<Object> fanOut(ProceedingJoinPoint pjp, boolean readOnly) {
+        return shards.fanOut(shard -> inTransaction(shard, readOnly, () -> proceedUnchecked(pjp)));
+    }
+    
+    private Object proceedInTransaction(int shard, boolean readOnly, ProceedingJoinPoint pjp) {
+        return inTransaction(shard, readOnly, () -> proceedUnchecked(pjp));
+    }
+    
+    // Nouvelle transaction sur le shard : celle de l'appelant, déjà liée à une connexion, est suspendue
+    private <T> T inTransaction(int shard, boolean readOnly, Supplier<T> action) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager.getObject());
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(readOnly);
+        Integer previous = ShardContext.pin(shard);
+        try {
+            return transaction.execute(status -> action.get());
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+    
+    private static Object proceedOn(int shard, ProceedingJoinPoint pjp, Object[] args) throws Throwable {
+        Integer previous = ShardContext.pin(shard);
+        try {
+            return pjp.proceed(args);
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+    
+    private static Object proceedUnchecked(ProceedingJoinPoint pjp) {
+        try {
+            return pjp.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<Object> concat(List<Object> parts) {
+        List<Object> all = new ArrayList<>();
+        parts.forEach(part -> all.addAll((List<Object>) part));
+        return all;
+    }
+    
+    // Un ticket en cours de déplacement peut être lu sur deux shards : il n'est renvoyé qu'une fois
+    @SuppressWarnings("unchecked")
+    private static List<Ticket> mergeTickets(List<Object> parts, Comparator<Ticket> order, int limit) {
+        Map<Long, Ticket> byId = new LinkedHashMap<>();
+        ((List<Ticket>) (List<?>) merge(parts, order, Integer.MAX_VALUE))
+            .forEach(ticket -> byId.putIfAbsent(ticket.getId(), ticket));
+        return byId.values().stream().limit(limit).collect(Collectors.toList());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> merge(List<Object> parts, Comparator<? super T> order, int limit) {
+        return parts.stream()
+            .flatMap(part -> ((List<T>) part).stream())
+            .sorted(order)
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+}
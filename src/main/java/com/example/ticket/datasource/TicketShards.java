@@ -0,0 +1,215 @@
+package com.example.ticket.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Bases entre lesquelles les tickets sont répartis par hachage de l'assigné. Le shard 0 (spring.datasource.url)
+// est la base principale : les utilisateurs y sont écrits puis recopiés sur les autres shards, pour que chaque
+// shard joigne ses tickets à leurs assignés. Les identifiants restent uniques : les séquences sont entrelacées
+@Slf4j
+public class TicketShards implements AutoCloseable {
+    
+    public static final int HOME = 0;
+    
+    private static final int LOCATE_CHUNK_SIZE = 1000;
+    
+    private final List<HikariDataSource> pools;
+    private final List<JdbcTemplate> jdbc;
+    private final int unassignedShard;
+    private final ExecutorService fanOut;
+    
+    public TicketShards(List<HikariDataSource> pools, int unassignedShard, int fanOutThreads) {
+        if (unassignedShard < 0 || unassignedShard >= pools.size()) {
+            throw new IllegalStateException("ticket.sharding.unassigned-shard (" + unassignedShard
+                + ") doit désigner un des " + pools.size() + " shards");
+        }
+        this.pools = List.copyOf(pools);
+        this.jdbc = pools.stream().map(JdbcTemplate::new).toList();
+        this.unassignedShard = unassignedShard;
+        this.fanOut = Executors.newFixedThreadPool(Math.max(1, fanOutThreads), fanOutThreadFactory());
+    }
+    
+    public int count() {
+        return pools.size();
+    }
+    
+    public DataSource dataSource(int shard) {
+        return pools.get(shard);
+    }
+    
+    public int unassignedShard() {
+        return unassignedShard;
+    }
+    
+    // Identifiants séquentiels mélangés avant le modulo : des utilisateurs créés à la suite changent de shard.
+    // Changer le nombre de shards déplace les tickets : il faut alors les redistribuer
+    public int shardOf(Long userId) {
+        if (userId == null) {
+            return unassignedShard;
+        }
+        long mixed = userId * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(mixed ^ (mixed >>> 32), pools.size());
+    }
+    
+    // Un appel par shard, en parallèle ; les résultats sont rendus dans l'ordre des shards
+    public <T> List<T> fanOut(IntFunction<T> call) {
+        List<CompletableFuture<T>> calls = IntStream.range(0, pools.size())
+            .mapToObj(shard -> CompletableFuture.supplyAsync(() -> call.apply(shard), fanOut))
+            .toList();
+        List<T> results = new ArrayList<>(calls.size());
+        for (CompletableFuture<T> shardCall : calls) {
+            try {
+                results.add(shardCall.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+    
+    // Shard qui contient le ticket : une lecture par clé primaire sur chaque shard
+    public Optional<Integer> locate(Long ticketId) {
+        return fanOut(shard -> jdbc.get(shard)
+                .queryForList("SELECT id FROM tickets WHERE id = ?", Long.class, ticketId)
+                .isEmpty() ? null : shard)
+            .stream()
+            .filter(shard -> shard != null)
+            .findFirst();
+    }
+    
+    public Map<Long, Integer> locateAll(Collection<Long> ticketIds) {
+        List<Long> ids = ticketIds.stream().filter(id -> id != null).distinct().toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<List<Long>> found = fanOut(shard -> {
+            List<Long> present = new ArrayList<>();
+            for (int start = 0; start < ids.size(); start += LOCATE_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(start, Math.min(start + LOCATE_CHUNK_SIZE, ids.size()));
+                present.addAll(jdbc.get(shard).queryForList("SELECT id FROM tickets WHERE id IN ("
+                    + placeholders(chunk.size()) + ")", Long.class, chunk.toArray()));
+            }
+            return present;
+        });
+        Map<Long, Integer> located = new HashMap<>();
+        for (int shard = 0; shard < found.size(); shard++) {
+            for (Long id : found.get(shard)) {
+                located.putIfAbsent(id, shard);
+            }
+        }
+        return located;
+    }
+    
+    // Déplace le ticket sur le shard de son assigné actuel, s'il n'y est pas déjà ; retourne son shard.
+    // La ligne source reste verrouillée pendant la copie : une écriture concurrente attend le déplacement
+    public int relocate(Long ticketId, int from) {
+        TransactionTemplate sourceTransaction = new TransactionTemplate(new DataSourceTransactionManager(pools.get(from)));
+        Integer shard = sourceTransaction.execute(status -> {
+            Map<String, Object> row = jdbc.get(from).query("SELECT * FROM tickets WHERE id = ? FOR UPDATE",
+                rs -> rs.next() ? new ColumnMapRowMapper().mapRow(rs, 0) : null, ticketId);
+            if (row == null) {
+                return from;
+            }
+            Number userId = (Number) row.get("user_id");
+            int target = shardOf(userId != null ? userId.longValue() : null);
+            if (target == from) {
+                return from;
+            }
+            // Copie avant suppression : un échec entre les deux laisse un doublon (ignoré par les lectures), jamais une perte
+            jdbc.get(target).update("INSERT INTO tickets (" + String.join(", ", row.keySet()) + ") VALUES ("
+                + placeholders(row.size()) + ")", row.values().toArray());
+            jdbc.get(from).update("DELETE FROM tickets WHERE id = ?", ticketId);
+            return target;
+        });
+        if (shard != null && shard != from) {
+            log.debug("Ticket {} déplacé du shard {} vers le shard {}", ticketId, from, shard);
+        }
+        return shard != null ? shard : from;
+    }
+    
+    // Recopie l'utilisateur, validé sur le shard principal, sur les autres shards
+    public void copyUser(Long userId) {
+        Map<String, Object> row = jdbc.get(HOME).query("SELECT * FROM users WHERE id = ?",
+            rs -> rs.next() ? new ColumnMapRowMapper().mapRow(rs, 0) : null, userId);
+        if (row == null) {
+            log.warn("Utilisateur {} absent du shard principal, non recopié", userId);
+            return;
+        }
+        String merge = "MERGE INTO users (" + String.join(", ", row.keySet()) + ") KEY (id) VALUES ("
+            + placeholders(row.size()) + ")";
+        otherShards().forEach(shard -> jdbc.get(shard).update(merge, row.values().toArray()));
+    }
+    
+    // Supprime l'utilisateur des autres shards, avec les tickets qui lui restent assignés sur son shard
+    public void removeUser(Long userId) {
+        otherShards().forEach(shard -> {
+            jdbc.get(shard).update("DELETE FROM tickets WHERE user_id = ?", userId);
+            jdbc.get(shard).update("DELETE FROM archived_tickets WHERE user_id = ?", userId);
+            jdbc.get(shard).update("DELETE FROM users WHERE id = ?", userId);
+        });
+    }
+    
+    // Séquence du shard k : blocs [k * pas + 1, (k + 1) * pas], puis tous les count() blocs. Hibernate (optimiseur
+    // pooled) réserve le bloc qui se termine à la valeur lue : deux shards ne distribuent jamais le même identifiant
+    public void interleaveSequences(int shard) {
+        JdbcTemplate template = jdbc.get(shard);
+        template.queryForList("SELECT SEQUENCE_NAME, INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES "
+                + "WHERE SEQUENCE_SCHEMA = SCHEMA()")
+            .forEach(sequence -> {
+                long step = ((Number) sequence.get("INCREMENT")).longValue();
+                template.execute("ALTER SEQUENCE " + sequence.get("SEQUENCE_NAME")
+                    + " RESTART WITH " + (shard + 1) * step + " INCREMENT BY " + pools.size() * step);
+            });
+    }
+    
+    @Override
+    public void close() {
+        fanOut.shutdown();
+        pools.forEach(HikariDataSource::close);
+    }
+    
+    private List<Integer> otherShards() {
+        return IntStream.range(0, pools.size())
+            .filter(shard -> shard != HOME)
+            .boxed()
+            .collect(Collectors.toList());
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+    
+    private static ThreadFactory fanOutThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.ticket.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthRequestDTO {
+    
+    @NotBlank(message = "Le nom d'utilisateur est obligatoire")
+    private String username;
+    
+    @NotBlank(message = "Le mot de passe est obligatoire")
+    private String password;
+}
@@ -0,0 +1,28 @@
+package com.example.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Résultat d'un élément d'une opération par lot, dans l'ordre de la requête
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDTO {
+    
+    public enum Status {
+        CREATED,
+        UPDATED,
+        INVALID,
+        NOT_FOUND,
+        FORBIDDEN,
+        CONFLICT
+    }
+    
+    private int index;
+    private Long id;
+    private Status status;
+    private String message;
+}
@@ -0,0 +1,29 @@
+package com.example.ticket.dto;
+
+import com.example.ticket.model.enums.TicketStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Filtre (au moins un critère) et statut cible d'une transition de statut en masse
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateDTO {
+    
+    @Size(max = 10_000, message = "Au plus 10000 identifiants par requête")
+    private List<Long> ids;
+    
+    private TicketStatus currentStatus;
+    
+    private Long assignedUserId;
+    
+    @NotNull(message = "Le statut cible est obligatoire")
+    private TicketStatus targetStatus;
+}
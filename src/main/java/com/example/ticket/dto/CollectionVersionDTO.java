@@ -0,0 +1,17 @@
+package com.example.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionVersionDTO {
+    private long count;
+    private LocalDateTime lastModified;
+}
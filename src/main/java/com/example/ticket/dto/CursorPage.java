@@ -0,0 +1,48 @@
+package com.example.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+    
+    private List<T> content;
+    
+    // Curseur opaque à renvoyer pour obtenir la page suivante, null s'il n'y en a pas
+    private String next;
+    
+    private int size;
+    
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+    
+    // Les lignes sont chargées avec limit + 1 éléments pour savoir s'il existe une page suivante
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit,
+                                          Function<E, T> mapper,
+                                          Function<E, String> cursorOf) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        List<T> content = pageRows.stream()
+            .map(mapper)
+            .collect(Collectors.toList());
+        
+        return CursorPage.<T>builder()
+            .content(content)
+            .next(hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null)
+            .size(content.size())
+            .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ticket.dto;
+
+import com.example.ticket.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position de synchronisation dans les deux flux de changements : tickets par (updatedAt, id)
+// et traces de suppression par (createdAt, id). ticketsAt est null tant que la synchronisation
+// initiale n'a renvoyé aucun ticket. Encodée en jeton opaque comme TicketCursor.
+public record SyncWatermark(LocalDateTime ticketsAt, Long ticketId,
+                            LocalDateTime tombstonesAt, Long tombstoneId) {
+    
+    private static final String SEPARATOR = "|";
+    private static final String NONE = "-";
+    
+    public String encode() {
+        String raw = (ticketsAt != null ? ticketsAt + SEPARATOR + ticketId : NONE + SEPARATOR + NONE)
+            + SEPARATOR + tombstonesAt + SEPARATOR + tombstoneId;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static SyncWatermark decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4) {
+                throw new BadRequestException("Jeton de synchronisation invalide");
+            }
+            boolean noTicket = NONE.equals(parts[0]);
+            return new SyncWatermark(
+                noTicket ? null : LocalDateTime.parse(parts[0]),
+                noTicket ? null : Long.valueOf(parts[1]),
+                LocalDateTime.parse(parts[2]),
+                Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Jeton de synchronisation invalide");
+        }
+    }
+}
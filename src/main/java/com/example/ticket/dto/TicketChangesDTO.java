@@ -0,0 +1,37 @@
+package com.example.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketChangesDTO {
+    
+    public static final int DEFAULT_SIZE = 500;
+    public static final int MAX_SIZE = 1000;
+    
+    // Tickets créés ou modifiés depuis le jeton, dans leur état courant
+    private List<TicketDTO> updated;
+    
+    // Tickets supprimés (ou retirés à l'utilisateur) depuis le jeton ; à appliquer avant updated
+    private List<Long> deleted;
+    
+    // Jeton à renvoyer dans since au prochain appel
+    private String watermark;
+    
+    // D'autres changements attendent : rappeler immédiatement avec le nouveau jeton
+    private boolean hasMore;
+    
+    // Jeton plus ancien que la rétention des suppressions : recharger sans since
+    private boolean resyncRequired;
+    
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
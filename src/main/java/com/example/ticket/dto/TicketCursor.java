@@ -0,0 +1,48 @@
+package com.example.ticket.dto;
+
+import com.example.ticket.exception.BadRequestException;
+import com.example.ticket.model.entity.ArchivedTicket;
+import com.example.ticket.model.entity.Ticket;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position de pagination sur la clé (createdAt, id), encodée en jeton opaque pour les clients
+public record TicketCursor(LocalDateTime createdAt, Long id) {
+    
+    private static final String SEPARATOR = "|";
+    
+    public static TicketCursor of(Ticket ticket) {
+        return new TicketCursor(ticket.getCreatedAt(), ticket.getId());
+    }
+    
+    public static TicketCursor of(ArchivedTicket ticket) {
+        return new TicketCursor(ticket.getCreatedAt(), ticket.getId());
+    }
+    
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static TicketCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Curseur de pagination invalide");
+            }
+            return new TicketCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+    }
+}
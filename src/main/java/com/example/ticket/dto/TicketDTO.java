@@ -1,6 +1,7 @@
 package com.example.ticket.dto;
 
 import com.example.ticket.model.enums.TicketStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -8,6 +9,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -26,4 +29,11 @@ public class TicketDTO {
     
     private Long assignedUserId;
     private String assignedUsername;
-}
\ No newline at end of file
+    
+    // Version lue ; renvoyée lors d'une modification, elle fait échouer (409) l'écriture si le ticket a changé entre-temps
+    private Long version;
+    
+    // Date d'archivage, absente pour un ticket actif : un ticket archivé est en lecture seule
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,19 @@
+package com.example.ticket.dto;
+
+import com.example.ticket.service.event.TicketChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Événement poussé sur GET /api/tickets/events ; ticket est null quand le ticket sort de la vue de l'abonné
+// (suppression, archivage, ou réassignation à un autre utilisateur)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketEventDTO {
+    private TicketChangedEvent.Type type;
+    private Long ticketId;
+    private TicketDTO ticket;
+}
@@ -0,0 +1,23 @@
+package com.example.ticket.dto;
+
+import com.example.ticket.model.enums.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketStatsDTO {
+    private long total;
+    private Map<TicketStatus, Long> byStatus;
+    // Clé : id de l'utilisateur assigné ; les tickets non assignés sont comptés dans unassigned
+    private Map<Long, Map<TicketStatus, Long>> byAssignee;
+    private Map<TicketStatus, Long> unassigned;
+    private LocalDateTime reconciledAt;
+}
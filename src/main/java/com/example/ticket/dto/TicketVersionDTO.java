@@ -0,0 +1,17 @@
+package com.example.ticket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketVersionDTO {
+    private Long version;
+    private Long assignedUserId;
+    private String assignedUsername;
+    private Long assigneeVersion;
+}
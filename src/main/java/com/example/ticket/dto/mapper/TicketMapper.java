@@ -1,6 +1,7 @@
 package com.example.ticket.dto.mapper;
 
 import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.model.entity.ArchivedTicket;
 import com.example.ticket.model.entity.Ticket;
 import org.springframework.stereotype.Component;
 
@@ -19,6 +20,24 @@ public class TicketMapper {
                 ticket.getAssignedUser().getId() : null)
             .assignedUsername(ticket.getAssignedUser() != null ? 
                 ticket.getAssignedUser().getUsername() : null)
+            .version(ticket.getVersion())
+            .build();
+    }
+    
+    public TicketDTO toDTO(ArchivedTicket ticket) {
+        if (ticket == null) return null;
+        
+        return TicketDTO.builder()
+            .id(ticket.getId())
+            .title(ticket.getTitle())
+            .description(ticket.getDescription())
+            .status(ticket.getStatus())
+            .assignedUserId(ticket.getAssignedUser() != null ? 
+                ticket.getAssignedUser().getId() : null)
+            .assignedUsername(ticket.getAssignedUser() != null ? 
+                ticket.getAssignedUser().getUsername() : null)
+            .version(ticket.getVersion())
+            .archivedAt(ticket.getArchivedAt())
             .build();
     }
     
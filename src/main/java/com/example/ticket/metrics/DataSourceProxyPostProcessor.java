@@ -0,0 +1,33 @@
+package com.example.ticket.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Enveloppe les DataSource pour observer chaque exécution JDBC (Hibernate comme JdbcTemplate)
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+    
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Duration slowThreshold;
+    
+    public DataSourceProxyPostProcessor(ObjectProvider<MeterRegistry> registry, Duration slowThreshold) {
+        this.registry = registry;
+        this.slowThreshold = slowThreshold;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                .name(beanName)
+                .listener(new SqlStatementListener(registry, slowThreshold))
+                .build();
+        }
+        return bean;
+    }
+}
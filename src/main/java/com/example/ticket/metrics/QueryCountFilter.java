@@ -0,0 +1,64 @@
+package com.example.ticket.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Nombre de requêtes SQL par requête HTTP, étiqueté comme http.server.requests (méthode, uri, statut).
+// Une même forme de requête exécutée plus de repeatedThreshold fois signale un N+1 probable.
+@Slf4j
+public class QueryCountFilter extends OncePerRequestFilter {
+    
+    public static final String METRIC = "http.server.requests.queries";
+    public static final String REPEATED_METRIC = "http.server.requests.repeated.statements";
+    
+    private final MeterRegistry registry;
+    private final int repeatedThreshold;
+    
+    public QueryCountFilter(MeterRegistry registry, int repeatedThreshold) {
+        this.registry = registry;
+        this.repeatedThreshold = repeatedThreshold;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestStatements statements = RequestStatements.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestStatements.finish();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder(METRIC)
+                .description("Requêtes SQL exécutées par requête HTTP")
+                .baseUnit("queries")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .tag("status", String.valueOf(response.getStatus()))
+                .register(registry)
+                .record(statements.total());
+            statements.mostRepeated()
+                .filter(repeated -> repeated.getValue() > repeatedThreshold)
+                .ifPresent(repeated -> {
+                    log.warn("N+1 probable sur {} {} : requête exécutée {} fois ({} au total) : {}",
+                        request.getMethod(), uri, repeated.getValue(), statements.total(), repeated.getKey());
+                    Counter.builder(REPEATED_METRIC)
+                        .description("Requêtes HTTP répétant une même requête SQL au-delà du seuil")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(registry)
+                        .increment();
+                });
+        }
+    }
+}
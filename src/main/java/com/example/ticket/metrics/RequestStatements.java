@@ -0,0 +1,44 @@
+package com.example.ticket.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Requêtes SQL exécutées par le thread pendant la requête HTTP en cours, regroupées par forme
+public final class RequestStatements {
+    
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+    
+    private final Map<String, Integer> byShape = new HashMap<>();
+    private long total;
+    
+    private RequestStatements() {
+    }
+    
+    static RequestStatements start() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+    
+    static void finish() {
+        CURRENT.remove();
+    }
+    
+    // Hors requête HTTP (tâches planifiées, démarrage) rien n'est relevé
+    static void record(String shape) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.total++;
+            statements.byShape.merge(shape, 1, Integer::sum);
+        }
+    }
+    
+    public long total() {
+        return total;
+    }
+    
+    public Optional<Map.Entry<String, Integer>> mostRepeated() {
+        return byShape.entrySet().stream().max(Map.Entry.comparingByValue());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.ticket.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Chronomètre chaque exécution JDBC : timer db.statements par opération, journal et compteur des requêtes
+// lentes (forme de la requête et types des paramètres, jamais leurs valeurs), relevé par requête HTTP
+@Slf4j
+public class SqlStatementListener implements QueryExecutionListener {
+    
+    public static final String TIMER = "db.statements";
+    public static final String SLOW = "db.statements.slow";
+    
+    private static final Set<String> OPERATIONS = Set.of("select", "insert", "update", "delete");
+    // Listes IN de longueur variable : une seule forme quel que soit le nombre d'éléments
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Duration slowThreshold;
+    private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+    
+    public SqlStatementListener(ObjectProvider<MeterRegistry> registry, Duration slowThreshold) {
+        this.registry = registry;
+        this.slowThreshold = slowThreshold;
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        startedAt.set(System.nanoTime());
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = startedAt.get();
+        startedAt.remove();
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        String shape = shape(queryInfoList.get(0).getQuery());
+        String operation = operation(shape);
+        RequestStatements.record(shape);
+        
+        MeterRegistry meters = registry.getIfAvailable();
+        if (meters != null) {
+            Timer.builder(TIMER)
+                .description("Durée des exécutions JDBC")
+                .tag("operation", operation)
+                .tag("batch", String.valueOf(execInfo.isBatch()))
+                .register(meters)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        if (elapsed >= slowThreshold.toNanos()) {
+            log.warn("Requête SQL lente ({} ms) : {} ; paramètres {}{}", TimeUnit.NANOSECONDS.toMillis(elapsed),
+                shape, parameterShape(queryInfoList.get(0)),
+                execInfo.isBatch() ? " ; lot de " + execInfo.getBatchSize() : "");
+            if (meters != null) {
+                Counter.builder(SLOW)
+                    .description("Exécutions JDBC au-delà du seuil de lenteur")
+                    .tag("operation", operation)
+                    .register(meters)
+                    .increment();
+            }
+        }
+    }
+    
+    static String shape(String sql) {
+        String singleLine = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(singleLine).replaceAll("(?, ...)");
+    }
+    
+    static String operation(String shape) {
+        int end = shape.indexOf(' ');
+        String keyword = (end < 0 ? shape : shape.substring(0, end)).toLowerCase(Locale.ROOT);
+        return OPERATIONS.contains(keyword) ? keyword : "other";
+    }
+    
+    // Types des paramètres liés, dans l'ordre, les répétitions regroupées : [String, Long x12, null]
+    static String parameterShape(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) {
+            return "[]";
+        }
+        List<String> types = query.getParametersList().get(0).stream()
+            .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+            .map(SqlStatementListener::parameterType)
+            .toList();
+        List<String> groups = new ArrayList<>();
+        for (int i = 0; i < types.size(); ) {
+            int run = 1;
+            while (i + run < types.size() && types.get(i + run).equals(types.get(i))) {
+                run++;
+            }
+            groups.add(run == 1 ? types.get(i) : types.get(i) + " x" + run);
+            i += run;
+        }
+        return "[" + String.join(", ", groups) + "]";
+    }
+    
+    private static String parameterType(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if ("setNull".equals(operation.getMethod().getName()) || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        return args[1].getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ticket.model.entity;
+
+import com.example.ticket.model.enums.TicketStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Ticket clos sorti de la table chaude par TicketArchiver : même identifiant, même contenu, en lecture seule.
+// Écrit uniquement par INSERT ... SELECT depuis tickets : pas de génération d'identifiant ni d'audit
+@Entity
+@Table(name = "archived_tickets", indexes = {
+    @Index(name = "idx_archived_created_at", columnList = "created_at, id"),
+    @Index(name = "idx_archived_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_archived_status_created", columnList = "status, created_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedTicket {
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    private String title;
+    
+    @Column(length = 1000)
+    private String description;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TicketStatus status;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User assignedUser;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    private Long version;
+    
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
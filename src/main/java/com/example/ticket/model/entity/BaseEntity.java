@@ -13,8 +13,10 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
 	
+	// Séquence par entité avec optimiseur pooled (50 identifiants par appel) : contrairement
+	// à IDENTITY, Hibernate connaît l'id avant l'INSERT et peut regrouper les insertions en lots JDBC
 	@Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
     
     @CreatedDate
@@ -24,10 +26,19 @@ public abstract class BaseEntity {
     @LastModifiedDate
     private LocalDateTime updatedAt;
     
+    // Verrouillage optimiste : chaque UPDATE vérifie puis incrémente la version, sans verrou de ligne
+    @Version
+    private Long version;
+    
+    // Filet de sécurité hors contexte Spring ; l'audit JPA (JpaAuditingConfig) renseigne normalement ces dates
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
-
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+        if (this.updatedAt == null) {
+            this.updatedAt = this.createdAt;
+        }
     }
 
 }
@@ -0,0 +1,43 @@
+package com.example.ticket.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Événement métier à publier, écrit dans la transaction de la modification (outbox transactionnelle).
+// La ligne est supprimée une fois publiée ; en cas d'échec, elle est retentée à partir de nextAttemptAt.
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_next_attempt", columnList = "next_attempt_at, id")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent extends BaseEntity {
+    
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+    
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+    
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+    
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
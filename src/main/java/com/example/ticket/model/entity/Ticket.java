@@ -7,7 +7,15 @@ import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+    @Index(name = "idx_tickets_created_at", columnList = "created_at, id"),
+    // Filtres assigné + statut triés par (created_at, id) : parcours d'intervalle sur l'index, sans tri
+    @Index(name = "idx_tickets_user_status_created", columnList = "user_id, status, created_at, id"),
+    @Index(name = "idx_tickets_status_created", columnList = "status, created_at, id"),
+    // Synchronisation différentielle (GET /api/tickets/changes) : parcours par (updated_at, id)
+    @Index(name = "idx_tickets_updated_at", columnList = "updated_at, id"),
+    @Index(name = "idx_tickets_user_updated", columnList = "user_id, updated_at, id")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
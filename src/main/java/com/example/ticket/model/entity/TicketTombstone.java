@@ -0,0 +1,37 @@
+package com.example.ticket.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Trace d'un ticket sorti d'une vue de synchronisation : supprimé, archivé, ou retiré à son assigné.
+// createdAt sert de position dans le flux des changements (GET /api/tickets/changes).
+@Entity
+@Table(name = "ticket_tombstones", indexes = {
+    @Index(name = "idx_tombstones_created_at", columnList = "created_at, id"),
+    @Index(name = "idx_tombstones_user_created", columnList = "user_id, created_at, id")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketTombstone extends BaseEntity {
+    
+    public enum Reason {
+        DELETED,
+        ARCHIVED,
+        UNASSIGNED
+    }
+    
+    // Pas de clé étrangère : le ticket n'existe plus forcément
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+    
+    // Assigné qui perd le ticket ; null pour un ticket supprimé ou archivé sans assigné
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Reason reason;
+}
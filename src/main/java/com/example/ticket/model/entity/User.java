@@ -1,16 +1,26 @@
 package com.example.ticket.model.entity;
 
+import com.example.ticket.config.HibernateCacheConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.ArrayList;
 import java.util.List;
 
+// En cache de second niveau : findById et la résolution par username (identifiant naturel) ne touchent
+// pas la base en régime établi ; les écritures via JPA mettent les deux régions à jour au commit
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS_REGION)
+@NaturalIdCache(region = HibernateCacheConfig.USERS_BY_USERNAME_REGION)
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = "tickets")
 @ToString(exclude = "tickets")
@@ -19,6 +29,8 @@ import java.util.List;
 @Builder
 public class User extends BaseEntity {
     
+    // Modifiable (PUT /api/users/{id}) : Hibernate remplace l'entrée username -> id au renommage
+    @NaturalId(mutable = true)
     @NotBlank(message = "Le nom d'utilisateur est obligatoire")
     @Column(unique = true, nullable = false)
     private String username;
@@ -0,0 +1,30 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.model.entity.ArchivedTicket;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ArchivedTicketRepository extends JpaRepository<ArchivedTicket, Long> {
+    
+    // Repli de GET /api/tickets/{id} : l'assigné est chargé dans la même requête
+    @Override
+    @EntityGraph(attributePaths = "assignedUser")
+    Optional<ArchivedTicket> findById(Long id);
+    
+    // Même projection que TicketRepository.findVersionById : l'ETag d'un ticket ne change pas à l'archivage
+    @Query("SELECT a.version AS version, u.id AS assignedUserId, u.username AS assignedUsername, "
+        + "u.version AS assigneeVersion FROM ArchivedTicket a LEFT JOIN a.assignedUser u WHERE a.id = :id")
+    Optional<TicketVersionView> findVersionById(@Param("id") Long id);
+    
+    // À appeler avant de supprimer l'utilisateur : la cascade JPA ne couvre que la table chaude
+    @Modifying
+    @Query("DELETE FROM ArchivedTicket a WHERE a.assignedUser.id = :userId")
+    int deleteByAssignedUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,7 @@
+package com.example.ticket.repository;
+
+import java.time.LocalDateTime;
+
+// Empreinte d'un ensemble de lignes : change dès qu'une ligne est ajoutée, supprimée ou modifiée
+public record ListVersion(Long count, LocalDateTime lastModified) {
+}
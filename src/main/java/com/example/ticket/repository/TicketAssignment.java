@@ -0,0 +1,8 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.entity.User;
+
+// Ticket à assigner et son futur assigné, tous deux gérés par le contexte de persistance
+public record TicketAssignment(Ticket ticket, User assignee) {
+}
@@ -0,0 +1,10 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.model.enums.TicketStatus;
+
+// Ligne de comptage GROUP BY (statut, assigné) ; userId est null pour les tickets non assignés
+public interface TicketCountView {
+    TicketStatus getStatus();
+    Long getUserId();
+    long getTotal();
+}
@@ -0,0 +1,25 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.model.enums.TicketStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Collection;
+
+// Critères optionnels appliqués aux requêtes paginées sur les tickets
+@Value
+@Builder
+public class TicketFilter {
+    Collection<Long> ids;
+    TicketStatus status;
+    Long assignedUserId;
+    String assignedUsername;
+    
+    public static TicketFilter all() {
+        return TicketFilter.builder().build();
+    }
+    
+    public boolean isEmpty() {
+        return ids == null && status == null && assignedUserId == null && assignedUsername == null;
+    }
+}
@@ -2,22 +2,103 @@ package com.example.ticket.repository;
 
 import com.example.ticket.model.entity.Ticket;
 import com.example.ticket.model.enums.TicketStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketRepositoryCustom {
+    
+    int EXPORT_FETCH_SIZE = 500;
+    
+    // Les lectures mappées en TicketDTO chargent l'assigné dans la même requête (pas de N+1)
+    @Override
+    @EntityGraph(attributePaths = "assignedUser")
+    Optional<Ticket> findById(Long id);
+    
+    @Override
+    @EntityGraph(attributePaths = "assignedUser")
+    List<Ticket> findAll();
     
+    @Override
+    @EntityGraph(attributePaths = "assignedUser")
+    List<Ticket> findAllById(Iterable<Long> ids);
+    
+    @EntityGraph(attributePaths = "assignedUser")
     List<Ticket> findByAssignedUserId(Long userId);
     
+    @EntityGraph(attributePaths = "assignedUser")
     List<Ticket> findByStatus(TicketStatus status);
     
-    @Query("SELECT t FROM Ticket t WHERE t.assignedUser.username = :username")
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.assignedUser u WHERE u.username = :username")
     List<Ticket> findByAssignedUsername(@Param("username") String username);
     
+    // Propriété vérifiée dans le WHERE : le ticket n'est lu que si l'utilisateur en est l'assigné
+    @Query("SELECT t FROM Ticket t JOIN FETCH t.assignedUser u WHERE t.id = :id AND u.username = :username")
+    Optional<Ticket> findByIdAndAssignedUsername(@Param("id") Long id, @Param("username") String username);
+    
+    // Suppression conditionnelle : 0 si le ticket a été supprimé ou modifié depuis sa lecture
+    @Modifying
+    @Query("DELETE FROM Ticket t WHERE t.id = :id AND t.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+    
     long countByAssignedUserId(Long userId);
+    
+    @Query("SELECT t.id FROM Ticket t WHERE t.assignedUser.id = :userId")
+    List<Long> findIdsByAssignedUserId(@Param("userId") Long userId);
+    
+    // Date de modification seule : le flux des changements relit les tickets, la version (If-Match) reste valide
+    @Modifying
+    @Query("UPDATE Ticket t SET t.updatedAt = :updatedAt WHERE t.assignedUser.id = :userId")
+    int touchByAssignedUserId(@Param("userId") Long userId, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Lecture minimale pour les requêtes conditionnelles (If-None-Match)
+    @Query("SELECT t.version AS version, u.id AS assignedUserId, u.username AS assignedUsername, "
+        + "u.version AS assigneeVersion FROM Ticket t LEFT JOIN t.assignedUser u WHERE t.id = :id")
+    Optional<TicketVersionView> findVersionById(@Param("id") Long id);
+    
+    // assignedUser.id est lu directement dans la clé étrangère : pas de jointure sur users
+    @Query("SELECT t.status AS status, t.assignedUser.id AS userId, COUNT(t) AS total "
+        + "FROM Ticket t GROUP BY t.status, t.assignedUser.id")
+    List<TicketCountView> countByStatusAndAssignee();
+    
+    // Lecture en flux pour l'export : les lignes sont lues par paquets, sans charger tout le résultat
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Ticket t LEFT JOIN FETCH t.assignedUser ORDER BY t.id")
+    Stream<Ticket> streamAll();
+    
+    // Parcours par lots dans l'ordre des identifiants : export fusionné des shards (TicketShardRouting)
+    @EntityGraph(attributePaths = "assignedUser")
+    List<Ticket> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    
+    // Lot d'archivage : tickets clos avant cutoff, par identifiant croissant après afterId.
+    // SKIP LOCKED comme l'outbox : un ticket en cours de modification est laissé au passage suivant
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Ticket t WHERE t.id > :afterId AND t.status IN :statuses AND t.updatedAt < :cutoff "
+        + "ORDER BY t.id")
+    List<Ticket> claimArchivable(@Param("afterId") Long afterId,
+                                 @Param("statuses") Collection<TicketStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.model.entity.ArchivedTicket;
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TicketRepositoryCustom {
+    
+    // Pagination par clé (createdAt, id) : le coût d'une page ne dépend pas de sa profondeur
+    List<Ticket> findPage(TicketFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+    
+    // Même parcours sur archived_tickets (GET /api/tickets?includeArchived=true)
+    List<ArchivedTicket> findArchivedPage(TicketFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+    
+    // Tickets modifiés après la position (updatedAt, id) et jusqu'à upTo inclus, triés par (updatedAt, id)
+    List<Ticket> findChanges(TicketFilter filter, LocalDateTime afterUpdatedAt, Long afterId,
+                             LocalDateTime upTo, int limit);
+    
+    // Nombre de tickets du filtre et dernière modification (ticket ou assigné), sans charger les lignes
+    ListVersion listVersion(TicketFilter filter);
+    
+    ListVersion archivedListVersion(TicketFilter filter);
+    
+    // Ticket (avec son assigné actuel) et futur assigné lus en un seul aller-retour ; vide si l'un des deux manque
+    Optional<TicketAssignment> findForAssignment(Long ticketId, Long userId);
+    
+    // Transition de statut ensembliste : un seul UPDATE, retourne le nombre de tickets modifiés
+    int updateStatus(TicketFilter filter, TicketStatus targetStatus, LocalDateTime updatedAt);
+    
+    // Copie les tickets dans archived_tickets puis les supprime de tickets, dans la transaction courante.
+    // Les lignes doivent être verrouillées par l'appelant ; retourne le nombre de tickets déplacés
+    int moveToArchive(Collection<Long> ids);
+}
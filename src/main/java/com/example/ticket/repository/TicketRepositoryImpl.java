@@ -0,0 +1,194 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.model.entity.ArchivedTicket;
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.entity.User;
+import com.example.ticket.model.enums.TicketStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class TicketRepositoryImpl implements TicketRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Ticket> findPage(TicketFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        return findAfter(Ticket.class, filter, "createdAt", afterCreatedAt, afterId, null, limit);
+    }
+    
+    @Override
+    public List<ArchivedTicket> findArchivedPage(TicketFilter filter, LocalDateTime afterCreatedAt, Long afterId,
+                                                 int limit) {
+        return findAfter(ArchivedTicket.class, filter, "createdAt", afterCreatedAt, afterId, null, limit);
+    }
+    
+    @Override
+    public List<Ticket> findChanges(TicketFilter filter, LocalDateTime afterUpdatedAt, Long afterId,
+                                    LocalDateTime upTo, int limit) {
+        return findAfter(Ticket.class, filter, "updatedAt", afterUpdatedAt, afterId, upTo, limit);
+    }
+    
+    // Parcours par clé (date, id) : createdAt pour la pagination, updatedAt pour la synchronisation.
+    // Ticket et ArchivedTicket portent les mêmes attributs : une seule construction pour les deux tables
+    private <T> List<T> findAfter(Class<T> type, TicketFilter filter, String dateAttribute, LocalDateTime afterDate,
+                                  Long afterId, LocalDateTime upTo, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> ticket = query.from(type);
+        // L'assigné est chargé dans la même requête pour éviter un SELECT par ticket lors du mapping.
+        // Filtré par nom, la jointure est interne : la base part de l'index unique sur username
+        // puis parcourt idx_tickets_user_status_created
+        JoinType joinType = filter.getAssignedUsername() != null ? JoinType.INNER : JoinType.LEFT;
+        @SuppressWarnings("unchecked")
+        Join<T, User> assignee = (Join<T, User>) ticket.<T, User>fetch("assignedUser", joinType);
+        Path<LocalDateTime> date = ticket.get(dateAttribute);
+        Path<Long> id = ticket.get("id");
+        
+        List<Predicate> predicates = filterPredicates(cb, ticket, filter);
+        if (filter.getAssignedUsername() != null) {
+            predicates.add(cb.equal(assignee.get("username"), filter.getAssignedUsername()));
+        }
+        if (afterDate != null && afterId != null) {
+            predicates.add(cb.or(
+                cb.greaterThan(date, afterDate),
+                cb.and(cb.equal(date, afterDate), cb.greaterThan(id, afterId))));
+        }
+        if (upTo != null) {
+            predicates.add(cb.lessThanOrEqualTo(date, upTo));
+        }
+        
+        query.select(ticket)
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.asc(date), cb.asc(id));
+        
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    @Override
+    public ListVersion listVersion(TicketFilter filter) {
+        return listVersion(Ticket.class, filter);
+    }
+    
+    @Override
+    public ListVersion archivedListVersion(TicketFilter filter) {
+        return listVersion(ArchivedTicket.class, filter);
+    }
+    
+    private ListVersion listVersion(Class<?> type, TicketFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> ticket = query.from(type);
+        Join<?, User> assignee = ticket.join("assignedUser",
+            filter.getAssignedUsername() != null ? JoinType.INNER : JoinType.LEFT);
+        
+        List<Predicate> predicates = filterPredicates(cb, ticket, filter);
+        if (filter.getAssignedUsername() != null) {
+            predicates.add(cb.equal(assignee.get("username"), filter.getAssignedUsername()));
+        }
+        
+        Expression<Long> count = cb.count(ticket);
+        Expression<LocalDateTime> ticketModified = cb.greatest(ticket.<LocalDateTime>get("updatedAt"));
+        Expression<LocalDateTime> assigneeModified = cb.greatest(assignee.<LocalDateTime>get("updatedAt"));
+        query.multiselect(count, ticketModified, assigneeModified)
+            .where(predicates.toArray(Predicate[]::new));
+        
+        Tuple result = entityManager.createQuery(query).getSingleResult();
+        LocalDateTime lastModified = result.get(ticketModified);
+        LocalDateTime assigneeLastModified = result.get(assigneeModified);
+        if (assigneeLastModified != null && (lastModified == null || assigneeLastModified.isAfter(lastModified))) {
+            lastModified = assigneeLastModified;
+        }
+        return new ListVersion(result.get(count), lastModified);
+    }
+    
+    @Override
+    public Optional<TicketAssignment> findForAssignment(Long ticketId, Long userId) {
+        // Produit cartésien réduit à une ligne par les deux clés primaires
+        return entityManager.createQuery(
+                "SELECT t, u FROM Ticket t LEFT JOIN FETCH t.assignedUser, User u "
+                    + "WHERE t.id = :ticketId AND u.id = :userId", Object[].class)
+            .setParameter("ticketId", ticketId)
+            .setParameter("userId", userId)
+            .getResultStream()
+            .findFirst()
+            .map(row -> new TicketAssignment((Ticket) row[0], (User) row[1]));
+    }
+    
+    @Override
+    public int updateStatus(TicketFilter filter, TicketStatus targetStatus, LocalDateTime updatedAt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ticket> update = cb.createCriteriaUpdate(Ticket.class);
+        Root<Ticket> ticket = update.from(Ticket.class);
+        
+        List<Predicate> predicates = filterPredicates(cb, ticket, filter);
+        if (filter.getAssignedUsername() != null) {
+            // Pas de jointure dans un UPDATE : l'assigné est résolu par sous-requête
+            Subquery<Long> userIds = update.subquery(Long.class);
+            Root<User> user = userIds.from(User.class);
+            userIds.select(user.get("id"))
+                .where(cb.equal(user.get("username"), filter.getAssignedUsername()));
+            predicates.add(ticket.get("assignedUser").get("id").in(userIds));
+        }
+        // Les tickets déjà dans le statut cible ne sont ni comptés ni modifiés
+        predicates.add(cb.notEqual(ticket.get("status"), targetStatus));
+        
+        // Incrémenter la version : les éditions concurrentes basées sur l'ancien état échoueront
+        Path<Long> version = ticket.get("version");
+        update.set(ticket.<TicketStatus>get("status"), targetStatus)
+            .set(ticket.<LocalDateTime>get("updatedAt"), updatedAt)
+            .set(version, cb.sum(cb.coalesce(version, 0L), 1L))
+            .where(predicates.toArray(Predicate[]::new));
+        
+        return entityManager.createQuery(update).executeUpdate();
+    }
+    
+    @Override
+    public int moveToArchive(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.createQuery("INSERT INTO ArchivedTicket (id, title, description, status, assignedUser, "
+                + "createdAt, updatedAt, version, archivedAt) "
+                + "SELECT t.id, t.title, t.description, t.status, t.assignedUser, t.createdAt, t.updatedAt, "
+                + "t.version, local datetime FROM Ticket t WHERE t.id IN :ids")
+            .setParameter("ids", ids)
+            .executeUpdate();
+        return entityManager.createQuery("DELETE FROM Ticket t WHERE t.id IN :ids")
+            .setParameter("ids", ids)
+            .executeUpdate();
+    }
+    
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<?> ticket, TicketFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getIds() != null) {
+            predicates.add(ticket.get("id").in(filter.getIds()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(ticket.get("status"), filter.getStatus()));
+        }
+        if (filter.getAssignedUserId() != null) {
+            predicates.add(cb.equal(ticket.get("assignedUser").get("id"), filter.getAssignedUserId()));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.model.entity.TicketTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TicketTombstoneRepository extends JpaRepository<TicketTombstone, Long> {
+    
+    // Suppressions et archivages après la position (createdAt, id), jusqu'à upTo inclus : parcours de idx_tombstones_created_at
+    @Query("SELECT d FROM TicketTombstone d WHERE d.reason <> UNASSIGNED "
+        + "AND (d.createdAt > :afterCreatedAt OR (d.createdAt = :afterCreatedAt AND d.id > :afterId)) "
+        + "AND d.createdAt <= :upTo ORDER BY d.createdAt, d.id")
+    List<TicketTombstone> findDeletedAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                           @Param("afterId") Long afterId,
+                                           @Param("upTo") LocalDateTime upTo,
+                                           Limit limit);
+    
+    // Tickets supprimés, archivés ou retirés à un utilisateur : parcours de idx_tombstones_user_created
+    @Query("SELECT d FROM TicketTombstone d WHERE d.userId = :userId "
+        + "AND (d.createdAt > :afterCreatedAt OR (d.createdAt = :afterCreatedAt AND d.id > :afterId)) "
+        + "AND d.createdAt <= :upTo ORDER BY d.createdAt, d.id")
+    List<TicketTombstone> findByUserIdAfter(@Param("userId") Long userId,
+                                            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                            @Param("afterId") Long afterId,
+                                            @Param("upTo") LocalDateTime upTo,
+                                            Limit limit);
+    
+    @Modifying
+    @Query("DELETE FROM TicketTombstone d WHERE d.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
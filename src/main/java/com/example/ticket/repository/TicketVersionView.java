@@ -0,0 +1,9 @@
+package com.example.ticket.repository;
+
+// Versions d'un ticket et de son assigné (dont le nom figure dans TicketDTO), lues sans charger les entités
+public interface TicketVersionView {
+    Long getVersion();
+    Long getAssignedUserId();
+    String getAssignedUsername();
+    Long getAssigneeVersion();
+}
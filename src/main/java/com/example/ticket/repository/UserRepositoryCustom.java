@@ -0,0 +1,11 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.model.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    
+    // Résolution par identifiant naturel : servie par le cache de second niveau, sans requête en régime établi
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,87 @@
+package com.example.ticket.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+// Émission et validation des jetons JWT signés (HS256) : la vérification ne demande aucun hachage de mot de passe
+@Service
+public class JwtService {
+    
+    private static final String ROLES_CLAIM = "roles";
+    // HS256 : clé d'au moins 256 bits
+    private static final int MIN_KEY_BYTES = 32;
+    
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Duration expiration;
+    
+    public JwtService(
+            @Value("${ticket.security.jwt.secret}") String secret,
+            @Value("${ticket.security.jwt.expiration:1h}") Duration expiration) {
+        this.signingKey = signingKey(secret);
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.expiration = expiration;
+    }
+    
+    // Une clé absente ou trop courte rendrait les jetons (et leurs rôles) forgeables : l'application ne démarre pas
+    private static Key signingKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("ticket.security.jwt.secret (TICKET_JWT_SECRET) est obligatoire");
+        }
+        byte[] key = Decoders.BASE64.decode(secret.trim());
+        if (key.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException(
+                "ticket.security.jwt.secret doit faire au moins " + MIN_KEY_BYTES * 8 + " bits");
+        }
+        return Keys.hmacShaKeyFor(key);
+    }
+    
+    public String generateToken(Authentication authentication) {
+        long now = System.currentTimeMillis();
+        List<String> roles = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList();
+        
+        return Jwts.builder()
+            .setSubject(authentication.getName())
+            .claim(ROLES_CLAIM, roles)
+            .setIssuedAt(new Date(now))
+            .setExpiration(new Date(now + expiration.toMillis()))
+            .signWith(signingKey, SignatureAlgorithm.HS256)
+            .compact();
+    }
+    
+    // Lève JwtException si le jeton est mal formé, mal signé ou expiré
+    public Authentication parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (claims.getSubject() == null || roles == null) {
+            throw new JwtException("Jeton incomplet");
+        }
+        
+        List<GrantedAuthority> authorities = roles.stream()
+            .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+            .toList();
+        return UsernamePasswordAuthenticationToken.authenticated(claims.getSubject(), null, authorities);
+    }
+    
+    public Duration getExpiration() {
+        return expiration;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.ticket.security;
+
+import org.springframework.security.core.Authentication;
+
+// Règle d'accès aux tickets, partagée par l'API REST et le flux d'événements
+public final class TicketAccess {
+    
+    private TicketAccess() {
+    }
+    
+    public static boolean isAdmin(Authentication auth) {
+        return auth.getAuthorities().stream()
+            .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+    
+    // Admin a accès à tout, user seulement aux tickets qui lui sont assignés
+    public static boolean canAccess(String assignedUsername, Authentication auth) {
+        if (isAdmin(auth)) {
+            return true;
+        }
+        return assignedUsername != null && assignedUsername.equals(auth.getName());
+    }
+}
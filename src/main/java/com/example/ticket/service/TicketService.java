@@ -1,13 +1,47 @@
 package com.example.ticket.service;
 
+import com.example.ticket.dto.BatchItemResultDTO;
+import com.example.ticket.dto.BulkStatusUpdateDTO;
+import com.example.ticket.dto.BulkUpdateResultDTO;
+import com.example.ticket.dto.CacheStatsDTO;
+import com.example.ticket.dto.CollectionVersionDTO;
+import com.example.ticket.dto.CursorPage;
+import com.example.ticket.dto.TicketChangesDTO;
 import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketStatsDTO;
+import com.example.ticket.dto.TicketVersionDTO;
 import com.example.ticket.model.enums.TicketStatus;
 import com.example.ticket.service.generic.GenericService;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TicketService extends GenericService<TicketDTO, Long> {
+    
+    int MAX_BATCH_ITEMS = 10_000;
+    
+    TicketDTO update(Long id, TicketDTO dto, String restrictToUsername);
     TicketDTO assignTicket(Long ticketId, Long userId);
     List<TicketDTO> findByStatus(TicketStatus status);
     List<TicketDTO> findByAssignedUser(String username);
+    CursorPage<TicketDTO> findPage(TicketStatus status, Long assignedUserId, String cursor, int size);
+    CursorPage<TicketDTO> findPageByAssignedUser(String username, TicketStatus status, String cursor, int size);
+    CursorPage<TicketDTO> findPage(TicketStatus status, Long assignedUserId, boolean includeArchived,
+                                   String cursor, int size);
+    CursorPage<TicketDTO> findPageByAssignedUser(String username, TicketStatus status, boolean includeArchived,
+                                                 String cursor, int size);
+    Optional<TicketVersionDTO> findVersion(Long id);
+    CollectionVersionDTO findPageVersion(TicketStatus status, Long assignedUserId);
+    CollectionVersionDTO findPageVersionByAssignedUser(String username, TicketStatus status);
+    CollectionVersionDTO findPageVersion(TicketStatus status, Long assignedUserId, boolean includeArchived);
+    CollectionVersionDTO findPageVersionByAssignedUser(String username, TicketStatus status, boolean includeArchived);
+    TicketChangesDTO findChanges(String since, int size);
+    TicketChangesDTO findChangesByAssignedUser(String username, String since, int size);
+    long exportAll(Consumer<TicketDTO> consumer);
+    List<BatchItemResultDTO> createAll(List<TicketDTO> dtos);
+    List<BatchItemResultDTO> updateAll(List<TicketDTO> dtos, String restrictToUsername);
+    BulkUpdateResultDTO transitionStatus(BulkStatusUpdateDTO request);
+    CacheStatsDTO cacheStats();
+    TicketStatsDTO statistics();
 }
\ No newline at end of file
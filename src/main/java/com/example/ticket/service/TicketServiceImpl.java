@@ -1,33 +1,89 @@
 package com.example.ticket.service;
 
+import com.example.ticket.dto.BatchItemResultDTO;
+import com.example.ticket.dto.BulkStatusUpdateDTO;
+import com.example.ticket.dto.BulkUpdateResultDTO;
+import com.example.ticket.dto.CacheStatsDTO;
+import com.example.ticket.dto.CollectionVersionDTO;
+import com.example.ticket.dto.CursorPage;
+import com.example.ticket.dto.TicketChangesDTO;
+import com.example.ticket.dto.TicketCursor;
 import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketStatsDTO;
+import com.example.ticket.dto.TicketVersionDTO;
 import com.example.ticket.dto.mapper.TicketMapper;
+import com.example.ticket.exception.BadRequestException;
 import com.example.ticket.exception.ResourceNotFoundException;
+import com.example.ticket.exception.UnauthorizedException;
+import com.example.ticket.model.entity.ArchivedTicket;
 import com.example.ticket.model.entity.Ticket;
 import com.example.ticket.model.entity.User;
 import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.repository.ArchivedTicketRepository;
+import com.example.ticket.repository.ListVersion;
+import com.example.ticket.repository.TicketAssignment;
+import com.example.ticket.repository.TicketFilter;
 import com.example.ticket.repository.TicketRepository;
 import com.example.ticket.repository.UserRepository;
+import com.example.ticket.service.cache.TicketCache;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsBulkUpdatedEvent;
 import com.example.ticket.service.generic.GenericServiceImpl;
+import com.example.ticket.service.retry.OptimisticLockRetry;
+import com.example.ticket.service.stats.TicketStatistics;
+import com.example.ticket.service.sync.TicketChangeLog;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed(value = "service.method", description = "Durée des méthodes de service")
 @RequiredArgsConstructor
 @Slf4j
 public class TicketServiceImpl extends GenericServiceImpl<TicketDTO, Long> implements TicketService {
     
+    // Aligné sur hibernate.jdbc.batch_size : un flush par paquet envoie un seul lot JDBC
+    private static final int BATCH_CHUNK_SIZE = 100;
+    
+    // Ordre de TicketRepository.findPage, pour fusionner tickets actifs et archivés
+    private static final Comparator<TicketCursor> PAGE_ORDER =
+        Comparator.comparing(TicketCursor::createdAt).thenComparing(TicketCursor::id);
+    
     private final TicketRepository ticketRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
     private final UserRepository userRepository;
     private final TicketMapper ticketMapper;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TicketCache ticketCache;
+    private final TicketStatistics ticketStatistics;
+    private final TicketChangeLog ticketChangeLog;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     protected JpaRepository<TicketDTO, Long> getRepository() {
@@ -52,15 +108,21 @@ public class TicketServiceImpl extends GenericServiceImpl<TicketDTO, Long> imple
         }
         
         Ticket savedTicket = ticketRepository.save(ticket);
-        return ticketMapper.toDTO(savedTicket);
+        TicketDTO created = ticketMapper.toDTO(savedTicket);
+        publishChange(TicketChangedEvent.Type.CREATED, savedTicket.getId(), null, created);
+        return created;
     }
     
+    // Sans transaction : un succès de cache ne prend pas de connexion, un échec charge via le repository.
+    // Absent de la table chaude, le ticket est cherché dans l'archive (non mis en cache : lectures rares)
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<TicketDTO> findById(Long id) {
         log.debug("Recherche du ticket avec l'ID: {}", id);
-        return ticketRepository.findById(id)
-            .map(ticketMapper::toDTO);
+        return ticketCache.get(id, key -> ticketRepository.findById(key)
+                .map(ticketMapper::toDTO))
+            .or(() -> archivedTicketRepository.findById(id)
+                .map(ticketMapper::toDTO));
     }
     
     @Override
@@ -73,42 +135,81 @@ public class TicketServiceImpl extends GenericServiceImpl<TicketDTO, Long> imple
     }
     
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public TicketDTO update(Long id, TicketDTO dto) {
+        return update(id, dto, null);
+    }
+    
+    // Avec une version attendue, un conflit est remonté (409) ; sans version, l'écriture est rejouée sur l'état frais
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TicketDTO update(Long id, TicketDTO dto, String restrictToUsername) {
+        if (dto.getVersion() != null) {
+            return optimisticLockRetry.executeOnce(() -> doUpdate(id, dto, restrictToUsername));
+        }
+        return optimisticLockRetry.execute(() -> doUpdate(id, dto, restrictToUsername));
+    }
+    
+    private TicketDTO doUpdate(Long id, TicketDTO dto, String restrictToUsername) {
         log.info("Mise à jour du ticket avec l'ID: {}", id);
-        Ticket ticket = ticketRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Ticket avec l'ID " + id + " non trouvé"));
+        Ticket ticket = findForWrite(id, restrictToUsername);
+        checkVersion(ticket, dto.getVersion());
         
+        TicketDTO before = ticketMapper.toDTO(ticket);
         ticketMapper.updateEntityFromDTO(dto, ticket);
-        Ticket updatedTicket = ticketRepository.save(ticket);
-        return ticketMapper.toDTO(updatedTicket);
+        // saveAndFlush : la version incrémentée est connue avant de construire la réponse
+        Ticket updatedTicket = ticketRepository.saveAndFlush(ticket);
+        TicketDTO updated = ticketMapper.toDTO(updatedTicket);
+        publishChange(TicketChangedEvent.Type.UPDATED, id, before, updated);
+        return updated;
     }
     
+    // Suppression « dernier gagnant » : si le ticket a changé depuis sa lecture, elle est rejouée sur l'état frais
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void delete(Long id) {
+        optimisticLockRetry.execute(() -> {
+            doDelete(id);
+            return null;
+        });
+    }
+    
+    private void doDelete(Long id) {
         log.info("Suppression du ticket avec l'ID: {}", id);
-        if (!ticketRepository.existsById(id)) {
-            throw new ResourceNotFoundException(
-                "Ticket avec l'ID " + id + " non trouvé");
+        Ticket ticket = ticketRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "Ticket avec l'ID " + id + " non trouvé"));
+        
+        // Un seul DELETE conditionnel, sans recharger l'entité : 0 ligne = écriture concurrente
+        if (ticketRepository.deleteByIdAndVersion(id, ticket.getVersion()) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Ticket.class, id);
         }
-        ticketRepository.deleteById(id);
+        publishChange(TicketChangedEvent.Type.DELETED, id, ticketMapper.toDTO(ticket), null);
     }
     
+    // L'assignation écrase la précédente : en cas de commit concurrent, elle est simplement rejouée
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public TicketDTO assignTicket(Long ticketId, Long userId) {
+        return optimisticLockRetry.execute(() -> doAssignTicket(ticketId, userId));
+    }
+    
+    private TicketDTO doAssignTicket(Long ticketId, Long userId) {
         log.info("Assignation du ticket {} à l'utilisateur {}", ticketId, userId);
         
-        Ticket ticket = ticketRepository.findById(ticketId)
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Ticket avec l'ID " + ticketId + " non trouvé"));
-        
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Utilisateur avec l'ID " + userId + " non trouvé"));
+        // Ticket et assigné en un seul SELECT ; la cause d'un échec n'est cherchée qu'ensuite
+        TicketAssignment assignment = ticketRepository.findForAssignment(ticketId, userId)
+            .orElseThrow(() -> ticketRepository.existsById(ticketId)
+                ? new ResourceNotFoundException("Utilisateur avec l'ID " + userId + " non trouvé")
+                : new ResourceNotFoundException("Ticket avec l'ID " + ticketId + " non trouvé"));
+        Ticket ticket = assignment.ticket();
         
-        ticket.setAssignedUser(user);
-        Ticket updatedTicket = ticketRepository.save(ticket);
-        return ticketMapper.toDTO(updatedTicket);
+        TicketDTO before = ticketMapper.toDTO(ticket);
+        ticket.setAssignedUser(assignment.assignee());
+        Ticket updatedTicket = ticketRepository.saveAndFlush(ticket);
+        TicketDTO assigned = ticketMapper.toDTO(updatedTicket);
+        publishChange(TicketChangedEvent.Type.ASSIGNED, ticketId, before, assigned);
+        return assigned;
     }
     
     @Override
@@ -128,4 +229,376 @@ public class TicketServiceImpl extends GenericServiceImpl<TicketDTO, Long> imple
             .map(ticketMapper::toDTO)
             .collect(Collectors.toList());
     }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketDTO> findPage(TicketStatus status, Long assignedUserId, String cursor, int size) {
+        return findPage(status, assignedUserId, false, cursor, size);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketDTO> findPageByAssignedUser(String username, TicketStatus status, String cursor, int size) {
+        return findPageByAssignedUser(username, status, false, cursor, size);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketDTO> findPage(TicketStatus status, Long assignedUserId, boolean includeArchived,
+                                          String cursor, int size) {
+        log.debug("Récupération d'une page de tickets (statut: {}, assigné: {}, archives: {})",
+            status, assignedUserId, includeArchived);
+        return findPage(TicketFilter.builder()
+            .status(status)
+            .assignedUserId(assignedUserId)
+            .build(), includeArchived, cursor, size);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketDTO> findPageByAssignedUser(String username, TicketStatus status, boolean includeArchived,
+                                                        String cursor, int size) {
+        log.debug("Récupération d'une page de tickets assignés à: {} (statut: {}, archives: {})",
+            username, status, includeArchived);
+        return findPage(TicketFilter.builder()
+            .assignedUsername(username)
+            .status(status)
+            .build(), includeArchived, cursor, size);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TicketVersionDTO> findVersion(Long id) {
+        return ticketRepository.findVersionById(id)
+            .or(() -> archivedTicketRepository.findVersionById(id))
+            .map(view -> TicketVersionDTO.builder()
+                .version(view.getVersion())
+                .assignedUserId(view.getAssignedUserId())
+                .assignedUsername(view.getAssignedUsername())
+                .assigneeVersion(view.getAssigneeVersion())
+                .build());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CollectionVersionDTO findPageVersion(TicketStatus status, Long assignedUserId) {
+        return findPageVersion(status, assignedUserId, false);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CollectionVersionDTO findPageVersionByAssignedUser(String username, TicketStatus status) {
+        return findPageVersionByAssignedUser(username, status, false);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CollectionVersionDTO findPageVersion(TicketStatus status, Long assignedUserId, boolean includeArchived) {
+        return findPageVersion(TicketFilter.builder()
+            .status(status)
+            .assignedUserId(assignedUserId)
+            .build(), includeArchived);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CollectionVersionDTO findPageVersionByAssignedUser(String username, TicketStatus status,
+                                                              boolean includeArchived) {
+        return findPageVersion(TicketFilter.builder()
+            .assignedUsername(username)
+            .status(status)
+            .build(), includeArchived);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public TicketChangesDTO findChanges(String since, int size) {
+        log.debug("Synchronisation des tickets depuis: {}", since);
+        return ticketChangeLog.changesSince(since, null, size);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public TicketChangesDTO findChangesByAssignedUser(String username, String since, int size) {
+        log.debug("Synchronisation des tickets de {} depuis: {}", username, since);
+        User user = userRepository.findByUsername(username)
+            .orElseThrow(() -> new ResourceNotFoundException(
+                "Utilisateur " + username + " non trouvé"));
+        return ticketChangeLog.changesSince(since, user.getId(), size);
+    }
+    
+    private CursorPage<TicketDTO> findPage(TicketFilter filter, boolean includeArchived, String cursor, int size) {
+        TicketCursor after = TicketCursor.decode(cursor);
+        int limit = CursorPage.clampSize(size);
+        LocalDateTime afterCreatedAt = after != null ? after.createdAt() : null;
+        Long afterId = after != null ? after.id() : null;
+        List<Ticket> tickets = ticketRepository.findPage(filter, afterCreatedAt, afterId, limit + 1);
+        if (!includeArchived) {
+            return CursorPage.of(tickets, limit, ticketMapper::toDTO,
+                ticket -> TicketCursor.of(ticket).encode());
+        }
+        // Un ticket est dans une seule des deux tables : fusion des deux parcours par (createdAt, id),
+        // le curseur reste valable de part et d'autre
+        List<ArchivedTicket> archived = ticketRepository.findArchivedPage(filter, afterCreatedAt, afterId, limit + 1);
+        List<Map.Entry<TicketCursor, TicketDTO>> rows = Stream.concat(
+                tickets.stream().map(ticket -> Map.entry(TicketCursor.of(ticket), ticketMapper.toDTO(ticket))),
+                archived.stream().map(ticket -> Map.entry(TicketCursor.of(ticket), ticketMapper.toDTO(ticket))))
+            .sorted(Map.Entry.comparingByKey(PAGE_ORDER))
+            .limit(limit + 1)
+            .toList();
+        return CursorPage.of(rows, limit, Map.Entry::getValue, row -> row.getKey().encode());
+    }
+    
+    private CollectionVersionDTO findPageVersion(TicketFilter filter, boolean includeArchived) {
+        ListVersion version = ticketRepository.listVersion(filter);
+        if (!includeArchived) {
+            return toCollectionVersion(version);
+        }
+        ListVersion archived = ticketRepository.archivedListVersion(filter);
+        return CollectionVersionDTO.builder()
+            .count(version.count() + archived.count())
+            .lastModified(Stream.of(version.lastModified(), archived.lastModified())
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null))
+            .build();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAll(Consumer<TicketDTO> consumer) {
+        log.info("Export de tous les tickets");
+        long count = 0;
+        try (Stream<Ticket> tickets = ticketRepository.streamAll()) {
+            Iterator<Ticket> iterator = tickets.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(ticketMapper.toDTO(iterator.next()));
+                // Détacher les entités déjà écrites pour garder une mémoire constante
+                if (++count % TicketRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("{} tickets exportés", count);
+        return count;
+    }
+    
+    @Override
+    public List<BatchItemResultDTO> createAll(List<TicketDTO> dtos) {
+        log.info("Création par lot de {} tickets", dtos.size());
+        checkBatchSize(dtos);
+        Map<Long, User> assignees = findAssignees(dtos);
+        
+        List<BatchItemResultDTO> results = new ArrayList<>(dtos.size());
+        int pending = 0;
+        for (int index = 0; index < dtos.size(); index++) {
+            TicketDTO dto = dtos.get(index);
+            
+            String violations = validate(dto);
+            if (violations != null) {
+                results.add(batchResult(index, null, BatchItemResultDTO.Status.INVALID, violations));
+                continue;
+            }
+            User user = null;
+            if (dto.getAssignedUserId() != null) {
+                user = assignees.get(dto.getAssignedUserId());
+                if (user == null) {
+                    results.add(batchResult(index, null, BatchItemResultDTO.Status.NOT_FOUND,
+                        "Utilisateur avec l'ID " + dto.getAssignedUserId() + " non trouvé"));
+                    continue;
+                }
+            }
+            
+            Ticket ticket = ticketMapper.toEntity(dto);
+            ticket.setAssignedUser(user);
+            Ticket savedTicket = ticketRepository.save(ticket);
+            publishChange(TicketChangedEvent.Type.CREATED, savedTicket.getId(), null, ticketMapper.toDTO(savedTicket));
+            results.add(batchResult(index, savedTicket.getId(), BatchItemResultDTO.Status.CREATED, null));
+            
+            if (++pending % BATCH_CHUNK_SIZE == 0) {
+                flushAndClear();
+            }
+        }
+        return results;
+    }
+    
+    @Override
+    public List<BatchItemResultDTO> updateAll(List<TicketDTO> dtos, String restrictToUsername) {
+        log.info("Mise à jour par lot de {} tickets", dtos.size());
+        checkBatchSize(dtos);
+        Map<Long, User> assignees = findAssignees(dtos);
+        
+        List<BatchItemResultDTO> results = new ArrayList<>(dtos.size());
+        for (int start = 0; start < dtos.size(); start += BATCH_CHUNK_SIZE) {
+            List<TicketDTO> chunk = dtos.subList(start, Math.min(start + BATCH_CHUNK_SIZE, dtos.size()));
+            // Un seul SELECT ... IN par paquet, puis un lot d'UPDATE au flush
+            Map<Long, Ticket> tickets = ticketRepository.findAllById(chunk.stream()
+                    .map(TicketDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Ticket::getId, Function.identity()));
+            
+            for (int offset = 0; offset < chunk.size(); offset++) {
+                results.add(updateBatchItem(start + offset, chunk.get(offset),
+                    tickets, assignees, restrictToUsername));
+            }
+            flushAndClear();
+        }
+        return results;
+    }
+    
+    @Override
+    public BulkUpdateResultDTO transitionStatus(BulkStatusUpdateDTO request) {
+        TicketFilter filter = TicketFilter.builder()
+            .ids(request.getIds())
+            .status(request.getCurrentStatus())
+            .assignedUserId(request.getAssignedUserId())
+            .build();
+        if (filter.isEmpty()) {
+            throw new BadRequestException(
+                "Au moins un critère (ids, currentStatus, assignedUserId) est obligatoire");
+        }
+        if (request.getIds() != null && request.getIds().isEmpty()) {
+            return BulkUpdateResultDTO.builder().updated(0).build();
+        }
+        
+        int updated = ticketRepository.updateStatus(filter, request.getTargetStatus(), LocalDateTime.now());
+        log.info("{} tickets passés au statut {}", updated, request.getTargetStatus());
+        eventPublisher.publishEvent(new TicketsBulkUpdatedEvent(filter, request.getTargetStatus(), updated));
+        return BulkUpdateResultDTO.builder().updated(updated).build();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CacheStatsDTO cacheStats() {
+        return ticketCache.stats();
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TicketStatsDTO statistics() {
+        return ticketStatistics.snapshot();
+    }
+    
+    private BatchItemResultDTO updateBatchItem(int index, TicketDTO dto, Map<Long, Ticket> tickets,
+                                               Map<Long, User> assignees, String restrictToUsername) {
+        if (dto.getId() == null) {
+            return batchResult(index, null, BatchItemResultDTO.Status.INVALID, "id: L'identifiant est obligatoire");
+        }
+        if (isBlankWhenPresent(dto.getTitle()) || isBlankWhenPresent(dto.getDescription())) {
+            return batchResult(index, dto.getId(), BatchItemResultDTO.Status.INVALID,
+                "Le titre et la description ne peuvent pas être vides");
+        }
+        
+        Ticket ticket = tickets.get(dto.getId());
+        if (ticket == null) {
+            return batchResult(index, dto.getId(), BatchItemResultDTO.Status.NOT_FOUND,
+                "Ticket avec l'ID " + dto.getId() + " non trouvé");
+        }
+        if (restrictToUsername != null && (ticket.getAssignedUser() == null
+                || !restrictToUsername.equals(ticket.getAssignedUser().getUsername()))) {
+            return batchResult(index, dto.getId(), BatchItemResultDTO.Status.FORBIDDEN,
+                "Vous n'avez pas le droit de modifier ce ticket");
+        }
+        
+        if (dto.getVersion() != null && !dto.getVersion().equals(ticket.getVersion())) {
+            return batchResult(index, dto.getId(), BatchItemResultDTO.Status.CONFLICT,
+                "Le ticket a été modifié entre-temps (version " + ticket.getVersion() + ")");
+        }
+        
+        TicketDTO before = ticketMapper.toDTO(ticket);
+        if (dto.getAssignedUserId() != null) {
+            User user = assignees.get(dto.getAssignedUserId());
+            if (user == null) {
+                return batchResult(index, dto.getId(), BatchItemResultDTO.Status.NOT_FOUND,
+                    "Utilisateur avec l'ID " + dto.getAssignedUserId() + " non trouvé");
+            }
+            ticket.setAssignedUser(user);
+        }
+        
+        ticketMapper.updateEntityFromDTO(dto, ticket);
+        publishChange(TicketChangedEvent.Type.UPDATED, ticket.getId(), before, ticketMapper.toDTO(ticket));
+        return batchResult(index, dto.getId(), BatchItemResultDTO.Status.UPDATED, null);
+    }
+    
+    private CollectionVersionDTO toCollectionVersion(ListVersion version) {
+        return CollectionVersionDTO.builder()
+            .count(version.count())
+            .lastModified(version.lastModified())
+            .build();
+    }
+    
+    // Propriété vérifiée dans le WHERE du SELECT ; existsById ne sert qu'à distinguer 404 et 403 en cas d'échec
+    private Ticket findForWrite(Long id, String restrictToUsername) {
+        if (restrictToUsername == null) {
+            return ticketRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                    "Ticket avec l'ID " + id + " non trouvé"));
+        }
+        return ticketRepository.findByIdAndAssignedUsername(id, restrictToUsername)
+            .orElseThrow(() -> ticketRepository.existsById(id)
+                ? new UnauthorizedException("Vous n'avez pas le droit de modifier ce ticket")
+                : new ResourceNotFoundException("Ticket avec l'ID " + id + " non trouvé"));
+    }
+    
+    private void checkVersion(Ticket ticket, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(ticket.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Ticket.class, ticket.getId());
+        }
+    }
+    
+    private void publishChange(TicketChangedEvent.Type type, Long ticketId, TicketDTO before, TicketDTO after) {
+        eventPublisher.publishEvent(new TicketChangedEvent(type, ticketId, before, after));
+    }
+    
+    private void checkBatchSize(List<TicketDTO> dtos) {
+        if (dtos.size() > MAX_BATCH_ITEMS) {
+            throw new BadRequestException(
+                "Un lot ne peut pas dépasser " + MAX_BATCH_ITEMS + " tickets");
+        }
+    }
+    
+    // Tous les assignés référencés par le lot sont chargés avec une seule requête IN
+    private Map<Long, User> findAssignees(List<TicketDTO> dtos) {
+        Set<Long> userIds = dtos.stream()
+            .map(TicketDTO::getAssignedUserId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(userIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+    
+    private String validate(TicketDTO dto) {
+        Set<ConstraintViolation<TicketDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+    
+    private static boolean isBlankWhenPresent(String value) {
+        return value != null && value.isBlank();
+    }
+    
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    private static BatchItemResultDTO batchResult(int index, Long id,
+                                                  BatchItemResultDTO.Status status, String message) {
+        return BatchItemResultDTO.builder()
+            .index(index)
+            .id(id)
+            .status(status)
+            .message(message)
+            .build();
+    }
 }
\ No newline at end of file
@@ -1,12 +1,19 @@
 package com.example.ticket.service;
 
+import com.example.ticket.dto.CollectionVersionDTO;
+import com.example.ticket.dto.CursorPage;
 import com.example.ticket.dto.TicketDTO;
 import com.example.ticket.dto.UserDTO;
 import com.example.ticket.service.generic.GenericService;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface UserService extends GenericService<UserDTO, Long> {
     List<TicketDTO> getUserTickets(Long userId);
+    CursorPage<TicketDTO> getUserTickets(Long userId, String cursor, int size);
     UserDTO findByUsername(String username);
+    Optional<Long> findVersion(Long id);
+    CollectionVersionDTO findAllVersion();
+    CollectionVersionDTO getUserTicketsVersion(Long userId);
 }
\ No newline at end of file
@@ -1,15 +1,27 @@
 package com.example.ticket.service;
 
+import com.example.ticket.dto.CollectionVersionDTO;
+import com.example.ticket.dto.CursorPage;
+import com.example.ticket.dto.TicketCursor;
 import com.example.ticket.dto.TicketDTO;
 import com.example.ticket.dto.UserDTO;
 import com.example.ticket.dto.mapper.TicketMapper;
 import com.example.ticket.dto.mapper.UserMapper;
 import com.example.ticket.exception.ResourceNotFoundException;
+import com.example.ticket.model.entity.Ticket;
 import com.example.ticket.model.entity.User;
+import com.example.ticket.repository.ArchivedTicketRepository;
+import com.example.ticket.repository.ListVersion;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.repository.TicketRepository;
 import com.example.ticket.repository.UserRepository;
+import com.example.ticket.service.event.UserChangedEvent;
 import com.example.ticket.service.generic.GenericServiceImpl;
+import com.example.ticket.service.sync.TicketChangeLog;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,13 +32,18 @@ import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "service.method", description = "Durée des méthodes de service")
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl extends GenericServiceImpl<UserDTO, Long> implements UserService {
     
     private final UserRepository userRepository;
+    private final TicketRepository ticketRepository;
+    private final ArchivedTicketRepository archivedTicketRepository;
     private final UserMapper userMapper;
     private final TicketMapper ticketMapper;
+    private final TicketChangeLog ticketChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     protected JpaRepository<UserDTO, Long> getRepository() {
@@ -71,8 +88,13 @@ public class UserServiceImpl extends GenericServiceImpl<UserDTO, Long> implement
             .orElseThrow(() -> new ResourceNotFoundException(
                 "Utilisateur avec l'ID " + id + " non trouvé"));
         
+        String previousUsername = user.getUsername();
         userMapper.updateEntityFromDTO(dto, user);
         User updatedUser = userRepository.save(user);
+        if (!previousUsername.equals(updatedUser.getUsername())) {
+            eventPublisher.publishEvent(new UserChangedEvent(
+                UserChangedEvent.Type.RENAMED, id, previousUsername, updatedUser.getUsername()));
+        }
         return userMapper.toDTO(updatedUser);
     }
     
@@ -83,22 +105,78 @@ public class UserServiceImpl extends GenericServiceImpl<UserDTO, Long> implement
             throw new ResourceNotFoundException(
                 "Utilisateur avec l'ID " + id + " non trouvé");
         }
+        // Les tickets de l'utilisateur sont supprimés en cascade : leurs traces sont écrites avant.
+        // La cascade ne couvre pas l'archive, vidée explicitement
+        ticketChangeLog.recordUserDeleted(id);
+        archivedTicketRepository.deleteByAssignedUserId(id);
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.DELETED, id, null, null));
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<TicketDTO> getUserTickets(Long userId) {
         log.debug("Récupération des tickets de l'utilisateur: {}", userId);
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Utilisateur avec l'ID " + userId + " non trouvé"));
+        if (userRepository.findById(userId).isEmpty()) {
+            throw new ResourceNotFoundException(
+                "Utilisateur avec l'ID " + userId + " non trouvé");
+        }
         
-        return user.getTickets().stream()
+        // Par le repository plutôt que par la collection user.tickets : la requête suit le shard de l'utilisateur
+        return ticketRepository.findByAssignedUserId(userId).stream()
             .map(ticketMapper::toDTO)
             .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TicketDTO> getUserTickets(Long userId, String cursor, int size) {
+        log.debug("Récupération d'une page de tickets de l'utilisateur: {}", userId);
+        TicketCursor after = TicketCursor.decode(cursor);
+        int limit = CursorPage.clampSize(size);
+        List<Ticket> tickets = ticketRepository.findPage(
+            TicketFilter.builder().assignedUserId(userId).build(),
+            after != null ? after.createdAt() : null,
+            after != null ? after.id() : null,
+            limit + 1);
+        if (tickets.isEmpty()) {
+            checkExists(userId);
+        }
+        return CursorPage.of(tickets, limit, ticketMapper::toDTO,
+            ticket -> TicketCursor.of(ticket).encode());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return userRepository.findVersionById(id);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CollectionVersionDTO findAllVersion() {
+        return toCollectionVersion(userRepository.listVersion());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public CollectionVersionDTO getUserTicketsVersion(Long userId) {
+        ListVersion version = ticketRepository.listVersion(TicketFilter.builder().assignedUserId(userId).build());
+        if (version.count() == 0) {
+            checkExists(userId);
+        }
+        return toCollectionVersion(version);
+    }
+    
+    // Un ticket assigné prouve que l'utilisateur existe : l'existence n'est vérifiée que sur un résultat vide,
+    // pour distinguer 404 et liste vide
+    private void checkExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException(
+                "Utilisateur avec l'ID " + userId + " non trouvé");
+        }
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public UserDTO findByUsername(String username) {
@@ -108,4 +186,11 @@ public class UserServiceImpl extends GenericServiceImpl<UserDTO, Long> implement
             .orElseThrow(() -> new ResourceNotFoundException(
                 "Utilisateur " + username + " non trouvé"));
     }
-}
\ No newline at end of file
+    
+    private CollectionVersionDTO toCollectionVersion(ListVersion version) {
+        return CollectionVersionDTO.builder()
+            .count(version.count())
+            .lastModified(version.lastModified())
+            .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.ticket.service.archive;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.mapper.TicketMapper;
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.repository.TicketRepository;
+import com.example.ticket.service.event.TicketsArchivedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+// Déplace les tickets clos (TERMINE, ANNULE) inchangés depuis min-age vers archived_tickets : la table chaude,
+// ses index et les parcours par statut ne portent plus que le travail en cours. Les lots suivent l'ordre des
+// identifiants, chacun dans sa transaction courte, avec une pause entre deux lots pour laisser la base aux requêtes
+@Component
+@Slf4j
+public class TicketArchiver {
+    
+    private static final Set<TicketStatus> CLOSED = Set.of(TicketStatus.TERMINE, TicketStatus.ANNULE);
+    
+    private final TicketRepository ticketRepository;
+    private final TicketMapper ticketMapper;
+    private final TransactionOperations transactionOperations;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Duration batchPause;
+    
+    public TicketArchiver(
+            TicketRepository ticketRepository,
+            TicketMapper ticketMapper,
+            TransactionOperations transactionOperations,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${ticket.archive.min-age:90d}") Duration minAge,
+            @Value("${ticket.archive.batch-size:500}") int batchSize,
+            @Value("${ticket.archive.batch-pause:200ms}") Duration batchPause) {
+        this.ticketRepository = ticketRepository;
+        this.ticketMapper = ticketMapper;
+        this.transactionOperations = transactionOperations;
+        this.eventPublisher = eventPublisher;
+        this.minAge = minAge;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPause = batchPause;
+    }
+    
+    // Un passage parcourt la table une fois ; un lot incomplet signifie qu'il n'y a plus rien à archiver
+    @Scheduled(fixedDelayString = "${ticket.archive.interval:1h}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        long archived = 0;
+        Long afterId = 0L;
+        do {
+            Long from = afterId;
+            Batch batch = transactionOperations.execute(status -> archiveBatch(from, cutoff));
+            if (batch == null) {
+                break;
+            }
+            archived += batch.moved();
+            afterId = batch.claimed() == batchSize ? batch.lastId() : null;
+        } while (afterId != null && pause());
+        if (archived > 0) {
+            log.info("{} tickets clos archivés (inchangés depuis {})", archived, cutoff);
+        }
+    }
+    
+    Batch archiveBatch(Long afterId, LocalDateTime cutoff) {
+        List<Ticket> tickets = ticketRepository.claimArchivable(afterId, CLOSED, cutoff, Limit.of(batchSize));
+        if (tickets.isEmpty()) {
+            return new Batch(0, 0, null);
+        }
+        // Lus avant le déplacement : statistiques et cache retirent ces tickets après le commit
+        List<TicketDTO> archived = tickets.stream().map(ticketMapper::toDTO).toList();
+        int moved = ticketRepository.moveToArchive(archived.stream().map(TicketDTO::getId).toList());
+        eventPublisher.publishEvent(new TicketsArchivedEvent(archived));
+        return new Batch(tickets.size(), moved, tickets.get(tickets.size() - 1).getId());
+    }
+    
+    // Ralentit volontairement le passage ; interrompu (arrêt de l'application), il s'arrête là
+    private boolean pause() {
+        if (batchPause.isZero() || batchPause.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    record Batch(int claimed, int moved, Long lastId) {
+    }
+}
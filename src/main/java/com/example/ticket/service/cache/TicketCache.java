@@ -0,0 +1,117 @@
+package com.example.ticket.service.cache;
+
+import com.example.ticket.dto.CacheStatsDTO;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsArchivedEvent;
+import com.example.ticket.service.event.TicketsBulkUpdatedEvent;
+import com.example.ticket.service.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Cache mémoire borné (taille et durée de vie) des TicketDTO par id, invalidé après chaque commit qui les modifie
+@Component
+@Slf4j
+public class TicketCache implements MeterBinder {
+    
+    private final Cache<Long, TicketDTO> cache;
+    private final long maximumSize;
+    
+    public TicketCache(
+            @Value("${ticket.cache.maximum-size:10000}") long maximumSize,
+            @Value("${ticket.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.maximumSize = maximumSize;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    }
+    
+    // Lecture traversante : un seul chargement par clé absente, même sous accès concurrents
+    public Optional<TicketDTO> get(Long id, Function<Long, Optional<TicketDTO>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+    
+    public Optional<TicketDTO> getIfPresent(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+    
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+    
+    public void evictIf(Predicate<TicketDTO> predicate) {
+        cache.asMap().values().removeIf(predicate);
+    }
+    
+    public CacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatsDTO.builder()
+            .size(cache.estimatedSize())
+            .maximumSize(maximumSize)
+            .hitCount(stats.hitCount())
+            .missCount(stats.missCount())
+            .hitRate(stats.hitRate())
+            .evictionCount(stats.evictionCount())
+            .averageLoadPenaltyMillis(stats.averageLoadPenalty() / 1_000_000.0)
+            .build();
+    }
+    
+    // Taille, succès, échecs et évictions exportés sous cache.* {cache="tickets"}
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "tickets");
+    }
+    
+    Cache<Long, TicketDTO> nativeCache() {
+        return cache;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        evict(event.ticketId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsBulkUpdated(TicketsBulkUpdatedEvent event) {
+        TicketFilter filter = event.filter();
+        if (filter.getIds() != null) {
+            cache.invalidateAll(filter.getIds());
+            return;
+        }
+        evictIf(ticket -> (filter.getStatus() == null || filter.getStatus() == ticket.getStatus())
+            && (filter.getAssignedUserId() == null
+                || filter.getAssignedUserId().equals(ticket.getAssignedUserId()))
+            && (filter.getAssignedUsername() == null
+                || filter.getAssignedUsername().equals(ticket.getAssignedUsername())));
+    }
+    
+    // Le cache ne garde que la table chaude : un ticket archivé est relu dans l'archive
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsArchived(TicketsArchivedEvent event) {
+        cache.invalidateAll(event.tickets().stream().map(TicketDTO::getId).toList());
+    }
+    
+    // Un renommage change assignedUsername et une suppression supprime les tickets en cascade
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        log.debug("Invalidation des tickets en cache de l'utilisateur {}", event.userId());
+        evictIf(ticket -> Objects.equals(event.userId(), ticket.getAssignedUserId()));
+    }
+}
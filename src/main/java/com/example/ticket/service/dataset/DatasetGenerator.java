@@ -0,0 +1,189 @@
+package com.example.ticket.service.dataset;
+
+import com.example.ticket.model.enums.TicketStatus;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Chargement en masse d'un jeu de données synthétique déterministe, par lots JDBC : sans passer par
+// JPA ni publier d'événements (cache, statistiques, outbox, traces de synchronisation non alimentés)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetGenerator {
+    
+    static final int BATCH_SIZE = 10_000;
+    // Les tickets sont répartis sur l'année écoulée, créés dans l'ordre des identifiants
+    static final Duration HISTORY = Duration.ofDays(365);
+    private static final int MIN_DESCRIPTION_LENGTH = 10;
+    // Au-delà de l'incrément des séquences Hibernate (optimiseur pooled, 50 par appel)
+    private static final long SEQUENCE_GAP = 100;
+    private static final String TEXT = String.join(" ", "Le client signale un dysfonctionnement",
+        "de l'application lors de la validation du formulaire ; l'erreur survient de façon intermittente",
+        "après la mise à jour et bloque le traitement des commandes en attente. Merci de vérifier les",
+        "journaux du serveur, la configuration du réseau et les droits du compte concerné. ").repeat(30);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final EntityManagerFactory entityManagerFactory;
+    
+    public void load(DatasetSpec spec) {
+        Long existing = jdbcTemplate.queryForObject(
+            "SELECT (SELECT COUNT(*) FROM users) + (SELECT COUNT(*) FROM tickets)", Long.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Le jeu de données se charge dans une base vide");
+        }
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime origin = now.minus(HISTORY);
+        
+        insertUsers(spec, origin);
+        insertTickets(spec, origin, now);
+        restartSequence("users_seq", spec.users());
+        restartSequence("tickets_seq", spec.tickets());
+        // Écritures JDBC invisibles pour Hibernate : le cache de second niveau ne doit rien garder d'avant
+        evictSecondLevelCache();
+        
+        log.info("Jeu de données chargé : {} utilisateurs, {} tickets en {} ms", spec.users(), spec.tickets(),
+            Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+    
+    // Vide les tables alimentées par le générateur et par les écritures qui ont suivi
+    public void clear() {
+        transactionOperations.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM tickets");
+            jdbcTemplate.update("DELETE FROM archived_tickets");
+            jdbcTemplate.update("DELETE FROM ticket_tombstones");
+            jdbcTemplate.update("DELETE FROM outbox_events");
+            jdbcTemplate.update("DELETE FROM users");
+        });
+        evictSecondLevelCache();
+    }
+    
+    // Toutes les régions, identifiants naturels compris : JPA evictAll() garderait username -> id d'un utilisateur supprimé
+    private void evictSecondLevelCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+    
+    private void insertUsers(DatasetSpec spec, LocalDateTime origin) {
+        Timestamp createdAt = Timestamp.valueOf(origin);
+        List<Object[]> batch = new ArrayList<>(Math.min(spec.users(), BATCH_SIZE));
+        for (long id = 1; id <= spec.users(); id++) {
+            batch.add(new Object[] {id, createdAt, createdAt, 0L, "user" + id, "user" + id + "@dataset.local"});
+            if (batch.size() == BATCH_SIZE || id == spec.users()) {
+                insert("INSERT INTO users (id, created_at, updated_at, version, username, email) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+    }
+    
+    private void insertTickets(DatasetSpec spec, LocalDateTime origin, LocalDateTime now) {
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        ZipfSampler assignees = new ZipfSampler(spec.users(), spec.zipfExponent());
+        StatusSampler statuses = new StatusSampler(spec.statusMix());
+        long step = Math.max(1, HISTORY.toNanos() / Math.max(1, spec.tickets()));
+        
+        List<Object[]> batch = new ArrayList<>((int) Math.min(spec.tickets(), BATCH_SIZE));
+        for (long id = 1; id <= spec.tickets(); id++) {
+            LocalDateTime createdAt = origin.plusNanos(step * (id - 1));
+            // Une partie des tickets a été modifiée après sa création, jusqu'à 30 jours plus tard mais jamais
+            // après le chargement : une date future fausserait le jeton de /changes et l'ETag des listes
+            LocalDateTime updatedAt = random.nextInt(3) == 0
+                ? min(createdAt.plusSeconds(random.nextLong(Duration.ofDays(30).toSeconds())), now)
+                : createdAt;
+            Long userId = random.nextDouble() < spec.unassignedRatio() ? null : (long) assignees.sample(random);
+            batch.add(new Object[] {
+                id, Timestamp.valueOf(createdAt), Timestamp.valueOf(updatedAt), 0L,
+                "Ticket " + id, description(random, spec.maxDescriptionLength()),
+                statuses.sample(random).name(), userId
+            });
+            if (batch.size() == BATCH_SIZE || id == spec.tickets()) {
+                insert("INSERT INTO tickets (id, created_at, updated_at, version, title, description, status, user_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+    }
+    
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+    
+    // Longueurs asymétriques : surtout des descriptions courtes, quelques-unes proches du maximum
+    static String description(SplittableRandom random, int maxLength) {
+        int min = Math.min(MIN_DESCRIPTION_LENGTH, maxLength);
+        double u = random.nextDouble();
+        int length = min + (int) ((maxLength - min) * u * u * u);
+        int offset = random.nextInt(TEXT.length() - maxLength);
+        return TEXT.substring(offset, offset + length);
+    }
+    
+    private void insert(String sql, List<Object[]> batch) {
+        transactionOperations.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+    }
+    
+    private void restartSequence(String sequence, long maxId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + SEQUENCE_GAP));
+    }
+    
+    // Loi de Zipf sur les rangs 1..n : P(k) proportionnelle à 1 / k^s, tirage par recherche dichotomique
+    static final class ZipfSampler {
+        
+        private final double[] cumulative;
+        
+        ZipfSampler(int size, double exponent) {
+            cumulative = new double[size];
+            double total = 0;
+            for (int rank = 1; rank <= size; rank++) {
+                total += 1 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = total;
+            }
+        }
+        
+        int sample(SplittableRandom random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            return (index >= 0 ? index : -index - 1) + 1;
+        }
+    }
+    
+    static final class StatusSampler {
+        
+        private final TicketStatus[] statuses;
+        private final int[] cumulative;
+        
+        StatusSampler(Map<TicketStatus, Integer> mix) {
+            statuses = mix.keySet().toArray(TicketStatus[]::new);
+            cumulative = new int[statuses.length];
+            int total = 0;
+            for (int i = 0; i < statuses.length; i++) {
+                total += mix.get(statuses[i]);
+                cumulative[i] = total;
+            }
+        }
+        
+        TicketStatus sample(SplittableRandom random) {
+            int target = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (target < cumulative[i]) {
+                    return statuses[i];
+                }
+            }
+            return statuses[statuses.length - 1];
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ticket.service.dataset;
+
+import com.example.ticket.service.stats.TicketStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Peuple la base au démarrage (ticket.dataset.enabled=true) pour reproduire localement les volumes de production
+@Component
+@ConditionalOnProperty(name = "ticket.dataset.enabled", havingValue = "true")
+public class DatasetLoader implements ApplicationRunner {
+    
+    private final DatasetGenerator generator;
+    private final TicketStatistics statistics;
+    private final DatasetSpec spec;
+    
+    public DatasetLoader(
+            DatasetGenerator generator,
+            TicketStatistics statistics,
+            @Value("${ticket.dataset.users:1000}") int users,
+            @Value("${ticket.dataset.tickets:100000}") long tickets,
+            @Value("${ticket.dataset.status-mix:EN_COURS:60,TERMINE:30,ANNULE:10}") String statusMix,
+            @Value("${ticket.dataset.zipf-exponent:1.0}") double zipfExponent,
+            @Value("${ticket.dataset.unassigned-ratio:0.05}") double unassignedRatio,
+            @Value("${ticket.dataset.max-description-length:1000}") int maxDescriptionLength,
+            @Value("${ticket.dataset.seed:42}") long seed) {
+        this.generator = generator;
+        this.statistics = statistics;
+        this.spec = new DatasetSpec(users, tickets, DatasetSpec.parseStatusMix(statusMix), zipfExponent,
+            unassignedRatio, maxDescriptionLength, seed);
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        generator.load(spec);
+        // Les insertions JDBC ne publient pas d'événements : les compteurs sont recalculés une fois
+        statistics.reconcile();
+    }
+}
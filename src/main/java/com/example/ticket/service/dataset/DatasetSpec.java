@@ -0,0 +1,78 @@
+package com.example.ticket.service.dataset;
+
+import com.example.ticket.model.enums.TicketStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Paramètres d'un jeu de données synthétique.
+ *
+ * @param users                nombre d'utilisateurs (user1 … userN, user1 étant le plus chargé)
+ * @param tickets              nombre de tickets
+ * @param statusMix            poids relatifs de chaque statut
+ * @param zipfExponent         asymétrie de la répartition des tickets entre assignés (0 = uniforme)
+ * @param unassignedRatio      part des tickets sans assigné
+ * @param maxDescriptionLength longueur maximale des descriptions (colonne de 1000 caractères)
+ * @param seed                 graine : un même jeu de paramètres produit toujours les mêmes lignes
+ */
+public record DatasetSpec(
+        int users,
+        long tickets,
+        Map<TicketStatus, Integer> statusMix,
+        double zipfExponent,
+        double unassignedRatio,
+        int maxDescriptionLength,
+        long seed) {
+    
+    public static final int MAX_DESCRIPTION_LENGTH = 1000;
+    
+    public DatasetSpec {
+        if (users < 1) {
+            throw new IllegalArgumentException("Au moins un utilisateur est nécessaire");
+        }
+        if (tickets < 0) {
+            throw new IllegalArgumentException("Le nombre de tickets doit être positif");
+        }
+        if (statusMix.isEmpty() || statusMix.values().stream().anyMatch(weight -> weight < 0)
+                || statusMix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("La répartition des statuts doit avoir au moins un poids positif");
+        }
+        if (zipfExponent < 0) {
+            throw new IllegalArgumentException("L'exposant de Zipf doit être positif");
+        }
+        if (unassignedRatio < 0 || unassignedRatio > 1) {
+            throw new IllegalArgumentException("La part de tickets non assignés doit être comprise entre 0 et 1");
+        }
+        if (maxDescriptionLength < 1 || maxDescriptionLength > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("La longueur des descriptions doit être comprise entre 1 et "
+                + MAX_DESCRIPTION_LENGTH);
+        }
+        statusMix = Collections.unmodifiableMap(new EnumMap<>(statusMix));
+    }
+    
+    // Jeu par défaut : un utilisateur pour 100 tickets, 60 % en cours, assignés selon une loi de Zipf (s = 1)
+    public static DatasetSpec of(long tickets) {
+        return new DatasetSpec((int) Math.max(1, tickets / 100), tickets,
+            parseStatusMix("EN_COURS:60,TERMINE:30,ANNULE:10"), 1.0, 0.05, MAX_DESCRIPTION_LENGTH, 42);
+    }
+    
+    public DatasetSpec withTickets(long tickets) {
+        return new DatasetSpec((int) Math.max(1, tickets / 100), tickets, statusMix, zipfExponent,
+            unassignedRatio, maxDescriptionLength, seed);
+    }
+    
+    // Format « EN_COURS:60,TERMINE:30,ANNULE:10 »
+    public static Map<TicketStatus, Integer> parseStatusMix(String value) {
+        Map<TicketStatus, Integer> mix = new EnumMap<>(TicketStatus.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Répartition des statuts invalide : " + value);
+            }
+            mix.put(TicketStatus.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
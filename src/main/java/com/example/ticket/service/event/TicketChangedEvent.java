@@ -0,0 +1,16 @@
+package com.example.ticket.service.event;
+
+import com.example.ticket.dto.TicketDTO;
+
+// Publié par TicketServiceImpl pour chaque ticket modifié ; before est null à la création, after à la suppression
+public record TicketChangedEvent(Type type, Long ticketId, TicketDTO before, TicketDTO after) {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        ASSIGNED,
+        DELETED,
+        // Déplacé dans archived_tickets par TicketArchiver, publié sous forme de TicketsArchivedEvent
+        ARCHIVED
+    }
+}
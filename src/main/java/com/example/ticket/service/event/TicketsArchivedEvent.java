@@ -0,0 +1,10 @@
+package com.example.ticket.service.event;
+
+import com.example.ticket.dto.TicketDTO;
+
+import java.util.List;
+
+// Lot de tickets clos déplacés dans archived_tickets par TicketArchiver : ils quittent la table chaude sans être supprimés,
+// et sortent des vues de synchronisation et du flux SSE comme un ticket supprimé
+public record TicketsArchivedEvent(List<TicketDTO> tickets) {
+}
@@ -0,0 +1,8 @@
+package com.example.ticket.service.event;
+
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.repository.TicketFilter;
+
+// Transition de statut ensembliste : seuls le filtre et le statut cible sont connus, pas les tickets touchés
+public record TicketsBulkUpdatedEvent(TicketFilter filter, TicketStatus targetStatus, int updated) {
+}
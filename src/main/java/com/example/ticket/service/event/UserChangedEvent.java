@@ -0,0 +1,10 @@
+package com.example.ticket.service.event;
+
+// Publié par UserServiceImpl quand un changement d'utilisateur se répercute sur ses tickets
+public record UserChangedEvent(Type type, Long userId, String previousUsername, String username) {
+    
+    public enum Type {
+        RENAMED,
+        DELETED
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.ticket.service.outbox;
+
+import com.example.ticket.model.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+
+// Publication par défaut quand aucun bean OutboxPublisher n'est déclaré : l'événement est journalisé
+@Slf4j
+public class LoggingOutboxPublisher implements OutboxPublisher {
+    
+    @Override
+    public void publish(OutboxEvent event) {
+        log.info("Événement {} {} #{} : {}", event.getAggregateType(), event.getEventType(),
+            event.getAggregateId(), event.getPayload());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ticket.service.outbox;
+
+import com.example.ticket.model.entity.OutboxEvent;
+import com.example.ticket.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Vide l'outbox par lots, hors du chemin de requête. Chaque lot est réservé avec SKIP LOCKED et
+// publié dans sa transaction : les événements publiés sont supprimés au commit, les échecs sont
+// reprogrammés avec un délai croissant. Un arrêt entre publication et commit republie le lot
+// (livraison au moins une fois) : les consommateurs s'appuient sur ticket.version pour dédoublonner.
+@Component
+@Slf4j
+public class OutboxDispatcher {
+    
+    private static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+    private final Duration maxRetryDelay;
+    
+    public OutboxDispatcher(
+            OutboxEventRepository outboxEventRepository,
+            ObjectProvider<OutboxPublisher> outboxPublisher,
+            TransactionOperations transactionOperations,
+            @Value("${ticket.outbox.batch-size:100}") int batchSize,
+            @Value("${ticket.outbox.max-retry-delay:10m}") Duration maxRetryDelay) {
+        this.outboxEventRepository = outboxEventRepository;
+        // Sans consommateur déclaré, les événements sont journalisés
+        this.outboxPublisher = outboxPublisher.getIfAvailable(LoggingOutboxPublisher::new);
+        this.transactionOperations = transactionOperations;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxRetryDelay = maxRetryDelay;
+    }
+    
+    // Enchaîne les lots tant qu'ils sont pleins, puis attend le prochain passage
+    @Scheduled(fixedDelayString = "${ticket.outbox.poll-interval:1s}")
+    public void dispatch() {
+        int claimed;
+        do {
+            Integer batch = transactionOperations.execute(status -> dispatchBatch());
+            claimed = batch != null ? batch : 0;
+        } while (claimed == batchSize);
+    }
+    
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.claimDue(now, Limit.of(batchSize));
+        List<Long> published = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                outboxPublisher.publish(event);
+                published.add(event.getId());
+            } catch (Exception e) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(now.plus(retryDelay(event.getAttempts())));
+                event.setLastError(truncate(e.toString()));
+                log.warn("Échec de publication de l'événement {} (tentative {}): {}",
+                    event.getId(), event.getAttempts(), e.getMessage());
+            }
+        }
+        if (!published.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(published);
+            log.debug("{} événements publiés", published.size());
+        }
+        return events.size();
+    }
+    
+    // 1s, 2s, 4s... plafonné à max-retry-delay : un consommateur en panne n'est pas sollicité en boucle
+    Duration retryDelay(int attempts) {
+        Duration delay = FIRST_RETRY_DELAY.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+    
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ticket.service.outbox;
+
+import com.example.ticket.model.entity.OutboxEvent;
+
+// Point d'extension vers les consommateurs (passerelle e-mail, indexeur...). Une exception laisse
+// l'événement dans l'outbox pour une nouvelle tentative : la livraison est « au moins une fois ».
+public interface OutboxPublisher {
+    void publish(OutboxEvent event) throws Exception;
+}
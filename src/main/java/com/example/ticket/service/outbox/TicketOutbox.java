@@ -0,0 +1,93 @@
+package com.example.ticket.service.outbox;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketEventDTO;
+import com.example.ticket.model.entity.OutboxEvent;
+import com.example.ticket.repository.OutboxEventRepository;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsArchivedEvent;
+import com.example.ticket.service.event.TicketsBulkUpdatedEvent;
+import com.example.ticket.service.event.UserChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Écriture des événements du domaine ticket dans l'outbox, dans la transaction de la modification :
+// le chemin de requête ne paie qu'un INSERT (regroupé au flush), la livraison revient à OutboxDispatcher
+@Component
+@RequiredArgsConstructor
+public class TicketOutbox {
+    
+    static final String TICKET = "Ticket";
+    static final String USER = "User";
+    static final String BULK_STATUS_UPDATED = "BULK_STATUS_UPDATED";
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    @EventListener
+    public void onTicketChanged(TicketChangedEvent event) {
+        append(TICKET, event.ticketId(), event.type().name(), TicketEventDTO.builder()
+            .type(event.type())
+            .ticketId(event.ticketId())
+            .ticket(event.after())
+            .build());
+    }
+    
+    // Un événement par ticket archivé, sans contenu : le ticket reste lisible dans l'archive
+    @EventListener
+    public void onTicketsArchived(TicketsArchivedEvent event) {
+        for (TicketDTO ticket : event.tickets()) {
+            append(TICKET, ticket.getId(), TicketChangedEvent.Type.ARCHIVED.name(), TicketEventDTO.builder()
+                .type(TicketChangedEvent.Type.ARCHIVED)
+                .ticketId(ticket.getId())
+                .build());
+        }
+    }
+    
+    // Un seul événement pour la transition ensembliste : le filtre décrit les tickets touchés
+    @EventListener
+    public void onTicketsBulkUpdated(TicketsBulkUpdatedEvent event) {
+        if (event.updated() == 0) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("ids", event.filter().getIds());
+        payload.put("currentStatus", event.filter().getStatus());
+        payload.put("assignedUserId", event.filter().getAssignedUserId());
+        payload.put("targetStatus", event.targetStatus());
+        payload.put("updated", event.updated());
+        append(TICKET, null, BULK_STATUS_UPDATED, payload);
+    }
+    
+    // Les tickets de l'utilisateur sont supprimés en cascade, sans événement par ticket
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.DELETED) {
+            append(USER, event.userId(), event.type().name(), Map.of("userId", event.userId()));
+        }
+    }
+    
+    private void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            // Ne pas valider la modification sans son événement
+            throw new IllegalStateException("Événement " + eventType + " non sérialisable", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+            .aggregateType(aggregateType)
+            .aggregateId(aggregateId)
+            .eventType(eventType)
+            .payload(json)
+            .nextAttemptAt(LocalDateTime.now())
+            .build());
+    }
+}
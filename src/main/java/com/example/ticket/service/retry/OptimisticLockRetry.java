@@ -0,0 +1,66 @@
+package com.example.ticket.service.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Rejoue une écriture dans une nouvelle transaction quand un commit concurrent a incrémenté la version.
+// Réservé aux écritures sans version attendue (affectations « dernier gagnant ») : les rejouer sur l'état frais
+// donne le même résultat, sans verrou de ligne.
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+    
+    private final TransactionOperations transactionOperations;
+    private final int maxAttempts;
+    
+    public OptimisticLockRetry(
+            TransactionOperations transactionOperations,
+            @Value("${ticket.concurrency.max-attempts:3}") int maxAttempts) {
+        this.transactionOperations = transactionOperations;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+    
+    public <T> T execute(Supplier<T> action) {
+        // Dans une transaction englobante, un échec invalide tout l'appelant : pas de rejeu possible ici
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> action.get());
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Conflit de version (tentative {}/{}), nouvel essai: {}",
+                    attempt, maxAttempts, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+    
+    // Attente courte et aléatoire pour désynchroniser les écrivains en concurrence sur la même ligne
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Une seule tentative : le conflit est remonté tel quel (409)
+    public <T> T executeOnce(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        return transactionOperations.execute(status -> action.get());
+    }
+}
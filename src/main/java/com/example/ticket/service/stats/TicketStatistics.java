@@ -0,0 +1,150 @@
+package com.example.ticket.service.stats;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketStatsDTO;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.repository.TicketCountView;
+import com.example.ticket.repository.TicketRepository;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsArchivedEvent;
+import com.example.ticket.service.event.TicketsBulkUpdatedEvent;
+import com.example.ticket.service.event.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Compteurs de tickets par statut et par assigné, tenus à jour après chaque commit.
+// La lecture ne touche pas la base ; un recalcul GROUP BY périodique corrige toute dérive.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketStatistics {
+    
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    
+    private final TicketRepository ticketRepository;
+    
+    // Remplacé d'un bloc à chaque recalcul ; les LongAdder absorbent les écritures concurrentes
+    private volatile Counters counters = new Counters();
+    private volatile LocalDateTime reconciledAt;
+    
+    public TicketStatsDTO snapshot() {
+        Counters current = counters;
+        Map<Long, Map<TicketStatus, Long>> byAssignee = new HashMap<>();
+        current.byAssignee.forEach((userId, adders) -> {
+            Map<TicketStatus, Long> counts = toMap(adders);
+            if (counts.values().stream().anyMatch(count -> count != 0)) {
+                byAssignee.put(userId, counts);
+            }
+        });
+        Map<TicketStatus, Long> byStatus = toMap(current.byStatus);
+        return TicketStatsDTO.builder()
+            .total(byStatus.values().stream().mapToLong(Long::longValue).sum())
+            .byStatus(byStatus)
+            .byAssignee(byAssignee)
+            .unassigned(toMap(current.unassigned))
+            .reconciledAt(reconciledAt)
+            .build();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        Counters current = counters;
+        if (event.before() != null) {
+            current.add(event.before(), -1);
+        }
+        if (event.after() != null) {
+            current.add(event.after(), 1);
+        }
+    }
+    
+    // Les tickets archivés sont connus un à un : ils sont décomptés sans recalcul
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsArchived(TicketsArchivedEvent event) {
+        Counters current = counters;
+        event.tickets().forEach(ticket -> current.add(ticket, -1));
+    }
+    
+    // Une transition ensembliste ne dit pas quels tickets ont changé : on recompte
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsBulkUpdated(TicketsBulkUpdatedEvent event) {
+        if (event.updated() > 0) {
+            reconcile();
+        }
+    }
+    
+    // La suppression d'un utilisateur supprime ses tickets en cascade
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.DELETED) {
+            reconcile();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${ticket.stats.reconcile-interval:5m}")
+    public synchronized void reconcile() {
+        List<TicketCountView> rows = ticketRepository.countByStatusAndAssignee();
+        Counters fresh = new Counters();
+        for (TicketCountView row : rows) {
+            fresh.add(row.getStatus(), row.getUserId(), row.getTotal());
+        }
+        Counters previous = counters;
+        counters = fresh;
+        reconciledAt = LocalDateTime.now();
+        
+        if (!toMap(previous.byStatus).equals(toMap(fresh.byStatus))) {
+            log.debug("Statistiques des tickets recalculées: {} -> {}",
+                toMap(previous.byStatus), toMap(fresh.byStatus));
+        }
+    }
+    
+    private static Map<TicketStatus, Long> toMap(LongAdder[] adders) {
+        Map<TicketStatus, Long> counts = new EnumMap<>(TicketStatus.class);
+        for (TicketStatus status : STATUSES) {
+            counts.put(status, adders[status.ordinal()].sum());
+        }
+        return counts;
+    }
+    
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[STATUSES.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+    
+    private static final class Counters {
+        private final LongAdder[] byStatus = newAdders();
+        private final LongAdder[] unassigned = newAdders();
+        private final Map<Long, LongAdder[]> byAssignee = new ConcurrentHashMap<>();
+        
+        void add(TicketDTO ticket, long delta) {
+            if (ticket.getStatus() != null) {
+                add(ticket.getStatus(), ticket.getAssignedUserId(), delta);
+            }
+        }
+        
+        void add(TicketStatus status, Long userId, long delta) {
+            int index = status.ordinal();
+            byStatus[index].add(delta);
+            LongAdder[] perUser = userId == null
+                ? unassigned
+                : byAssignee.computeIfAbsent(userId, id -> newAdders());
+            perUser[index].add(delta);
+        }
+    }
+}
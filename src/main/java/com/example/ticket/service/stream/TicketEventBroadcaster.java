@@ -0,0 +1,263 @@
+package com.example.ticket.service.stream;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketEventDTO;
+import com.example.ticket.security.TicketAccess;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsArchivedEvent;
+import com.example.ticket.service.event.TicketsBulkUpdatedEvent;
+import com.example.ticket.service.event.UserChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Diffusion des changements de tickets en Server-Sent Events (GET /api/tickets/events).
+// Les événements partent de la mémoire après commit : un abonné inactif ne coûte ni requête ni thread.
+// Chaque abonné a une file bornée vidée par un pool d'envoi dédié ; si elle déborde, elle est vidée
+// et l'abonné reçoit « resync » pour recharger son état.
+@Component
+@Slf4j
+public class TicketEventBroadcaster {
+    
+    static final String TICKET_EVENT = "ticket";
+    static final String RESYNC_EVENT = "resync";
+    
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Executor sender;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    
+    @Autowired
+    public TicketEventBroadcaster(
+            ObjectMapper objectMapper,
+            @Value("${ticket.events.buffer-size:256}") int bufferSize,
+            @Value("${ticket.events.timeout:30m}") Duration timeout,
+            @Value("${ticket.events.sender-threads:4}") int senderThreads) {
+        this(objectMapper, bufferSize, timeout, Executors.newFixedThreadPool(Math.max(1, senderThreads), senderThreadFactory()));
+    }
+    
+    TicketEventBroadcaster(ObjectMapper objectMapper, int bufferSize, Duration timeout, Executor sender) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.timeout = timeout;
+        this.sender = sender;
+    }
+    
+    public SseEmitter subscribe(Authentication authentication) {
+        return register(authentication, new SseEmitter(timeout.toMillis()));
+    }
+    
+    SseEmitter register(Authentication authentication, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(authentication, emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Premier message immédiat : le client sait que le flux est ouvert
+        subscriber.offer(Message.HEARTBEAT);
+        log.debug("Abonnement aux événements de tickets: {} ({} abonnés)", authentication.getName(), subscribers.size());
+        return emitter;
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    // Après commit, sur le thread de l'écriture : filtrage et dépôt dans les files, sans attendre l'envoi
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Message message = message(event, event.after());
+        // Sans le contenu du ticket : un abonné qui ne voit que l'ancienne version apprend seulement son retrait
+        Message removal = event.after() != null ? message(event, null) : message;
+        if (message == null || removal == null) {
+            return;
+        }
+        String before = assignedUsername(event.before());
+        String after = assignedUsername(event.after());
+        for (Subscriber subscriber : subscribers) {
+            if (TicketAccess.canAccess(after, subscriber.authentication)) {
+                subscriber.offer(message);
+            } else if (TicketAccess.canAccess(before, subscriber.authentication)) {
+                // Ticket retiré à l'utilisateur : signalé pour qu'il le retire de son affichage
+                subscriber.offer(removal);
+            }
+        }
+    }
+    
+    // Un retrait par ticket archivé, pour les abonnés qui le voyaient ; un lot plus grand que la file donne un « resync »
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsArchived(TicketsArchivedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (TicketDTO ticket : event.tickets()) {
+            Message removal = message(new TicketChangedEvent(TicketChangedEvent.Type.ARCHIVED, ticket.getId(), ticket, null), null);
+            if (removal == null) {
+                continue;
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (TicketAccess.canAccess(ticket.getAssignedUsername(), subscriber.authentication)) {
+                    subscriber.offer(removal);
+                }
+            }
+        }
+    }
+    
+    // Les tickets touchés par une transition ensembliste ne sont pas connus : tous les abonnés rechargent
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsBulkUpdated(TicketsBulkUpdatedEvent event) {
+        if (event.updated() > 0) {
+            resyncAll();
+        }
+    }
+    
+    // Suppression (tickets supprimés en cascade) ou renommage (assignedUsername change) d'un utilisateur
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        resyncAll();
+    }
+    
+    // Garde les connexions ouvertes derrière les proxys et détecte les clients partis
+    @Scheduled(fixedDelayString = "${ticket.events.heartbeat-interval:30s}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(Message.HEARTBEAT));
+    }
+    
+    // Avant l'arrêt progressif du serveur, qui attendrait sinon la fin de chaque flux ouvert
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+    
+    private void resyncAll() {
+        subscribers.forEach(Subscriber::requestResync);
+    }
+    
+    // Sérialisé une seule fois pour tous les abonnés ; null si l'événement ne peut pas être écrit
+    private Message message(TicketChangedEvent event, TicketDTO ticket) {
+        TicketEventDTO payload = TicketEventDTO.builder()
+            .type(event.type())
+            .ticketId(event.ticketId())
+            .ticket(ticket)
+            .build();
+        try {
+            return new Message(TICKET_EVENT, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            log.error("Événement du ticket {} non sérialisable", event.ticketId(), e);
+            return null;
+        }
+    }
+    
+    private static String assignedUsername(TicketDTO ticket) {
+        return ticket != null ? ticket.getAssignedUsername() : null;
+    }
+    
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "ticket-events-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    // data null : commentaire SSE (heartbeat)
+    record Message(String name, String data) {
+        static final Message HEARTBEAT = new Message(null, null);
+    }
+    
+    private final class Subscriber {
+        
+        private final Authentication authentication;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean resync = new AtomicBoolean();
+        // Au plus une tâche d'envoi par abonné : les envois sur un SseEmitter restent séquentiels
+        private final AtomicBoolean draining = new AtomicBoolean();
+        
+        Subscriber(Authentication authentication, SseEmitter emitter) {
+            this.authentication = authentication;
+            this.emitter = emitter;
+        }
+        
+        void offer(Message message) {
+            if (!queue.offer(message)) {
+                // Client trop lent : les événements en attente sont perdus, il devra recharger
+                queue.clear();
+                resync.set(true);
+            }
+            scheduleDrain();
+        }
+        
+        void requestResync() {
+            queue.clear();
+            resync.set(true);
+            scheduleDrain();
+        }
+        
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                if (resync.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+                }
+                Message message;
+                while ((message = queue.poll()) != null) {
+                    if (resync.get()) {
+                        break;
+                    }
+                    emitter.send(message.data() == null
+                        ? SseEmitter.event().comment("ping")
+                        : SseEmitter.event().name(message.name()).data(message.data(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Connexion fermée côté client
+                subscribers.remove(this);
+                queue.clear();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (resync.get() || !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.ticket.service.sync;
+
+import com.example.ticket.dto.SyncWatermark;
+import com.example.ticket.dto.TicketChangesDTO;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.mapper.TicketMapper;
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.entity.TicketTombstone;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.repository.TicketRepository;
+import com.example.ticket.repository.TicketTombstoneRepository;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsArchivedEvent;
+import com.example.ticket.service.event.UserChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Journal des changements pour la synchronisation différentielle : les tickets modifiés sont lus
+// par (updatedAt, id), les sorties de vue (suppression, archivage, désassignation) par des traces horodatées.
+// Le coût d'un appel dépend du nombre de changements, pas de la taille de la table.
+@Component
+@Slf4j
+public class TicketChangeLog {
+    
+    private final TicketRepository ticketRepository;
+    private final TicketTombstoneRepository tombstoneRepository;
+    private final TicketMapper ticketMapper;
+    private final Duration settleWindow;
+    private final Duration tombstoneRetention;
+    
+    public TicketChangeLog(
+            TicketRepository ticketRepository,
+            TicketTombstoneRepository tombstoneRepository,
+            TicketMapper ticketMapper,
+            @Value("${ticket.sync.settle-window:5s}") Duration settleWindow,
+            @Value("${ticket.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.ticketRepository = ticketRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.ticketMapper = ticketMapper;
+        this.settleWindow = settleWindow;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+    
+    // Appelé dans la transaction de l'écriture : la trace est validée ou annulée avec elle
+    @EventListener
+    public void onTicketChanged(TicketChangedEvent event) {
+        Long previousUserId = event.before() != null ? event.before().getAssignedUserId() : null;
+        if (event.after() == null) {
+            record(event.ticketId(), previousUserId, TicketTombstone.Reason.DELETED);
+        } else if (previousUserId != null && !previousUserId.equals(event.after().getAssignedUserId())) {
+            // Réassigné : le ticket quitte la vue de l'ancien assigné
+            record(event.ticketId(), previousUserId, TicketTombstone.Reason.UNASSIGNED);
+        }
+    }
+    
+    // Dans la transaction du lot : les tickets archivés ne sont plus lus par findChanges, seule la trace les signale
+    @EventListener
+    public void onTicketsArchived(TicketsArchivedEvent event) {
+        List<TicketTombstone> tombstones = event.tickets().stream()
+            .map(ticket -> tombstone(ticket.getId(), ticket.getAssignedUserId(), TicketTombstone.Reason.ARCHIVED))
+            .collect(Collectors.toList());
+        tombstoneRepository.saveAll(tombstones);
+    }
+    
+    // Dans la transaction du renommage : assignedUsername change sans modifier les tickets, qui doivent
+    // pourtant revenir dans updated. Un seul UPDATE ensembliste, quel que soit le nombre de tickets
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.RENAMED) {
+            ticketRepository.touchByAssignedUserId(event.userId(), LocalDateTime.now());
+        }
+    }
+    
+    // À appeler avant de supprimer l'utilisateur : ses tickets partent en cascade, sans événement par ticket
+    public void recordUserDeleted(Long userId) {
+        List<TicketTombstone> tombstones = ticketRepository.findIdsByAssignedUserId(userId).stream()
+            .map(ticketId -> tombstone(ticketId, userId, TicketTombstone.Reason.DELETED))
+            .collect(Collectors.toList());
+        tombstoneRepository.saveAll(tombstones);
+    }
+    
+    // userId null : tous les tickets (admin) ; sinon uniquement les tickets de cet utilisateur
+    public TicketChangesDTO changesSince(String since, Long userId, int size) {
+        int limit = TicketChangesDTO.clampSize(size);
+        LocalDateTime now = LocalDateTime.now();
+        // Les écritures encore en cours peuvent valider une date antérieure à now :
+        // on ne lit que jusqu'à l'horizon pour ne jamais dépasser un changement non encore visible
+        LocalDateTime horizon = now.minus(settleWindow).truncatedTo(ChronoUnit.MICROS);
+        
+        SyncWatermark from = SyncWatermark.decode(since);
+        if (from == null) {
+            // Synchronisation initiale : tous les tickets, les suppressions antérieures sont sans objet
+            from = new SyncWatermark(null, null, horizon, Long.MAX_VALUE);
+        } else if (from.tombstonesAt().isBefore(now.minus(tombstoneRetention))) {
+            return TicketChangesDTO.builder()
+                .updated(List.of())
+                .deleted(List.of())
+                .resyncRequired(true)
+                .build();
+        }
+        
+        List<Ticket> tickets = ticketRepository.findChanges(
+            TicketFilter.builder().assignedUserId(userId).build(),
+            from.ticketsAt(), from.ticketId(), horizon, limit + 1);
+        List<TicketTombstone> tombstones = userId == null
+            ? tombstoneRepository.findDeletedAfter(from.tombstonesAt(), from.tombstoneId(), horizon, Limit.of(limit + 1))
+            : tombstoneRepository.findByUserIdAfter(userId, from.tombstonesAt(), from.tombstoneId(), horizon, Limit.of(limit + 1));
+        
+        // Fusion des deux flux dans l'ordre chronologique, limitée à size éléments
+        int ticketCount = 0;
+        int tombstoneCount = 0;
+        while (ticketCount + tombstoneCount < limit
+                && (ticketCount < tickets.size() || tombstoneCount < tombstones.size())) {
+            boolean takeTicket = tombstoneCount == tombstones.size()
+                || (ticketCount < tickets.size() && !tickets.get(ticketCount).getUpdatedAt()
+                    .isAfter(tombstones.get(tombstoneCount).getCreatedAt()));
+            if (takeTicket) {
+                ticketCount++;
+            } else {
+                tombstoneCount++;
+            }
+        }
+        
+        List<TicketDTO> updated = tickets.subList(0, ticketCount).stream()
+            .map(ticketMapper::toDTO)
+            .collect(Collectors.toList());
+        Set<Long> updatedIds = updated.stream().map(TicketDTO::getId).collect(Collectors.toSet());
+        // Un ticket supprimé puis revenu dans la vue dans la même réponse n'est renvoyé qu'une fois
+        List<Long> deleted = tombstones.subList(0, tombstoneCount).stream()
+            .map(TicketTombstone::getTicketId)
+            .filter(ticketId -> !updatedIds.contains(ticketId))
+            .distinct()
+            .sorted()
+            .collect(Collectors.toList());
+        
+        // Un flux lu jusqu'à l'horizon avance jusqu'à l'horizon, sinon jusqu'au dernier élément renvoyé
+        LocalDateTime ticketsAt = from.ticketsAt();
+        Long ticketId = from.ticketId();
+        if (ticketCount == tickets.size()) {
+            ticketsAt = horizon;
+            ticketId = Long.MAX_VALUE;
+        } else if (ticketCount > 0) {
+            Ticket last = tickets.get(ticketCount - 1);
+            ticketsAt = last.getUpdatedAt();
+            ticketId = last.getId();
+        }
+        LocalDateTime tombstonesAt = from.tombstonesAt();
+        Long tombstoneId = from.tombstoneId();
+        if (tombstoneCount == tombstones.size()) {
+            tombstonesAt = horizon;
+            tombstoneId = Long.MAX_VALUE;
+        } else if (tombstoneCount > 0) {
+            TicketTombstone last = tombstones.get(tombstoneCount - 1);
+            tombstonesAt = last.getCreatedAt();
+            tombstoneId = last.getId();
+        }
+        SyncWatermark next = new SyncWatermark(ticketsAt, ticketId, tombstonesAt, tombstoneId);
+        
+        return TicketChangesDTO.builder()
+            .updated(updated)
+            .deleted(deleted)
+            .watermark(next.encode())
+            .hasMore(ticketCount < tickets.size() || tombstoneCount < tombstones.size())
+            .build();
+    }
+    
+    // Au-delà de la rétention, un client doit se resynchroniser : ses traces ne sont plus garanties
+    @Scheduled(fixedDelayString = "${ticket.sync.purge-interval:1h}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteCreatedBefore(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("{} traces de suppression purgées", purged);
+        }
+    }
+    
+    private void record(Long ticketId, Long userId, TicketTombstone.Reason reason) {
+        tombstoneRepository.save(tombstone(ticketId, userId, reason));
+    }
+    
+    private static TicketTombstone tombstone(Long ticketId, Long userId, TicketTombstone.Reason reason) {
+        return TicketTombstone.builder()
+            .ticketId(ticketId)
+            .userId(userId)
+            .reason(reason)
+            .build();
+    }
+}
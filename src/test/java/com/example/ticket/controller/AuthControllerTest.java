@@ -0,0 +1,108 @@
+package com.example.ticket.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.ticket.config.SecurityConfig;
+import com.example.ticket.dto.AuthRequestDTO;
+import com.example.ticket.dto.CollectionVersionDTO;
+import com.example.ticket.dto.TokenResponseDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.security.JwtService;
+import com.example.ticket.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest({AuthController.class, UserController.class})
+@Import({SecurityConfig.class, JwtService.class})
+class AuthControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @MockBean
+    private UserService userService;
+    
+    @Test
+    void testCreateToken_ValidCredentials() throws Exception {
+        mockMvc.perform(post("/api/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequestDTO("admin", "admin123"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tokenType").value("Bearer"))
+            .andExpect(jsonPath("$.expiresIn").value(3600))
+            .andExpect(jsonPath("$.accessToken").isNotEmpty());
+    }
+    
+    @Test
+    void testCreateToken_BadCredentials() throws Exception {
+        mockMvc.perform(post("/api/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequestDTO("admin", "mauvais"))))
+            .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    void testCreateToken_MissingFields() throws Exception {
+        mockMvc.perform(post("/api/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void testBearerToken_GrantsAccess() throws Exception {
+        when(userService.findAllVersion()).thenReturn(CollectionVersionDTO.builder().count(1).build());
+        when(userService.findAll()).thenReturn(List.of(
+            UserDTO.builder().id(1L).username("testuser").email("test@example.com").build()));
+        
+        mockMvc.perform(get("/api/users")
+                .header("Authorization", "Bearer " + obtainToken("user1", "user123")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].username").value("testuser"));
+    }
+    
+    @Test
+    void testRequest_WithoutToken() throws Exception {
+        mockMvc.perform(get("/api/users"))
+            .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    void testRequest_InvalidToken() throws Exception {
+        mockMvc.perform(get("/api/users")
+                .header("Authorization", "Bearer pas-un-jwt"))
+            .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    void testBasicAuth_NoLongerAccepted() throws Exception {
+        mockMvc.perform(get("/api/users")
+                .with(httpBasic("admin", "admin123")))
+            .andExpect(status().isUnauthorized());
+    }
+    
+    private String obtainToken(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AuthRequestDTO(username, password))))
+            .andExpect(status().isOk())
+            .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), TokenResponseDTO.class)
+            .getAccessToken();
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.ticket.controller;
+
+import com.example.ticket.dto.AuthRequestDTO;
+import com.example.ticket.dto.BulkStatusUpdateDTO;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.metrics.QueryCount;
+import com.example.ticket.metrics.QueryCountExtension;
+import com.example.ticket.metrics.QueryCounter;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.service.TicketService;
+import com.example.ticket.service.UserService;
+import com.example.ticket.service.cache.TicketCache;
+import com.example.ticket.service.dataset.DatasetGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Budget de requêtes SQL de chaque endpoint : un aller-retour de plus (ou de moins) fait échouer le build,
+// le budget est alors à revoir explicitement
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    // Pas d'envoi d'outbox pendant les mesures tous threads confondus (export)
+    "ticket.outbox.poll-interval=1h"
+})
+@AutoConfigureMockMvc
+@ExtendWith(QueryCountExtension.class)
+class QueryBudgetTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private TicketCache ticketCache;
+    
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+    
+    private UserDTO owner;
+    private UserDTO other;
+    private TicketDTO ticket;
+    
+    @BeforeEach
+    void setUp() {
+        datasetGenerator.clear();
+        ticketCache.evictIf(cached -> true);
+        owner = userService.create(UserDTO.builder().username("user1").email("user1@test.com").build());
+        other = userService.create(UserDTO.builder().username("other").email("other@test.com").build());
+        ticket = ticketService.create(ticket("Ticket 1", owner.getId()));
+        ticketService.create(ticket("Ticket 2", owner.getId()));
+        ticketService.create(ticket("Ticket 3", other.getId()));
+    }
+    
+    // Tickets
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getTickets(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(2).build(), queries,
+            () -> mockMvc.perform(get("/api/tickets")).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(username = "user1", roles = "USER")
+    void getTickets_AsUser(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(2).build(), queries,
+            () -> mockMvc.perform(get("/api/tickets")).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getTickets_NotModified(QueryCounter queries) throws Throwable {
+        String etag = mockMvc.perform(get("/api/tickets")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertBudget(budget().select(1).build(), queries,
+            () -> mockMvc.perform(get("/api/tickets").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getTicketChanges(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(2).build(), queries,
+            () -> mockMvc.perform(get("/api/tickets/changes")).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getTicketEvents(QueryCounter queries) throws Throwable {
+        assertBudget(budget().build(), queries,
+            () -> mockMvc.perform(get("/api/tickets/events")).andExpect(request().asyncStarted()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportTickets(QueryCounter queries) throws Throwable {
+        assertEquals(budget().select(1).build(), queries.countAllThreads(() -> {
+            MvcResult result = mockMvc.perform(get("/api/tickets/export")).andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        }), "requêtes SQL de GET /api/tickets/export");
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getCacheStats(QueryCounter queries) throws Throwable {
+        assertBudget(budget().build(), queries,
+            () -> mockMvc.perform(get("/api/tickets/cache/stats")).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getStats(QueryCounter queries) throws Throwable {
+        assertBudget(budget().build(), queries,
+            () -> mockMvc.perform(get("/api/tickets/stats")).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getTicket(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(2).build(), queries,
+            () -> mockMvc.perform(get("/api/tickets/{id}", ticket.getId())).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getTicket_NotModified(QueryCounter queries) throws Throwable {
+        String etag = mockMvc.perform(get("/api/tickets/{id}", ticket.getId())).andReturn()
+            .getResponse().getHeader(HttpHeaders.ETAG);
+        ticketCache.evictIf(cached -> true);
+        assertBudget(budget().select(1).build(), queries,
+            () -> mockMvc.perform(get("/api/tickets/{id}", ticket.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createTicket(QueryCounter queries) throws Throwable {
+        assertBudget(budget().insert(2).build(), queries,
+            () -> mockMvc.perform(post("/api/tickets").contentType(MediaType.APPLICATION_JSON)
+                .content(json(ticket("Nouveau", owner.getId())))).andExpect(status().isCreated()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createTickets(QueryCounter queries) throws Throwable {
+        List<TicketDTO> tickets = List.of(ticket("A", owner.getId()), ticket("B", other.getId()),
+            ticket("C", owner.getId()));
+        assertBudget(budget().select(1).insert(2).build(), queries,
+            () -> mockMvc.perform(post("/api/tickets/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(json(tickets))).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateTickets(QueryCounter queries) throws Throwable {
+        TicketDTO update = ticket("Modifié", other.getId());
+        update.setId(ticket.getId());
+        assertBudget(budget().select(2).insert(2).update(1).build(), queries,
+            () -> mockMvc.perform(patch("/api/tickets/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(json(List.of(update)))).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void transitionStatus(QueryCounter queries) throws Throwable {
+        BulkStatusUpdateDTO request = BulkStatusUpdateDTO.builder()
+            .assignedUserId(owner.getId()).targetStatus(TicketStatus.TERMINE).build();
+        assertBudget(budget().insert(1).update(1).build(), queries,
+            () -> mockMvc.perform(post("/api/tickets/status-transitions").contentType(MediaType.APPLICATION_JSON)
+                .content(json(request))).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateTicket(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(2).insert(1).update(1).build(), queries,
+            () -> mockMvc.perform(put("/api/tickets/{id}", ticket.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(ticket("Modifié", other.getId())))).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(username = "user1", roles = "USER")
+    void updateTicket_AsOwner(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(2).insert(1).update(1).build(), queries,
+            () -> mockMvc.perform(put("/api/tickets/{id}", ticket.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(ticket("Modifié", owner.getId())))).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(username = "other", roles = "USER")
+    void updateTicket_NotOwner(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(2).build(), queries,
+            () -> mockMvc.perform(put("/api/tickets/{id}", ticket.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(ticket("Modifié", other.getId())))).andExpect(status().isForbidden()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void assignTicket(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(2).insert(2).update(1).build(), queries,
+            () -> mockMvc.perform(put("/api/tickets/{id}/assign/{userId}", ticket.getId(), other.getId()))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void deleteTicket(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(1).insert(2).delete(1).build(), queries,
+            () -> mockMvc.perform(delete("/api/tickets/{id}", ticket.getId())).andExpect(status().isNoContent()));
+    }
+    
+    // Utilisateurs
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getUsers(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(2).build(), queries,
+            () -> mockMvc.perform(get("/api/users")).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getUser(QueryCounter queries) throws Throwable {
+        assertBudget(budget().select(1).build(), queries,
+            () -> mockMvc.perform(get("/api/users/{id}", owner.getId())).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getUserTickets(QueryCounter queries) throws Throwable {
+        // Version puis page ; l'existence de l'utilisateur n'est vérifiée que s'il n'a aucun ticket
+        assertBudget(budget().select(2).build(), queries,
+            () -> mockMvc.perform(get("/api/users/{id}/tickets", owner.getId())).andExpect(status().isOk()));
+    }
+    
+    @Test
+    void createUser(QueryCounter queries) throws Throwable {
+        UserDTO user = UserDTO.builder().username("nouveau").email("nouveau@test.com").build();
+        assertBudget(budget().insert(1).build(), queries,
+            () -> mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(json(user)))
+                .andExpect(status().isCreated()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateUser(QueryCounter queries) throws Throwable {
+        UserDTO user = UserDTO.builder().username("renomme").email("renomme@test.com").build();
+        // Renommage : un UPDATE ensembliste signale ses tickets au flux des changements
+        assertBudget(budget().update(2).build(), queries,
+            () -> mockMvc.perform(put("/api/users/{id}", other.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(user))).andExpect(status().isOk()));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void deleteUser(QueryCounter queries) throws Throwable {
+        // Tickets archivés de l'utilisateur : un DELETE de plus, la cascade JPA ne couvre que la table chaude
+        assertBudget(budget().select(3).insert(2).delete(3).build(), queries,
+            () -> mockMvc.perform(delete("/api/users/{id}", other.getId())).andExpect(status().isNoContent()));
+    }
+    
+    // Authentification : jeton signé, utilisateurs en mémoire
+    
+    @Test
+    void createToken(QueryCounter queries) throws Throwable {
+        assertBudget(budget().build(), queries,
+            () -> mockMvc.perform(post("/api/auth/token").contentType(MediaType.APPLICATION_JSON)
+                .content(json(new AuthRequestDTO("admin", "admin123")))).andExpect(status().isOk()));
+    }
+    
+    private static QueryCount.QueryCountBuilder budget() {
+        return QueryCount.builder();
+    }
+    
+    private static void assertBudget(QueryCount budget, QueryCounter queries, Executable request) throws Throwable {
+        assertEquals(budget, queries.count(request), "requêtes SQL de l'endpoint");
+    }
+    
+    private static TicketDTO ticket(String title, Long userId) {
+        return TicketDTO.builder().title(title).description("Description").status(TicketStatus.EN_COURS)
+            .assignedUserId(userId).build();
+    }
+    
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+}
@@ -1,23 +1,52 @@
 package com.example.ticket.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.ticket.dto.BatchItemResultDTO;
+import com.example.ticket.dto.BulkStatusUpdateDTO;
+import com.example.ticket.dto.BulkUpdateResultDTO;
+import com.example.ticket.dto.CacheStatsDTO;
+import com.example.ticket.dto.CollectionVersionDTO;
+import com.example.ticket.dto.CursorPage;
 import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketChangesDTO;
+import com.example.ticket.dto.TicketStatsDTO;
+import com.example.ticket.dto.TicketVersionDTO;
+import com.example.ticket.exception.BadRequestException;
+import com.example.ticket.exception.UnauthorizedException;
+import com.example.ticket.model.entity.Ticket;
 import com.example.ticket.model.enums.TicketStatus;
 import com.example.ticket.service.TicketService;
+import com.example.ticket.service.stream.TicketEventBroadcaster;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +64,9 @@ class TicketControllerTest {
     @MockBean
     private TicketService ticketService;
     
+    @MockBean
+    private TicketEventBroadcaster ticketEventBroadcaster;
+    
     private TicketDTO ticketDTO;
     
     @BeforeEach
@@ -46,40 +78,284 @@ class TicketControllerTest {
             .status(TicketStatus.EN_COURS)
             .assignedUserId(1L)
             .assignedUsername("testuser")
+            .version(2L)
             .build();
+        
+        CollectionVersionDTO listVersion = CollectionVersionDTO.builder()
+            .count(1).lastModified(LocalDateTime.of(2024, 1, 1, 9, 0)).build();
+        when(ticketService.findPageVersion(any(), any(), anyBoolean())).thenReturn(listVersion);
+        when(ticketService.findPageVersionByAssignedUser(any(), any(), anyBoolean())).thenReturn(listVersion);
     }
     
     @Test
     @WithMockUser(roles = "ADMIN")
     void testGetAllTickets_AsAdmin() throws Exception {
-        when(ticketService.findAll()).thenReturn(Arrays.asList(ticketDTO));
+        when(ticketService.findPage(isNull(), isNull(), eq(false), isNull(), eq(CursorPage.DEFAULT_SIZE)))
+            .thenReturn(page("next-cursor"));
         
         mockMvc.perform(get("/api/tickets"))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$[0].title").value("Test Ticket"));
+            .andExpect(jsonPath("$.content[0].title").value("Test Ticket"))
+            .andExpect(jsonPath("$.next").value("next-cursor"));
     }
     
     @Test
     @WithMockUser(username = "testuser", roles = "USER")
     void testGetAllTickets_AsUser() throws Exception {
-        when(ticketService.findByAssignedUser("testuser"))
-            .thenReturn(Arrays.asList(ticketDTO));
+        when(ticketService.findPageByAssignedUser(eq("testuser"), isNull(), eq(false), isNull(), anyInt()))
+            .thenReturn(page(null));
         
         mockMvc.perform(get("/api/tickets"))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$[0].title").value("Test Ticket"));
+            .andExpect(jsonPath("$.content[0].title").value("Test Ticket"));
+    }
+    
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testGetAllTickets_AsUserWithStatus() throws Exception {
+        when(ticketService.findPageByAssignedUser("testuser", TicketStatus.TERMINE, false, null,
+                CursorPage.DEFAULT_SIZE))
+            .thenReturn(page(null));
+        
+        mockMvc.perform(get("/api/tickets").param("status", "TERMINE"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].title").value("Test Ticket"));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetAllTickets_AsAdminByAssigneeAndStatus() throws Exception {
+        when(ticketService.findPage(TicketStatus.EN_COURS, 1L, false, null, CursorPage.DEFAULT_SIZE))
+            .thenReturn(page(null));
+        
+        mockMvc.perform(get("/api/tickets")
+                .param("status", "EN_COURS")
+                .param("assignedUserId", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].assignedUserId").value(1));
+    }
+    
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testGetAllTickets_IncludeArchived() throws Exception {
+        when(ticketService.findPageByAssignedUser("testuser", null, true, null, CursorPage.DEFAULT_SIZE))
+            .thenReturn(page(null));
+        
+        mockMvc.perform(get("/api/tickets").param("includeArchived", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].title").value("Test Ticket"));
+        verify(ticketService).findPageVersionByAssignedUser("testuser", null, true);
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetAllTickets_WithCursor() throws Exception {
+        when(ticketService.findPage(TicketStatus.EN_COURS, null, false, "abc", 10))
+            .thenReturn(page(null));
+        
+        mockMvc.perform(get("/api/tickets")
+                .param("status", "EN_COURS")
+                .param("cursor", "abc")
+                .param("size", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.next").doesNotExist());
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetAllTickets_InvalidCursor() throws Exception {
+        when(ticketService.findPage(isNull(), isNull(), anyBoolean(), eq("???"), anyInt()))
+            .thenThrow(new BadRequestException("Curseur de pagination invalide"));
+        
+        mockMvc.perform(get("/api/tickets").param("cursor", "???"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetTicketChanges_AsAdmin() throws Exception {
+        when(ticketService.findChanges("w1", TicketChangesDTO.DEFAULT_SIZE)).thenReturn(TicketChangesDTO.builder()
+            .updated(List.of(ticketDTO))
+            .deleted(List.of(5L))
+            .watermark("w2")
+            .build());
+        
+        mockMvc.perform(get("/api/tickets/changes").param("since", "w1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated[0].title").value("Test Ticket"))
+            .andExpect(jsonPath("$.deleted[0]").value(5))
+            .andExpect(jsonPath("$.watermark").value("w2"))
+            .andExpect(jsonPath("$.hasMore").value(false));
+    }
+    
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testGetTicketChanges_AsUser() throws Exception {
+        when(ticketService.findChangesByAssignedUser("testuser", null, 100)).thenReturn(TicketChangesDTO.builder()
+            .updated(List.of(ticketDTO))
+            .deleted(List.of())
+            .watermark("w1")
+            .build());
+        
+        mockMvc.perform(get("/api/tickets/changes").param("size", "100"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated[0].assignedUserId").value(1));
+        verify(ticketService, never()).findChanges(any(), anyInt());
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetTicketChanges_InvalidWatermark() throws Exception {
+        when(ticketService.findChanges(eq("???"), anyInt()))
+            .thenThrow(new BadRequestException("Jeton de synchronisation invalide"));
+        
+        mockMvc.perform(get("/api/tickets/changes").param("since", "???"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testStreamTicketEvents() throws Exception {
+        when(ticketEventBroadcaster.subscribe(any())).thenReturn(new SseEmitter());
+        
+        mockMvc.perform(get("/api/tickets/events"))
+            .andExpect(request().asyncStarted());
+        verify(ticketEventBroadcaster).subscribe(argThat(auth -> "testuser".equals(auth.getName())));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @SuppressWarnings("unchecked")
+    void testExportTickets_AsAdmin() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<TicketDTO> consumer = invocation.getArgument(0);
+            consumer.accept(ticketDTO);
+            consumer.accept(ticketDTO);
+            return 2L;
+        }).when(ticketService).exportAll(any());
+        
+        MvcResult result = mockMvc.perform(get("/api/tickets/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        String line = objectMapper.writeValueAsString(ticketDTO);
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+    
+    @Test
+    @WithMockUser(roles = "USER")
+    void testExportTickets_AsUser_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/tickets/export"))
+            .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetCacheStats_AsAdmin() throws Exception {
+        when(ticketService.cacheStats()).thenReturn(CacheStatsDTO.builder()
+            .size(10).maximumSize(100).hitCount(8).missCount(2).hitRate(0.8).build());
+        
+        mockMvc.perform(get("/api/tickets/cache/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hitRate").value(0.8));
+    }
+    
+    @Test
+    @WithMockUser(roles = "USER")
+    void testGetCacheStats_AsUser_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/tickets/cache/stats"))
+            .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetTicketStats_AsAdmin() throws Exception {
+        when(ticketService.statistics()).thenReturn(TicketStatsDTO.builder()
+            .total(3)
+            .byStatus(Map.of(TicketStatus.EN_COURS, 2L, TicketStatus.TERMINE, 1L))
+            .byAssignee(Map.of(1L, Map.of(TicketStatus.EN_COURS, 2L)))
+            .build());
+        
+        mockMvc.perform(get("/api/tickets/stats"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.byAssignee['1']['En cours']").value(2));
+    }
+    
+    @Test
+    @WithMockUser(roles = "USER")
+    void testGetTicketStats_AsUser_Forbidden() throws Exception {
+        mockMvc.perform(get("/api/tickets/stats"))
+            .andExpect(status().isForbidden());
     }
     
     @Test
     @WithMockUser(username = "testuser", roles = "USER")
     void testGetTicketById_Success() throws Exception {
+        when(ticketService.findVersion(1L)).thenReturn(Optional.of(version(2L)));
         when(ticketService.findById(1L)).thenReturn(Optional.of(ticketDTO));
         
         mockMvc.perform(get("/api/tickets/1"))
             .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"2-7\""))
             .andExpect(jsonPath("$.title").value("Test Ticket"));
     }
     
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testGetTicketById_NotModified() throws Exception {
+        when(ticketService.findVersion(1L)).thenReturn(Optional.of(version(2L)));
+        
+        mockMvc.perform(get("/api/tickets/1").header("If-None-Match", "\"2-7\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"2-7\""))
+            .andExpect(content().string(""));
+        verify(ticketService, never()).findById(1L);
+    }
+    
+    @Test
+    @WithMockUser(username = "other", roles = "USER")
+    void testGetTicketById_NotModified_StillChecksAccess() throws Exception {
+        when(ticketService.findVersion(1L)).thenReturn(Optional.of(version(2L)));
+        
+        mockMvc.perform(get("/api/tickets/1").header("If-None-Match", "\"2-7\""))
+            .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testGetTicketById_StaleCacheHasNoETag() throws Exception {
+        when(ticketService.findVersion(1L)).thenReturn(Optional.of(version(3L)));
+        when(ticketService.findById(1L)).thenReturn(Optional.of(ticketDTO));
+        
+        mockMvc.perform(get("/api/tickets/1").header("If-None-Match", "\"2-7\""))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("ETag"));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetTicketById_NotFound() throws Exception {
+        mockMvc.perform(get("/api/tickets/99"))
+            .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetAllTickets_NotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/tickets"))
+            .andExpect(status().isOk())
+            .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        
+        mockMvc.perform(get("/api/tickets").header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        verify(ticketService, times(1)).findPage(any(), any(), anyBoolean(), any(), anyInt());
+    }
+    
     @Test
     @WithMockUser
     void testCreateTicket() throws Exception {
@@ -93,11 +369,97 @@ class TicketControllerTest {
             .andExpect(jsonPath("$.title").value("Test Ticket"));
     }
     
+    @Test
+    @WithMockUser
+    void testCreateTicketsBatch() throws Exception {
+        when(ticketService.createAll(anyList())).thenReturn(List.of(
+            BatchItemResultDTO.builder().index(0).id(1L).status(BatchItemResultDTO.Status.CREATED).build(),
+            BatchItemResultDTO.builder().index(1).status(BatchItemResultDTO.Status.INVALID).build()));
+        
+        mockMvc.perform(post("/api/tickets/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(ticketDTO, new TicketDTO()))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value("CREATED"))
+            .andExpect(jsonPath("$[1].status").value("INVALID"));
+    }
+    
+    @Test
+    @WithMockUser(username = "testuser", roles = "USER")
+    void testUpdateTicketsBatch_AsUser() throws Exception {
+        when(ticketService.updateAll(anyList(), eq("testuser"))).thenReturn(List.of(
+            BatchItemResultDTO.builder().index(0).id(1L).status(BatchItemResultDTO.Status.UPDATED).build()));
+        
+        mockMvc.perform(patch("/api/tickets/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(ticketDTO))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value("UPDATED"));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testUpdateTicketsBatch_AsAdmin() throws Exception {
+        when(ticketService.updateAll(anyList(), isNull())).thenReturn(List.of(
+            BatchItemResultDTO.builder().index(0).id(1L).status(BatchItemResultDTO.Status.UPDATED).build()));
+        
+        mockMvc.perform(patch("/api/tickets/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(ticketDTO))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(1));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testTransitionStatus_AsAdmin() throws Exception {
+        BulkStatusUpdateDTO request = BulkStatusUpdateDTO.builder()
+            .currentStatus(TicketStatus.EN_COURS)
+            .targetStatus(TicketStatus.TERMINE)
+            .build();
+        when(ticketService.transitionStatus(request))
+            .thenReturn(BulkUpdateResultDTO.builder().updated(3).build());
+        
+        mockMvc.perform(post("/api/tickets/status-transitions")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated").value(3));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testTransitionStatus_MissingTarget() throws Exception {
+        mockMvc.perform(post("/api/tickets/status-transitions")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 2]}"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @WithMockUser(roles = "USER")
+    void testTransitionStatus_AsUser_Forbidden() throws Exception {
+        BulkStatusUpdateDTO request = BulkStatusUpdateDTO.builder()
+            .ids(List.of(1L))
+            .targetStatus(TicketStatus.TERMINE)
+            .build();
+        
+        mockMvc.perform(post("/api/tickets/status-transitions")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isForbidden());
+    }
+    
     @Test
     @WithMockUser(username = "testuser", roles = "USER")
     void testUpdateTicket() throws Exception {
-        when(ticketService.findById(1L)).thenReturn(Optional.of(ticketDTO));
-        when(ticketService.update(eq(1L), any(TicketDTO.class))).thenReturn(ticketDTO);
+        when(ticketService.update(eq(1L), any(TicketDTO.class), eq("testuser"))).thenReturn(ticketDTO);
         
         mockMvc.perform(put("/api/tickets/1")
                 .with(csrf())
@@ -105,6 +467,62 @@ class TicketControllerTest {
                 .content(objectMapper.writeValueAsString(ticketDTO)))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.title").value("Test Ticket"));
+        verify(ticketService, never()).findById(any());
+    }
+    
+    @Test
+    @WithMockUser(username = "otheruser", roles = "USER")
+    void testUpdateTicket_NotOwner_Forbidden() throws Exception {
+        when(ticketService.update(eq(1L), any(TicketDTO.class), eq("otheruser")))
+            .thenThrow(new UnauthorizedException("Vous n'avez pas le droit de modifier ce ticket"));
+        
+        mockMvc.perform(put("/api/tickets/1")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ticketDTO)))
+            .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testUpdateTicket_IfMatchSetsExpectedVersion() throws Exception {
+        ticketDTO.setVersion(5L);
+        when(ticketService.findVersion(1L)).thenReturn(Optional.of(version(5L)));
+        when(ticketService.update(eq(1L), argThat(dto -> Long.valueOf(4L).equals(dto.getVersion())), isNull()))
+            .thenReturn(ticketDTO);
+        
+        mockMvc.perform(put("/api/tickets/1")
+                .with(csrf())
+                .header("If-Match", "W/\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ticketDTO)))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"5-7\""));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testUpdateTicket_VersionConflict() throws Exception {
+        when(ticketService.update(eq(1L), any(TicketDTO.class), isNull()))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Ticket.class, 1L));
+        
+        mockMvc.perform(put("/api/tickets/1")
+                .with(csrf())
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ticketDTO)))
+            .andExpect(status().isConflict());
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testUpdateTicket_InvalidIfMatch() throws Exception {
+        mockMvc.perform(put("/api/tickets/1")
+                .with(csrf())
+                .header("If-Match", "\"abc\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ticketDTO)))
+            .andExpect(status().isBadRequest());
     }
     
     @Test
@@ -133,4 +551,21 @@ class TicketControllerTest {
                 .with(csrf()))
             .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+    
+    private CursorPage<TicketDTO> page(String next) {
+        return CursorPage.<TicketDTO>builder()
+            .content(Arrays.asList(ticketDTO))
+            .next(next)
+            .size(1)
+            .build();
+    }
+    
+    private TicketVersionDTO version(Long version) {
+        return TicketVersionDTO.builder()
+            .version(version)
+            .assignedUserId(1L)
+            .assignedUsername("testuser")
+            .assigneeVersion(7L)
+            .build();
+    }
+}
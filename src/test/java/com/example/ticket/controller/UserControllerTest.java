@@ -1,6 +1,9 @@
 package com.example.ticket.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.ticket.config.SecurityConfig;
+import com.example.ticket.security.JwtService;
+import com.example.ticket.dto.CollectionVersionDTO;
 import com.example.ticket.dto.UserDTO;
 import com.example.ticket.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,21 +11,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+@Import({SecurityConfig.class, JwtService.class})
 class UserControllerTest {
     
     @Autowired
@@ -43,6 +52,9 @@ class UserControllerTest {
             .username("testuser")
             .email("test@example.com")
             .build();
+        
+        when(userService.findAllVersion()).thenReturn(CollectionVersionDTO.builder()
+            .count(1).lastModified(LocalDateTime.of(2024, 1, 1, 9, 0)).build());
     }
     
     @Test
@@ -58,17 +70,41 @@ class UserControllerTest {
     @Test
     @WithMockUser
     void testGetUserById_Success() throws Exception {
+        when(userService.findVersion(1L)).thenReturn(Optional.of(3L));
         when(userService.findById(1L)).thenReturn(Optional.of(userDTO));
         
         mockMvc.perform(get("/api/users/1"))
             .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"3\""))
             .andExpect(jsonPath("$.username").value("testuser"));
     }
     
+    @Test
+    @WithMockUser
+    void testGetUserById_NotModified() throws Exception {
+        when(userService.findVersion(1L)).thenReturn(Optional.of(3L));
+        
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "W/\"3\""))
+            .andExpect(status().isNotModified());
+        verify(userService, never()).findById(1L);
+    }
+    
+    @Test
+    @WithMockUser
+    void testGetAllUsers_NotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/users"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        
+        mockMvc.perform(get("/api/users").header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+        verify(userService, times(1)).findAll();
+    }
+    
     @Test
     @WithMockUser
     void testGetUserById_NotFound() throws Exception {
-        when(userService.findById(999L)).thenReturn(Optional.empty());
+        when(userService.findVersion(999L)).thenReturn(Optional.empty());
         
         mockMvc.perform(get("/api/users/999"))
             .andExpect(status().isNotFound());
@@ -0,0 +1,172 @@
+package com.example.ticket.datasource;
+
+import com.example.ticket.config.ReadReplicaConfig;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.service.TicketService;
+import com.example.ticket.service.UserService;
+import com.example.ticket.service.dataset.DatasetGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Deux bases H2 locales, primaire et réplica : la réplication est simulée en recopiant le schéma,
+// puis le battement de cœur ; les données du réplica sont écrites directement pour savoir qui a servi la lecture
+@SpringBootTest(properties = {
+    "ticket.datasource.routing.enabled=true",
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "ticket.datasource.replica-urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+    "ticket.datasource.max-replica-lag=2s",
+    "ticket.datasource.heartbeat-interval=1h",
+    "ticket.sync.settle-window=2h",
+    "ticket.outbox.poll-interval=1h"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+    
+    @Autowired
+    private ReplicaSet replicaSet;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(replicaSet.primary());
+        replica = new JdbcTemplate(replicaSet.replicas().get("replica-1"));
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+        datasetGenerator.clear();
+    
+        replica.update("INSERT INTO users (id, username, email, created_at, updated_at, version) "
+            + "VALUES (9001, 'replica-only', 'replica@test.com', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)");
+        userService.create(UserDTO.builder().username("primary-only").email("primary@test.com").build());
+    }
+    
+    @Test
+    void readOnlyTransaction_ServedByFreshReplica() {
+        replicateHeartbeat(Duration.ZERO);
+    
+        assertEquals(List.of("replica-only"), usernames());
+        assertEquals(Duration.ZERO, replicaSet.lag("replica-1").orElseThrow());
+    }
+    
+    @Test
+    void laggingReplica_ReadsFallBackToPrimary() {
+        replicateHeartbeat(Duration.ofSeconds(10));
+    
+        assertEquals(List.of("primary-only"), usernames());
+        assertTrue(replicaSet.lag("replica-1").orElseThrow().compareTo(Duration.ofSeconds(2)) > 0);
+    }
+    
+    @Test
+    void unreachableReplica_ReadsFallBackToPrimary() {
+        replicateHeartbeat(Duration.ZERO);
+        replica.execute("DROP TABLE replica_heartbeat");
+        replicaSet.refresh();
+    
+        assertEquals(List.of("primary-only"), usernames());
+        assertTrue(replicaSet.lag("replica-1").isEmpty());
+    }
+    
+    @Test
+    void stalledMeasurement_ReadsFallBackToPrimary() {
+        replicateHeartbeat(Duration.ZERO);
+        Instant measured = Instant.now();
+    
+        assertTrue(replicaSet.nextFreshReplica(measured.plus(Duration.ofHours(1))).isPresent());
+        // Plus de ReplicaSet.STALE_BEATS battements sans mesure : le dernier retard relevé ne vaut plus
+        assertTrue(replicaSet.nextFreshReplica(measured.plus(Duration.ofHours(2).plusSeconds(1))).isEmpty());
+        replicaSet.refresh();
+        assertTrue(replicaSet.nextFreshReplica(Instant.now()).isPresent());
+    }
+    
+    @Test
+    void replicaSet_LagPlusHeartbeatMustStayUnderSettleWindow() {
+        // Vérifié avant l'ouverture des pools
+        assertThrows(IllegalStateException.class, () -> new ReadReplicaConfig().replicaSet(
+            new DataSourceProperties(), new SimpleMeterRegistry(), List.of("jdbc:h2:mem:unused"),
+            Duration.ofSeconds(2), Duration.ofSeconds(3), Duration.ofSeconds(5)));
+    }
+    
+    @Test
+    void writeTransaction_GoesToPrimary() {
+        replicateHeartbeat(Duration.ZERO);
+    
+        userService.create(UserDTO.builder().username("written").email("written@test.com").build());
+    
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'written'", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM users WHERE username = 'written'", Integer.class));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void readAfterWrite_SameRequestStaysOnPrimary() throws Exception {
+        Long userId = primary.queryForObject("SELECT id FROM users WHERE username = 'primary-only'", Long.class);
+        TicketDTO ticket = ticketService.create(TicketDTO.builder()
+            .title("Ticket").description("Description").status(TicketStatus.EN_COURS).assignedUserId(userId).build());
+        replicateHeartbeat(Duration.ZERO);
+    
+        // L'ETag est relu en lecture seule après la mise à jour : absent du réplica, il vient du primaire
+        mockMvc.perform(put("/api/tickets/{id}", ticket.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(TicketDTO.builder()
+                    .title("Modifié").description("Description").status(TicketStatus.TERMINE).build())))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""));
+    
+        // La requête terminée, les lectures repartent sur le réplica
+        assertEquals(List.of("replica-only"), usernames());
+    }
+    
+    // Recopie sur le réplica le dernier battement du primaire, vieilli de lag, puis mesure le retard
+    private void replicateHeartbeat(Duration lag) {
+        replicaSet.refresh();
+        LocalDateTime beatAt = primary.queryForObject(
+            "SELECT beat_at FROM replica_heartbeat WHERE id = 1", LocalDateTime.class);
+        replica.update("MERGE INTO replica_heartbeat KEY (id) VALUES (1, ?)",
+            Timestamp.valueOf(beatAt.minus(lag)));
+        replicaSet.refresh();
+    }
+    
+    private List<String> usernames() {
+        return userService.findAll().stream().map(UserDTO::getUsername).toList();
+    }
+}
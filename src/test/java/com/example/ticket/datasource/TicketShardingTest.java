@@ -0,0 +1,273 @@
+package com.example.ticket.datasource;
+
+import com.example.ticket.dto.CursorPage;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketStatsDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.service.TicketService;
+import com.example.ticket.service.UserService;
+import com.example.ticket.service.archive.TicketArchiver;
+import com.example.ticket.service.stats.TicketStatistics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Trois bases H2 locales : chaque ticket est cherché directement dans la base qui doit le porter
+@SpringBootTest(properties = {
+    "ticket.sharding.enabled=true",
+    "spring.datasource.url=jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1",
+    "ticket.sharding.shard-urls=jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1",
+    "ticket.sharding.unassigned-shard=2",
+    "ticket.outbox.poll-interval=1h"
+})
+class TicketShardingTest {
+    
+    @Autowired
+    private TicketShards shards;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketStatistics ticketStatistics;
+    
+    @Autowired
+    private TicketArchiver ticketArchiver;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private final List<JdbcTemplate> jdbc = new ArrayList<>();
+    
+    // Un utilisateur par shard
+    private final Map<Integer, UserDTO> users = new HashMap<>();
+    
+    @BeforeEach
+    void setUp() {
+        jdbc.clear();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            JdbcTemplate template = new JdbcTemplate(shards.dataSource(shard));
+            template.update("DELETE FROM ticket_tombstones");
+            template.update("DELETE FROM outbox_events");
+            template.update("DELETE FROM tickets");
+            template.update("DELETE FROM archived_tickets");
+            template.update("DELETE FROM users");
+            jdbc.add(template);
+        }
+        // evictAll (JPA) garde les résolutions username -> id du cache d'identifiants naturels
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    
+        users.clear();
+        for (int i = 0; users.size() < shards.count(); i++) {
+            UserDTO user = userService.create(UserDTO.builder()
+                .username("user-" + i).email("user-" + i + "@test.com").build());
+            users.putIfAbsent(shards.shardOf(user.getId()), user);
+        }
+    }
+    
+    @Test
+    void create_StoresTicketOnAssigneeShard() {
+        for (Map.Entry<Integer, UserDTO> entry : users.entrySet()) {
+            TicketDTO ticket = create(entry.getValue().getId(), TicketStatus.EN_COURS);
+    
+            assertEquals(List.of(entry.getKey()), shardsHolding(ticket.getId()));
+        }
+        TicketDTO unassigned = create(null, TicketStatus.EN_COURS);
+        assertEquals(List.of(2), shardsHolding(unassigned.getId()));
+    }
+    
+    @Test
+    void users_CopiedToEveryShard() {
+        UserDTO user = users.get(1);
+        userService.update(user.getId(), UserDTO.builder().email("renamed@test.com").build());
+    
+        for (JdbcTemplate shard : jdbc) {
+            assertEquals("renamed@test.com",
+                shard.queryForObject("SELECT email FROM users WHERE id = ?", String.class, user.getId()));
+        }
+    }
+    
+    @Test
+    void ids_UniqueAcrossShards() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 60; i++) {
+            for (UserDTO user : users.values()) {
+                assertTrue(ids.add(create(user.getId(), TicketStatus.EN_COURS).getId()));
+            }
+        }
+    }
+    
+    @Test
+    void findAllAndFindByStatus_MergeEveryShardById() {
+        List<Long> created = new ArrayList<>();
+        for (UserDTO user : users.values()) {
+            created.add(create(user.getId(), TicketStatus.EN_COURS).getId());
+            created.add(create(user.getId(), TicketStatus.TERMINE).getId());
+        }
+        created.add(create(null, TicketStatus.TERMINE).getId());
+    
+        assertEquals(created.stream().sorted().toList(), ids(ticketService.findAll()));
+        assertEquals(4, ticketService.findByStatus(TicketStatus.TERMINE).size());
+        assertEquals(ids(ticketService.findByStatus(TicketStatus.TERMINE)).stream().sorted().toList(),
+            ids(ticketService.findByStatus(TicketStatus.TERMINE)));
+    }
+    
+    @Test
+    void findPage_CursorWalksEveryShardWithoutGapsOrDuplicates() {
+        Set<Long> created = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            for (UserDTO user : users.values()) {
+                created.add(create(user.getId(), TicketStatus.EN_COURS).getId());
+            }
+        }
+    
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TicketDTO> page = ticketService.findPage(null, null, cursor, 4);
+            assertTrue(page.getSize() <= 4);
+            walked.addAll(ids(page.getContent()));
+            cursor = page.getNext();
+        } while (cursor != null);
+    
+        assertEquals(created.size(), walked.size());
+        assertEquals(created, new HashSet<>(walked));
+    }
+    
+    @Test
+    void assigneeQueries_ReadOnlyTheAssigneeShard() {
+        UserDTO user = users.get(1);
+        TicketDTO ticket = create(user.getId(), TicketStatus.EN_COURS);
+        // Ligne plantée hors du shard de l'assigné : une lecture routée ne la voit pas
+        jdbc.get(0).update("INSERT INTO tickets (id, title, description, status, user_id, created_at, updated_at, "
+            + "version) VALUES (999999, 'Égaré', 'Description', 'EN_COURS', ?, CURRENT_TIMESTAMP, "
+            + "CURRENT_TIMESTAMP, 0)", user.getId());
+    
+        assertEquals(List.of(ticket.getId()), ids(userService.getUserTickets(user.getId())));
+        assertEquals(List.of(ticket.getId()), ids(ticketService.findByAssignedUser(user.getUsername())));
+        assertEquals(List.of(ticket.getId()),
+            ids(ticketService.findPage(null, user.getId(), null, 10).getContent()));
+    }
+    
+    @Test
+    void assignTicket_MovesTicketToNewAssigneeShard() {
+        TicketDTO ticket = create(users.get(0).getId(), TicketStatus.EN_COURS);
+    
+        TicketDTO assigned = ticketService.assignTicket(ticket.getId(), users.get(1).getId());
+    
+        assertEquals(users.get(1).getId(), assigned.getAssignedUserId());
+        assertEquals(List.of(1), shardsHolding(ticket.getId()));
+        assertEquals(users.get(1).getId(), ticketService.findById(ticket.getId()).orElseThrow().getAssignedUserId());
+    
+        ticketService.update(ticket.getId(), TicketDTO.builder().status(TicketStatus.TERMINE).build());
+        assertEquals("TERMINE", jdbc.get(1).queryForObject(
+            "SELECT status FROM tickets WHERE id = ?", String.class, ticket.getId()));
+    }
+    
+    @Test
+    void statistics_CountEveryShard() {
+        for (UserDTO user : users.values()) {
+            create(user.getId(), TicketStatus.EN_COURS);
+        }
+        create(null, TicketStatus.ANNULE);
+    
+        ticketStatistics.reconcile();
+        TicketStatsDTO stats = ticketService.statistics();
+    
+        assertEquals(4, stats.getTotal());
+        assertEquals(3, stats.getByStatus().get(TicketStatus.EN_COURS));
+        assertEquals(1, stats.getUnassigned().get(TicketStatus.ANNULE));
+        users.values().forEach(user ->
+            assertEquals(1, stats.getByAssignee().get(user.getId()).get(TicketStatus.EN_COURS)));
+    }
+    
+    @Test
+    void deleteUser_RemovesUserAndTicketsFromEveryShard() {
+        UserDTO user = users.get(2);
+        create(user.getId(), TicketStatus.EN_COURS);
+    
+        userService.delete(user.getId());
+    
+        for (JdbcTemplate shard : jdbc) {
+            assertEquals(0, shard.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, user.getId()));
+            assertEquals(0, shard.queryForObject(
+                "SELECT COUNT(*) FROM tickets WHERE user_id = ?", Integer.class, user.getId()));
+        }
+    }
+    
+    @Test
+    void archive_MovesTicketsWithinTheirShard() {
+        Map<Integer, Long> closed = new HashMap<>();
+        users.forEach((shard, user) -> closed.put(shard, create(user.getId(), TicketStatus.TERMINE).getId()));
+        jdbc.forEach(shard -> shard.update(
+            "UPDATE tickets SET updated_at = DATEADD('DAY', -365, CURRENT_TIMESTAMP)"));
+    
+        ticketArchiver.archive();
+    
+        closed.forEach((shard, id) -> {
+            assertEquals(List.of(), shardsHolding(id));
+            assertEquals(1, jdbc.get(shard).queryForObject(
+                "SELECT COUNT(*) FROM archived_tickets WHERE id = ?", Integer.class, id));
+            assertNotNull(ticketService.findById(id).orElseThrow().getArchivedAt());
+        });
+        UserDTO user = users.get(1);
+        assertEquals(1, ticketService.findPage(null, user.getId(), true, null, 10).getSize());
+        assertEquals(3, ticketService.findPage(null, null, true, null, 10).getSize());
+    
+        userService.delete(user.getId());
+        assertEquals(0, jdbc.get(1).queryForObject("SELECT COUNT(*) FROM archived_tickets", Integer.class));
+    }
+    
+    @Test
+    void exportAll_MergesShardsInIdOrder() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            for (UserDTO user : users.values()) {
+                created.add(create(user.getId(), TicketStatus.EN_COURS).getId());
+            }
+            created.add(create(null, TicketStatus.EN_COURS).getId());
+        }
+    
+        List<Long> exported = new ArrayList<>();
+        long count = ticketService.exportAll(ticket -> exported.add(ticket.getId()));
+    
+        assertEquals(created.size(), count);
+        assertEquals(created.stream().sorted().toList(), exported);
+    }
+    
+    private TicketDTO create(Long assignedUserId, TicketStatus status) {
+        return ticketService.create(TicketDTO.builder()
+            .title("Ticket").description("Description").status(status).assignedUserId(assignedUserId).build());
+    }
+    
+    private List<Integer> shardsHolding(Long ticketId) {
+        List<Integer> holding = new ArrayList<>();
+        for (int shard = 0; shard < jdbc.size(); shard++) {
+            if (jdbc.get(shard).queryForObject("SELECT COUNT(*) FROM tickets WHERE id = ?", Integer.class, ticketId) > 0) {
+                holding.add(shard);
+            }
+        }
+        return holding;
+    }
+    
+    private static List<Long> ids(List<TicketDTO> tickets) {
+        return tickets.stream().map(TicketDTO::getId).toList();
+    }
+}
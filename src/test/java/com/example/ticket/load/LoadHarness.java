@@ -0,0 +1,134 @@
+package com.example.ticket.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Injecteur en boucle fermée : chaque worker envoie une requête, attend la réponse, puis tire le scénario
+// suivant selon les poids. Les latences sont enregistrées par scénario dans un histogramme HdrHistogram.
+// En boucle fermée, un ralentissement du serveur réduit aussi la charge : comparer le débit avec les percentiles.
+final class LoadHarness {
+    
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    
+    // request renvoie null quand le scénario ne peut pas s'exécuter (ex. plus de ticket à supprimer)
+    record Scenario(String name, int weight, Function<Random, HttpRequest> request,
+                    Set<Integer> expectedStatuses, Consumer<HttpResponse<byte[]>> onResponse) {
+        
+        Scenario(String name, int weight, Function<Random, HttpRequest> request, Set<Integer> expectedStatuses) {
+            this(name, weight, request, expectedStatuses, response -> { });
+        }
+    }
+    
+    record Result(String name, long count, long unexpected, double throughput,
+                  double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+    
+    private final HttpClient client;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final long seed;
+    
+    LoadHarness(HttpClient client, int concurrency, Duration warmup, Duration duration, long seed) {
+        this.client = client;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.seed = seed;
+    }
+    
+    List<Result> run(List<Scenario> scenarios) throws Exception {
+        Map<String, ConcurrentHistogram> histograms = new LinkedHashMap<>();
+        Map<String, LongAdder> unexpected = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios) {
+            histograms.put(scenario.name(), new ConcurrentHistogram(MAX_LATENCY_NANOS, 3));
+            unexpected.put(scenario.name(), new LongAdder());
+        }
+        int totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+        
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int worker = 0; worker < concurrency; worker++) {
+                // Graine par worker : la suite de scénarios tirés est reproductible d'un run à l'autre
+                Random random = new Random(seed + worker);
+                futures.add(workers.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        Scenario scenario = pick(scenarios, totalWeight, random);
+                        HttpRequest request = scenario.request().apply(random);
+                        if (request == null) {
+                            continue;
+                        }
+                        long sentAt = System.nanoTime();
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        long latency = System.nanoTime() - sentAt;
+                        if (sentAt >= measureFrom) {
+                            histograms.get(scenario.name()).recordValue(Math.min(latency, MAX_LATENCY_NANOS));
+                            if (!scenario.expectedStatuses().contains(response.statusCode())) {
+                                unexpected.get(scenario.name()).increment();
+                            }
+                        }
+                        scenario.onResponse().accept(response);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        
+        double seconds = duration.toNanos() / 1e9;
+        List<Result> results = new ArrayList<>();
+        histograms.forEach((name, histogram) -> results.add(toResult(name, histogram,
+            unexpected.get(name).sum(), seconds)));
+        return results;
+    }
+    
+    private static Scenario pick(List<Scenario> scenarios, int totalWeight, Random random) {
+        int target = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            target -= scenario.weight();
+            if (target < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+    
+    private static Result toResult(String name, Histogram histogram, long unexpected, double seconds) {
+        long count = histogram.getTotalCount();
+        return new Result(name, count, unexpected, count / seconds,
+            millis(histogram.getValueAtPercentile(50)),
+            millis(histogram.getValueAtPercentile(99)),
+            millis(histogram.getValueAtPercentile(99.9)),
+            millis(histogram.getMaxValue()));
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.ticket.load;
+
+import com.example.ticket.dto.AuthRequestDTO;
+import com.example.ticket.dto.TicketChangesDTO;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TokenResponseDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.service.TicketService;
+import com.example.ticket.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test de charge HTTP : démarre l'application sur un port aléatoire avec une base H2 peuplée,
+ * puis rejoue un mélange pondéré d'appels (admin et utilisateur) sur les endpoints tickets et utilisateurs.
+ * Exclu du build par défaut ; lancer avec {@code mvn -B test -Pload-test}.
+ * Réglages : -Dload.concurrency, -Dload.warmup, -Dload.duration (secondes), -Dload.tickets, -Dload.seed.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.org.springframework=WARN",
+    "logging.level.org.springframework.security=WARN",
+    "logging.level.org.springframework.web=WARN",
+    "logging.level.org.springdoc=WARN",
+    "logging.level.io.swagger=WARN",
+    "logging.level.com.example.ticket=WARN",
+    // Le rapport de ce test reste affiché
+    "logging.level.com.example.ticket.load=INFO",
+    "logging.level.org.hibernate=WARN"
+})
+@Slf4j
+class TicketApiLoadTest {
+    
+    private static final Path RESULTS = Path.of("target", "load-test", "results.json");
+    private static final int SEED_USERS = 20;
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentLinkedDeque<Long> createdTickets = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Long> createdUsers = new ConcurrentLinkedDeque<>();
+    
+    private String adminToken;
+    private String userToken;
+    private List<Long> seedTicketIds;
+    private List<Long> ownTicketIds;
+    private List<Long> userIds;
+    private String watermark;
+    
+    @Test
+    void endpointMix() throws Exception {
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 5));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 20));
+        int tickets = Integer.getInteger("load.tickets", 2_000);
+        long seed = Long.getLong("load.seed", 42);
+        
+        seed(tickets, new Random(seed));
+        adminToken = token("admin", "admin123");
+        userToken = token("user1", "user123");
+        
+        LoadHarness harness = new LoadHarness(client, concurrency, warmup, duration, seed);
+        List<LoadHarness.Result> results = harness.run(scenarios());
+        
+        log.info("Test de charge :\n{}", report(results, concurrency, duration));
+        Files.createDirectories(RESULTS.getParent());
+        Files.writeString(RESULTS, toJson(results, concurrency, warmup, duration, tickets, seed));
+        
+        assertThat(results).allSatisfy(result -> assertThat(result.unexpected())
+            .as("réponses inattendues pour %s", result.name()).isZero());
+    }
+    
+    private void seed(int tickets, Random random) {
+        userIds = new ArrayList<>();
+        // user1 correspond au compte en mémoire user1/user123 : ses tickets servent aux appels non admin
+        Long ownerId = userService.create(UserDTO.builder().username("user1").email("user1@load.test").build()).getId();
+        userIds.add(ownerId);
+        for (int i = 0; i < SEED_USERS; i++) {
+            userIds.add(userService.create(UserDTO.builder()
+                .username("seed" + i).email("seed" + i + "@load.test").build()).getId());
+        }
+        
+        List<TicketDTO> batch = new ArrayList<>();
+        for (int i = 0; i < tickets; i++) {
+            batch.add(TicketDTO.builder()
+                .title("Ticket " + i)
+                .description("Ticket de charge " + i)
+                .status(STATUSES[random.nextInt(STATUSES.length)])
+                .assignedUserId(userIds.get(random.nextInt(userIds.size())))
+                .build());
+        }
+        ticketService.createAll(batch);
+        
+        seedTicketIds = new ArrayList<>();
+        ownTicketIds = new ArrayList<>();
+        ticketService.exportAll(ticket -> {
+            seedTicketIds.add(ticket.getId());
+            if (ownerId.equals(ticket.getAssignedUserId())) {
+                ownTicketIds.add(ticket.getId());
+            }
+        });
+        TicketChangesDTO changes = ticketService.findChanges(null, TicketChangesDTO.MAX_SIZE);
+        watermark = changes.getWatermark();
+    }
+    
+    private List<LoadHarness.Scenario> scenarios() {
+        Set<Integer> ok = Set.of(200);
+        // Les écritures concurrentes peuvent supprimer un ticket ou en changer la version entre deux appels
+        Set<Integer> okOrGone = Set.of(200, 404);
+        Set<Integer> okOrConflict = Set.of(200, 404, 409);
+        
+        List<LoadHarness.Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new LoadHarness.Scenario("GET /api/tickets (admin)", 10,
+            random -> get("/api/tickets?size=50", adminToken), ok));
+        scenarios.add(new LoadHarness.Scenario("GET /api/tickets (user)", 10,
+            random -> get("/api/tickets?size=50", userToken), ok));
+        scenarios.add(new LoadHarness.Scenario("GET /api/tickets?status", 4,
+            random -> get("/api/tickets?size=50&status=" + STATUSES[random.nextInt(STATUSES.length)].name(), adminToken), ok));
+        scenarios.add(new LoadHarness.Scenario("GET /api/tickets/{id} (admin)", 15,
+            random -> get("/api/tickets/" + pick(seedTicketIds, random), adminToken), okOrGone));
+        scenarios.add(new LoadHarness.Scenario("GET /api/tickets/{id} (user)", 5,
+            random -> ownTicketIds.isEmpty() ? null : get("/api/tickets/" + pick(ownTicketIds, random), userToken),
+            Set.of(200, 403, 404)));
+        scenarios.add(new LoadHarness.Scenario("GET /api/tickets/changes", 3,
+            random -> get("/api/tickets/changes?since=" + watermark, adminToken), ok));
+        scenarios.add(new LoadHarness.Scenario("GET /api/tickets/export", 1,
+            random -> get("/api/tickets/export", adminToken), ok));
+        scenarios.add(new LoadHarness.Scenario("GET /api/tickets/stats", 2,
+            random -> get("/api/tickets/stats", adminToken), ok));
+        scenarios.add(new LoadHarness.Scenario("GET /api/tickets/cache/stats", 1,
+            random -> get("/api/tickets/cache/stats", adminToken), ok));
+        scenarios.add(new LoadHarness.Scenario("POST /api/tickets", 8,
+            random -> post("/api/tickets", adminToken, ticket(random)), Set.of(201),
+            response -> remember(response, createdTickets)));
+        scenarios.add(new LoadHarness.Scenario("PUT /api/tickets/{id}", 6,
+            random -> put("/api/tickets/" + pick(seedTicketIds, random), adminToken, ticket(random)), okOrConflict));
+        scenarios.add(new LoadHarness.Scenario("PUT /api/tickets/{id}/assign/{userId}", 3,
+            random -> put("/api/tickets/" + pick(seedTicketIds, random) + "/assign/" + pick(userIds, random),
+                adminToken, null), okOrGone));
+        scenarios.add(new LoadHarness.Scenario("POST /api/tickets/batch", 1,
+            random -> post("/api/tickets/batch", adminToken, tickets(random, 10)), Set.of(200, 207)));
+        scenarios.add(new LoadHarness.Scenario("PATCH /api/tickets/batch", 1,
+            random -> patch("/api/tickets/batch", adminToken, updates(random, 10)), Set.of(200, 207)));
+        scenarios.add(new LoadHarness.Scenario("POST /api/tickets/status-transitions", 1,
+            random -> post("/api/tickets/status-transitions", adminToken, transition(random, 10)), ok));
+        scenarios.add(new LoadHarness.Scenario("DELETE /api/tickets/{id}", 3,
+            random -> delete("/api/tickets/", createdTickets.pollFirst(), adminToken), Set.of(204)));
+        scenarios.add(new LoadHarness.Scenario("GET /api/users", 3,
+            random -> get("/api/users", adminToken), ok));
+        scenarios.add(new LoadHarness.Scenario("GET /api/users/{id}", 3,
+            random -> get("/api/users/" + pick(userIds, random), userToken), ok));
+        scenarios.add(new LoadHarness.Scenario("GET /api/users/{id}/tickets", 3,
+            random -> get("/api/users/" + pick(userIds, random) + "/tickets?size=50", adminToken), ok));
+        scenarios.add(new LoadHarness.Scenario("POST /api/users", 1,
+            random -> post("/api/users", null, user()), Set.of(201),
+            response -> remember(response, createdUsers)));
+        scenarios.add(new LoadHarness.Scenario("PUT /api/users/{id}", 1,
+            random -> update("/api/users/", createdUsers.peekLast(), adminToken, user()), okOrGone));
+        scenarios.add(new LoadHarness.Scenario("DELETE /api/users/{id}", 1,
+            random -> delete("/api/users/", createdUsers.pollFirst(), adminToken), Set.of(204)));
+        // Émission d'un jeton : dominée par la vérification BCrypt
+        scenarios.add(new LoadHarness.Scenario("POST /api/auth/token", 1,
+            random -> post("/api/auth/token", null, new AuthRequestDTO("user1", "user123")), ok));
+        return scenarios;
+    }
+    
+    private TicketDTO ticket(Random random) {
+        long n = sequence.incrementAndGet();
+        return TicketDTO.builder()
+            .title("Charge " + n)
+            .description("Créé pendant le test de charge " + n)
+            .status(STATUSES[random.nextInt(STATUSES.length)])
+            .assignedUserId(pick(userIds, random))
+            .build();
+    }
+    
+    private List<TicketDTO> tickets(Random random, int count) {
+        List<TicketDTO> tickets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tickets.add(ticket(random));
+        }
+        return tickets;
+    }
+    
+    private List<TicketDTO> updates(Random random, int count) {
+        List<TicketDTO> tickets = tickets(random, count);
+        tickets.forEach(ticket -> ticket.setId(pick(seedTicketIds, random)));
+        return tickets;
+    }
+    
+    private Map<String, Object> transition(Random random, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(pick(seedTicketIds, random));
+        }
+        return Map.of("ids", ids, "targetStatus", STATUSES[random.nextInt(STATUSES.length)]);
+    }
+    
+    private UserDTO user() {
+        long n = sequence.incrementAndGet();
+        return UserDTO.builder().username("charge" + n).email("charge" + n + "@load.test").build();
+    }
+    
+    private static Long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+    
+    private void remember(HttpResponse<byte[]> response, ConcurrentLinkedDeque<Long> ids) {
+        if (response.statusCode() != 201) {
+            return;
+        }
+        try {
+            ids.addLast(objectMapper.readTree(response.body()).get("id").asLong());
+        } catch (IOException e) {
+            throw new IllegalStateException("Réponse de création illisible", e);
+        }
+    }
+    
+    private String token(String username, String password) throws Exception {
+        HttpResponse<byte[]> response = client.send(post("/api/auth/token", null,
+            new AuthRequestDTO(username, password)), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readValue(response.body(), TokenResponseDTO.class).getAccessToken();
+    }
+    
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+    
+    private HttpRequest post(String path, String token, Object body) {
+        return request(path, token).POST(json(body)).build();
+    }
+    
+    private HttpRequest put(String path, String token, Object body) {
+        return request(path, token).PUT(body == null ? HttpRequest.BodyPublishers.noBody() : json(body)).build();
+    }
+    
+    private HttpRequest patch(String path, String token, Object body) {
+        return request(path, token).method("PATCH", json(body)).build();
+    }
+    
+    private HttpRequest update(String path, Long id, String token, Object body) {
+        return id == null ? null : put(path + id, token, body);
+    }
+    
+    private HttpRequest delete(String path, Long id, String token) {
+        return id == null ? null : request(path + id, token).DELETE().build();
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json");
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+    
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String report(List<LoadHarness.Result> results, int concurrency, Duration duration) {
+        StringBuilder report = new StringBuilder(String.format("%nTest de charge : %d workers, %d s mesurées%n",
+            concurrency, duration.toSeconds()));
+        report.append(String.format("%-42s %8s %6s %9s %9s %9s %9s %9s%n",
+            "Endpoint", "Requêtes", "Err.", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        long total = 0;
+        for (LoadHarness.Result result : results) {
+            total += result.count();
+            report.append(String.format("%-42s %8d %6d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                result.name(), result.count(), result.unexpected(), result.throughput(),
+                result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis()));
+        }
+        report.append(String.format("Total : %d requêtes, %.1f req/s%n", total, total / (double) duration.toSeconds()));
+        return report.toString();
+    }
+    
+    private String toJson(List<LoadHarness.Result> results, int concurrency, Duration warmup,
+                          Duration duration, int tickets, long seed) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("timestamp", Instant.now().toString());
+        root.put("concurrency", concurrency);
+        root.put("warmupSeconds", warmup.toSeconds());
+        root.put("durationSeconds", duration.toSeconds());
+        root.put("seedTickets", tickets);
+        root.put("seed", seed);
+        Map<String, JsonNode> endpoints = new LinkedHashMap<>();
+        for (LoadHarness.Result result : results) {
+            endpoints.put(result.name(), objectMapper.valueToTree(result));
+        }
+        root.set("endpoints", objectMapper.valueToTree(endpoints));
+        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+    }
+}
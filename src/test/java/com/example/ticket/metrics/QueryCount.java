@@ -0,0 +1,18 @@
+package com.example.ticket.metrics;
+
+import lombok.Builder;
+
+// Allers-retours JDBC par type d'instruction (un lot JDBC compte pour un)
+@Builder
+public record QueryCount(int select, int insert, int update, int delete, int other) {
+    
+    public int total() {
+        return select + insert + update + delete + other;
+    }
+    
+    @Override
+    public String toString() {
+        return "select=" + select + ", insert=" + insert + ", update=" + update + ", delete=" + delete
+            + ", other=" + other;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ticket.metrics;
+
+import net.ttddyy.dsproxy.listener.ChainListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+
+/**
+ * Fournit un {@link QueryCounter} branché sur la DataSource (enveloppée par datasource-proxy) du contexte
+ * Spring du test. À déclarer après SpringExtension, implicite avec {@code @SpringBootTest} :
+ * <pre>
+ * &#64;SpringBootTest
+ * &#64;ExtendWith(QueryCountExtension.class)
+ * class ... {
+ *     &#64;Test
+ *     void test(QueryCounter queries) throws Throwable {
+ *         assertEquals(QueryCount.builder().select(1).build(), queries.count(() -> ...));
+ *     }
+ * }
+ * </pre>
+ */
+public class QueryCountExtension implements ParameterResolver {
+    
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == QueryCounter.class;
+    }
+    
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        ApplicationContext applicationContext = SpringExtension.getApplicationContext(extensionContext);
+        DataSource dataSource = applicationContext.getBean(DataSource.class);
+        if (!(dataSource instanceof ProxyDataSource proxy)) {
+            throw new IllegalStateException("La DataSource n'est pas enveloppée par datasource-proxy");
+        }
+        // Un compteur par DataSource : le contexte Spring est partagé entre les classes de test
+        return extensionContext.getRoot().getStore(ExtensionContext.Namespace.create(QueryCountExtension.class))
+            .getOrComputeIfAbsent(proxy, key -> {
+                QueryCounter counter = new QueryCounter();
+                ((ChainListener) proxy.getProxyConfig().getQueryListener()).addListener(counter);
+                return counter;
+            }, QueryCounter.class);
+    }
+}
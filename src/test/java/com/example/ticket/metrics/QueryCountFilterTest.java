@@ -0,0 +1,79 @@
+package com.example.ticket.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCountFilterTest {
+    
+    private static final String SELECT_USER = "select u.id from users u where u.id=?";
+    private static final String SELECT_TICKETS = "select t.id from tickets t where t.user_id=?";
+    
+    private SimpleMeterRegistry registry;
+    private QueryCountFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new QueryCountFilter(registry, 3);
+    }
+    
+    @Test
+    void testDoFilter_RecordsQueriesOfTheRequestOnly() throws Exception {
+        // Hors requête HTTP : non relevé
+        RequestStatements.record(SELECT_USER);
+        
+        execute("/api/tickets/{id}", SELECT_TICKETS, SELECT_USER, SELECT_USER);
+        
+        DistributionSummary summary = registry.get(QueryCountFilter.METRIC)
+            .tags("method", "GET", "uri", "/api/tickets/{id}", "status", "200")
+            .summary();
+        assertEquals(1, summary.count());
+        assertEquals(3, summary.totalAmount());
+        assertNull(registry.find(QueryCountFilter.REPEATED_METRIC).counter());
+    }
+    
+    @Test
+    void testDoFilter_FlagsStatementRepeatedAboveThreshold() throws Exception {
+        execute("/api/users/{id}/tickets", SELECT_TICKETS, SELECT_USER, SELECT_USER, SELECT_USER, SELECT_USER);
+        
+        assertEquals(1, registry.get(QueryCountFilter.REPEATED_METRIC)
+            .tags("method", "GET", "uri", "/api/users/{id}/tickets").counter().count());
+        assertEquals(5, registry.get(QueryCountFilter.METRIC).summary().totalAmount());
+    }
+    
+    @Test
+    void testDoFilter_UnmappedRequestIsTaggedUnknown() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(401);
+        
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tickets"), response, new MockFilterChain());
+        
+        assertEquals(0, registry.get(QueryCountFilter.METRIC).tags("uri", "UNKNOWN", "status", "401")
+            .summary().totalAmount());
+    }
+    
+    private void execute(String pattern, String... statements) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(),
+            new MockFilterChain(new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                    for (String statement : statements) {
+                        RequestStatements.record(statement);
+                    }
+                    req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+                    resp.setStatus(200);
+                }
+            }));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ticket.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+// Compte les exécutions JDBC d'un bloc de code, par type ; voir QueryCountExtension.
+// Les lectures de séquence sont ignorées : Hibernate réserve 50 identifiants à la fois, leur place
+// dans une mesure dépend de l'ordre des tests.
+public final class QueryCounter implements QueryExecutionListener {
+    
+    private static final Pattern SEQUENCE = Pattern.compile("(?i)next value for|nextval\\(");
+    
+    private final ThreadLocal<Counts> threadCounts = new ThreadLocal<>();
+    private volatile Counts allThreadCounts;
+    
+    // Exécutions du thread courant uniquement : les tâches planifiées en parallèle ne sont pas comptées
+    public QueryCount count(Executable block) throws Throwable {
+        Counts counts = new Counts();
+        threadCounts.set(counts);
+        try {
+            block.execute();
+        } finally {
+            threadCounts.remove();
+        }
+        return counts.snapshot();
+    }
+    
+    // Exécutions de tous les threads, pour les réponses écrites hors du thread de la requête (flux)
+    public QueryCount countAllThreads(Executable block) throws Throwable {
+        Counts counts = new Counts();
+        allThreadCounts = counts;
+        try {
+            block.execute();
+        } finally {
+            allThreadCounts = null;
+        }
+        return counts.snapshot();
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        String sql = queryInfoList.get(0).getQuery();
+        if (SEQUENCE.matcher(sql).find()) {
+            return;
+        }
+        String operation = SqlStatementListener.operation(SqlStatementListener.shape(sql));
+        Counts counts = threadCounts.get();
+        if (counts != null) {
+            counts.add(operation);
+        }
+        Counts all = allThreadCounts;
+        if (all != null) {
+            all.add(operation);
+        }
+    }
+    
+    private static final class Counts {
+        
+        private final AtomicInteger select = new AtomicInteger();
+        private final AtomicInteger insert = new AtomicInteger();
+        private final AtomicInteger update = new AtomicInteger();
+        private final AtomicInteger delete = new AtomicInteger();
+        private final AtomicInteger other = new AtomicInteger();
+        
+        void add(String operation) {
+            switch (operation) {
+                case "select" -> select.incrementAndGet();
+                case "insert" -> insert.incrementAndGet();
+                case "update" -> update.incrementAndGet();
+                case "delete" -> delete.incrementAndGet();
+                default -> other.incrementAndGet();
+            }
+        }
+        
+        QueryCount snapshot() {
+            return new QueryCount(select.get(), insert.get(), update.get(), delete.get(), other.get());
+        }
+    }
+}
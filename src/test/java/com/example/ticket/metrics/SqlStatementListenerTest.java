@@ -0,0 +1,74 @@
+package com.example.ticket.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SqlStatementListenerTest {
+    
+    @Test
+    void testShape_CollapsesWhitespaceAndInLists() {
+        assertEquals("select t.id from tickets t where t.id in (?, ...) and t.status=?",
+            SqlStatementListener.shape("select t.id\n    from tickets t\n    where t.id in (?, ?,?) and t.status=?"));
+        assertEquals("select t.id from tickets t where t.id in (?, ...)",
+            SqlStatementListener.shape("select t.id from tickets t where t.id in (?,?,?,?,?)"));
+    }
+    
+    @Test
+    void testOperation_FromLeadingKeyword() {
+        assertEquals("select", SqlStatementListener.operation("select 1"));
+        assertEquals("update", SqlStatementListener.operation("UPDATE tickets set status=?"));
+        assertEquals("other", SqlStatementListener.operation("alter sequence tickets_seq restart with 1"));
+    }
+    
+    @Test
+    void testParameterShape_ListsTypesWithoutValues() throws Exception {
+        Method setObject = PreparedStatement.class.getMethod("setObject", int.class, Object.class);
+        Method setNull = PreparedStatement.class.getMethod("setNull", int.class, int.class);
+        QueryInfo query = new QueryInfo("select 1 where ?=? and ? in (?, ?, ?) and ?=?");
+        query.getParametersList().add(List.of(
+            new ParameterSetOperation(setObject, new Object[] {2, "secret"}),
+            new ParameterSetOperation(setObject, new Object[] {1, 42L}),
+            new ParameterSetOperation(setObject, new Object[] {3, 1L}),
+            new ParameterSetOperation(setObject, new Object[] {4, 2L}),
+            new ParameterSetOperation(setObject, new Object[] {5, 3L}),
+            new ParameterSetOperation(setNull, new Object[] {6, 4})));
+        
+        assertEquals("[Long, String, Long x3, null]", SqlStatementListener.parameterShape(query));
+    }
+    
+    @Test
+    void testAfterQuery_RecordsTimerAndSlowStatements() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlStatementListener fast = new SqlStatementListener(provider(registry), Duration.ofMinutes(1));
+        SqlStatementListener slow = new SqlStatementListener(provider(registry), Duration.ZERO);
+        List<QueryInfo> queries = List.of(new QueryInfo("select t.id from tickets t"));
+        
+        for (SqlStatementListener listener : List.of(fast, slow)) {
+            listener.beforeQuery(new ExecutionInfo(), queries);
+            listener.afterQuery(new ExecutionInfo(), queries);
+        }
+        
+        assertEquals(2, registry.get(SqlStatementListener.TIMER).tag("operation", "select").timer().count());
+        assertEquals(1, registry.get(SqlStatementListener.SLOW).tag("operation", "select").counter().count());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MeterRegistry> provider(MeterRegistry registry) {
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(registry);
+        return provider;
+    }
+}
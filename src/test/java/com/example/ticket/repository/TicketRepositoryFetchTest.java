@@ -0,0 +1,103 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.dto.mapper.TicketMapper;
+import com.example.ticket.metrics.QueryCount;
+import com.example.ticket.metrics.QueryCountExtension;
+import com.example.ticket.metrics.QueryCounter;
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.service.TicketService;
+import com.example.ticket.service.UserService;
+import com.example.ticket.service.dataset.DatasetGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Assignés chargés dans la requête des tickets ; sans session ouverte (OSIV désactivé), le mapping
+// des entités rendues par le repository ne déclenche aucun chargement paresseux
+@SpringBootTest(properties = "ticket.outbox.poll-interval=1h")
+@ExtendWith(QueryCountExtension.class)
+class TicketRepositoryFetchTest {
+    
+    private static final QueryCount ONE_SELECT = QueryCount.builder().select(1).build();
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private TicketMapper ticketMapper;
+    
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private Environment environment;
+    
+    private Long ticketId;
+    
+    @BeforeEach
+    void setUp() {
+        datasetGenerator.clear();
+        for (int i = 1; i <= 3; i++) {
+            UserDTO user = userService.create(UserDTO.builder()
+                .username("assigne" + i).email("assigne" + i + "@test.com").build());
+            for (int j = 0; j < 2; j++) {
+                ticketId = ticketService.create(TicketDTO.builder().title("Ticket").description("Description")
+                    .status(TicketStatus.EN_COURS).assignedUserId(user.getId()).build()).getId();
+            }
+        }
+        // Sans cache de second niveau ni cache de tickets, un assigné paresseux coûterait un SELECT par ticket
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+    
+    @Test
+    void listings_LoadAssigneesInTheSameStatement(QueryCounter queries) throws Throwable {
+        assertEquals(ONE_SELECT, queries.count(() ->
+            assertAssigned(ticketService.findPage(null, null, null, 50).getContent(), 6)));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        assertEquals(ONE_SELECT, queries.count(() -> assertAssigned(ticketService.findAll(), 6)));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        assertEquals(ONE_SELECT, queries.count(() ->
+            assertAssigned(ticketService.findByStatus(TicketStatus.EN_COURS), 6)));
+        assertEquals(ONE_SELECT, queries.count(() ->
+            assertAssigned(ticketService.findByAssignedUser("assigne2"), 2)));
+    }
+    
+    @Test
+    void mapping_WorksOutsideTheSessionWithOpenInViewDisabled() {
+        assertEquals(Boolean.FALSE, environment.getProperty("spring.jpa.open-in-view", Boolean.class));
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+    
+        // Entités détachées dès le retour du repository : l'assigné doit déjà être chargé
+        Ticket ticket = ticketRepository.findById(ticketId).orElseThrow();
+        assertNotNull(ticketMapper.toDTO(ticket).getAssignedUsername());
+        List<Ticket> page = ticketRepository.findPage(TicketFilter.builder().build(), null, null, 10);
+        assertAssigned(page.stream().map(ticketMapper::toDTO).toList(), 6);
+    }
+    
+    private static void assertAssigned(List<TicketDTO> tickets, int expected) {
+        assertEquals(expected, tickets.size());
+        tickets.forEach(ticket -> assertNotNull(ticket.getAssignedUsername()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ticket.repository;
+
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.metrics.QueryCount;
+import com.example.ticket.metrics.QueryCountExtension;
+import com.example.ticket.metrics.QueryCounter;
+import com.example.ticket.model.entity.User;
+import com.example.ticket.service.UserService;
+import com.example.ticket.service.dataset.DatasetGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Cache de second niveau sur User : lectures sans requête en régime établi, à jour après renommage et suppression
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "ticket.outbox.poll-interval=1h"
+})
+@ExtendWith(QueryCountExtension.class)
+class UserRepositoryCacheTest {
+    
+    private static final QueryCount NONE = QueryCount.builder().build();
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+    
+    private UserDTO user;
+    
+    @BeforeEach
+    void setUp() {
+        datasetGenerator.clear();
+        user = userService.create(UserDTO.builder().username("user1").email("user1@test.com").build());
+    }
+    
+    @Test
+    void findById_ServedFromCache(QueryCounter queries) throws Throwable {
+        assertEquals(NONE, queries.count(() -> assertTrue(userRepository.findById(user.getId()).isPresent())));
+    }
+    
+    @Test
+    void findByUsername_ServedFromNaturalIdCache(QueryCounter queries) throws Throwable {
+        // La première résolution alimente la région username -> id (l'insertion ne le fait pas)
+        userRepository.findByUsername("user1");
+        
+        assertEquals(NONE, queries.count(() ->
+            assertEquals(user.getId(), userRepository.findByUsername("user1").map(User::getId).orElse(null))));
+    }
+    
+    @Test
+    void findByUsername_UnknownUserHitsDatabase(QueryCounter queries) throws Throwable {
+        assertEquals(QueryCount.builder().select(1).build(), queries.count(() ->
+            assertTrue(userRepository.findByUsername("inconnu").isEmpty())));
+    }
+    
+    @Test
+    void update_RenameReplacesNaturalIdEntry(QueryCounter queries) throws Throwable {
+        userService.update(user.getId(), UserDTO.builder().username("renamed").build());
+        
+        assertEquals(NONE, queries.count(() -> {
+            Optional<User> renamed = userRepository.findByUsername("renamed");
+            assertTrue(renamed.isPresent());
+            assertEquals("renamed", renamed.get().getUsername());
+            assertEquals(1L, renamed.get().getVersion());
+        }));
+        assertTrue(userRepository.findByUsername("user1").isEmpty());
+    }
+    
+    @Test
+    void delete_EvictsEntityAndNaturalId() {
+        userService.delete(user.getId());
+        
+        assertTrue(userRepository.findById(user.getId()).isEmpty());
+        assertTrue(userRepository.findByUsername("user1").isEmpty());
+    }
+    
+    @Test
+    void clear_EvictsRowsDeletedOutsideHibernate() {
+        datasetGenerator.clear();
+        
+        assertTrue(userRepository.findById(user.getId()).isEmpty());
+        assertTrue(userRepository.findByUsername("user1").isEmpty());
+    }
+}
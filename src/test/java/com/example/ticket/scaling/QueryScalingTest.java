@@ -0,0 +1,345 @@
+package com.example.ticket.scaling;
+
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.repository.TicketRepository;
+import com.example.ticket.repository.UserRepository;
+import com.example.ticket.service.TicketService;
+import com.example.ticket.service.UserService;
+import com.example.ticket.service.cache.TicketCache;
+import com.example.ticket.service.dataset.DatasetGenerator;
+import com.example.ticket.service.dataset.DatasetSpec;
+import com.example.ticket.service.stats.TicketStatistics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Évolution du temps de chaque requête des dépôts et méthode de service avec le volume de tickets
+ * (jeux générés par {@link DatasetGenerator}), plans d'exécution H2 à l'appui.
+ * Exclu du build par défaut ; lancer avec {@code mvn -B test -Pscaling-test}.
+ * Réglages : -Dscaling.sizes (ex. 10000,100000,1000000,10000000), -Dscaling.warmup, -Dscaling.iterations,
+ * -Dscaling.unbounded-max (au-delà, les appels qui chargent toute la table sont ignorés),
+ * -Dscaling.fail-on-linear=true pour échouer si un appel censé être constant croît avec la table.
+ */
+@Tag("scaling")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.ticket=WARN",
+    // Le rapport de ce test reste affiché
+    "logging.level.com.example.ticket.scaling=INFO",
+    "logging.level.org.springframework=WARN",
+    "logging.level.org.springframework.security=WARN",
+    "logging.level.org.springframework.web=WARN",
+    "ticket.stats.reconcile-interval=1d",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.ticket.scaling.SqlCapture"
+})
+@Slf4j
+class QueryScalingTest {
+    
+    private static final Path OUTPUT = Path.of("target", "scaling");
+    // Exposant de croissance au-delà duquel un appel est signalé comme O(n) : t ~ n^exposant
+    private static final double LINEAR_THRESHOLD = 0.5;
+    private static final int PAGE_SIZE = 50;
+    
+    enum Growth { CONSTANT, LINEAR }
+    
+    // unbounded : l'appel charge un nombre de lignes proportionnel à la table
+    record Probe(String name, Growth expected, boolean unbounded, Runnable call) {
+    }
+    
+    @Autowired
+    private DatasetGenerator generator;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private TicketCache ticketCache;
+    
+    @Autowired
+    private TicketStatistics statistics;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private long ticketId;
+    private long hotUserId;
+    
+    @Test
+    void queriesScaleWithDataSize() throws Exception {
+        long[] sizes = Arrays.stream(System.getProperty("scaling.sizes", "10000,100000,1000000").split(","))
+            .map(String::trim).mapToLong(Long::parseLong).sorted().toArray();
+        int warmup = Integer.getInteger("scaling.warmup", 5);
+        int iterations = Integer.getInteger("scaling.iterations", 5);
+        long unboundedMax = Long.getLong("scaling.unbounded-max", 1_000_000);
+        boolean failOnLinear = Boolean.getBoolean("scaling.fail-on-linear");
+        
+        List<Probe> probes = probes();
+        Map<String, double[]> timings = new LinkedHashMap<>();
+        Map<String, Boolean> tableScans = new LinkedHashMap<>();
+        probes.forEach(probe -> timings.put(probe.name(), new double[sizes.length]));
+        
+        for (int s = 0; s < sizes.length; s++) {
+            load(sizes[s]);
+            for (Probe probe : probes) {
+                if (probe.unbounded() && sizes[s] > unboundedMax) {
+                    timings.get(probe.name())[s] = Double.NaN;
+                    continue;
+                }
+                boolean scan = capturePlans(probe, sizes[s]);
+                tableScans.merge(probe.name(), scan, Boolean::logicalOr);
+                timings.get(probe.name())[s] = medianMillis(probe, warmup, iterations);
+            }
+        }
+        
+        List<String> linear = new ArrayList<>();
+        ArrayNode results = objectMapper.createArrayNode();
+        StringBuilder report = new StringBuilder(String.format("%n%-48s", "Appel (ms, médiane)"));
+        for (long size : sizes) {
+            report.append(String.format(" %12s", "n=" + size));
+        }
+        report.append(String.format(" %9s  %s%n", "exposant", "attendu"));
+        for (Probe probe : probes) {
+            double[] times = timings.get(probe.name());
+            double exponent = exponent(sizes, times);
+            boolean grows = exponent > LINEAR_THRESHOLD;
+            if (grows && probe.expected() == Growth.CONSTANT) {
+                linear.add(probe.name());
+            }
+            report.append(String.format("%-48s", probe.name()));
+            for (double time : times) {
+                report.append(Double.isNaN(time) ? String.format(" %12s", "-") : String.format(" %12.3f", time));
+            }
+            report.append(String.format(" %9.2f  %s%s%s%n", exponent, probe.expected(),
+                grows ? "  O(n)" : "", Boolean.TRUE.equals(tableScans.get(probe.name())) ? "  tableScan" : ""));
+            
+            ObjectNode result = results.addObject();
+            result.put("name", probe.name());
+            result.put("expected", probe.expected().name());
+            result.put("exponent", exponent);
+            result.put("tableScan", Boolean.TRUE.equals(tableScans.get(probe.name())));
+            ObjectNode millis = result.putObject("millis");
+            for (int s = 0; s < sizes.length; s++) {
+                if (!Double.isNaN(times[s])) {
+                    millis.put(String.valueOf(sizes[s]), times[s]);
+                }
+            }
+        }
+        log.info("Volumétrie des requêtes :\n{}", report);
+        Files.createDirectories(OUTPUT);
+        Files.writeString(OUTPUT.resolve("results.json"),
+            objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(results));
+        
+        if (failOnLinear) {
+            assertThat(linear).as("appels censés être constants qui croissent avec la table").isEmpty();
+        }
+    }
+    
+    private void load(long size) {
+        generator.clear();
+        generator.load(DatasetSpec.of(size));
+        statistics.reconcile();
+        ticketCache.evictIf(ticket -> true);
+        jdbcTemplate.execute("ANALYZE");
+        ticketId = size / 2;
+        // user1 est l'assigné le plus chargé (rang 1 de la loi de Zipf)
+        hotUserId = userRepository.findByUsername("user1").orElseThrow().getId();
+    }
+    
+    // Plans H2 (EXPLAIN) des requêtes SQL émises par un appel ; vrai si l'une parcourt toute une table
+    private boolean capturePlans(Probe probe, long size) throws Exception {
+        SqlCapture.start();
+        Set<String> statements;
+        try {
+            run(probe);
+        } finally {
+            statements = SqlCapture.stop();
+        }
+        StringBuilder plans = new StringBuilder();
+        boolean scan = false;
+        for (String sql : statements) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+            scan |= plan.contains("tableScan");
+            plans.append("-- ").append(sql).append("\n").append(plan).append("\n\n");
+        }
+        Path file = OUTPUT.resolve("plans").resolve(String.valueOf(size))
+            .resolve(probe.name().replaceAll("[^A-Za-z0-9]+", "_") + ".sql");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, plans);
+        return scan;
+    }
+    
+    private double medianMillis(Probe probe, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            run(probe);
+        }
+        double[] samples = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            run(probe);
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[iterations / 2];
+    }
+    
+    private void run(Probe probe) {
+        // Le cache des tickets masquerait le coût de la requête
+        ticketCache.evictIf(ticket -> true);
+        probe.call().run();
+    }
+    
+    // Pente log-log entre les deux plus grands volumes mesurés : ~0 constant, ~1 linéaire
+    private static double exponent(long[] sizes, double[] times) {
+        int last = -1;
+        int previous = -1;
+        for (int s = 0; s < sizes.length; s++) {
+            if (!Double.isNaN(times[s])) {
+                previous = last;
+                last = s;
+            }
+        }
+        if (previous < 0) {
+            return Double.NaN;
+        }
+        return Math.log(Math.max(times[last], 1e-3) / Math.max(times[previous], 1e-3))
+            / Math.log((double) sizes[last] / sizes[previous]);
+    }
+    
+    private List<Probe> probes() {
+        TicketFilter all = TicketFilter.all();
+        TicketFilter open = TicketFilter.builder().status(TicketStatus.EN_COURS).build();
+        LocalDateTime now = LocalDateTime.now();
+        List<Probe> probes = new ArrayList<>();
+        
+        // Dépôts
+        probes.add(new Probe("TicketRepository.findById", Growth.CONSTANT, false,
+            () -> ticketRepository.findById(ticketId)));
+        probes.add(new Probe("TicketRepository.findVersionById", Growth.CONSTANT, false,
+            () -> ticketRepository.findVersionById(ticketId)));
+        probes.add(new Probe("TicketRepository.findPage", Growth.CONSTANT, false,
+            () -> ticketRepository.findPage(all, null, null, PAGE_SIZE + 1)));
+        probes.add(new Probe("TicketRepository.findPage(status)", Growth.CONSTANT, false,
+            () -> ticketRepository.findPage(open, null, null, PAGE_SIZE + 1)));
+        probes.add(new Probe("TicketRepository.findPage(assignee)", Growth.CONSTANT, false,
+            () -> ticketRepository.findPage(assignee(), null, null, PAGE_SIZE + 1)));
+        probes.add(new Probe("TicketRepository.findChanges", Growth.CONSTANT, false,
+            () -> ticketRepository.findChanges(all, null, null, now, 500)));
+        probes.add(new Probe("TicketRepository.listVersion", Growth.LINEAR, false,
+            () -> ticketRepository.listVersion(all)));
+        probes.add(new Probe("TicketRepository.listVersion(assignee)", Growth.LINEAR, false,
+            () -> ticketRepository.listVersion(assignee())));
+        probes.add(new Probe("TicketRepository.countByAssignedUserId", Growth.LINEAR, false,
+            () -> ticketRepository.countByAssignedUserId(hotUserId)));
+        probes.add(new Probe("TicketRepository.countByStatusAndAssignee", Growth.LINEAR, false,
+            ticketRepository::countByStatusAndAssignee));
+        probes.add(new Probe("TicketRepository.findIdsByAssignedUserId", Growth.LINEAR, true,
+            () -> ticketRepository.findIdsByAssignedUserId(hotUserId)));
+        probes.add(new Probe("TicketRepository.findByAssignedUserId", Growth.LINEAR, true,
+            () -> ticketRepository.findByAssignedUserId(hotUserId)));
+        probes.add(new Probe("TicketRepository.findByAssignedUsername", Growth.LINEAR, true,
+            () -> ticketRepository.findByAssignedUsername("user1")));
+        probes.add(new Probe("TicketRepository.findByStatus", Growth.LINEAR, true,
+            () -> ticketRepository.findByStatus(TicketStatus.EN_COURS)));
+        probes.add(new Probe("TicketRepository.findAll", Growth.LINEAR, true, ticketRepository::findAll));
+        probes.add(new Probe("TicketRepository.streamAll", Growth.LINEAR, true,
+            () -> transactionTemplate.execute(status -> {
+                try (var tickets = ticketRepository.streamAll()) {
+                    return tickets.count();
+                }
+            })));
+        probes.add(new Probe("UserRepository.findByUsername", Growth.CONSTANT, false,
+            () -> userRepository.findByUsername("user1")));
+        probes.add(new Probe("UserRepository.findByEmail", Growth.CONSTANT, false,
+            () -> userRepository.findByEmail("user1@dataset.local")));
+        probes.add(new Probe("UserRepository.existsByUsername", Growth.CONSTANT, false,
+            () -> userRepository.existsByUsername("user1")));
+        probes.add(new Probe("UserRepository.findVersionById", Growth.CONSTANT, false,
+            () -> userRepository.findVersionById(hotUserId)));
+        probes.add(new Probe("UserRepository.listVersion", Growth.LINEAR, false, userRepository::listVersion));
+        probes.add(new Probe("UserRepository.findAll", Growth.LINEAR, false, userRepository::findAll));
+        
+        // Services
+        probes.add(new Probe("TicketService.findById", Growth.CONSTANT, false,
+            () -> ticketService.findById(ticketId)));
+        probes.add(new Probe("TicketService.findVersion", Growth.CONSTANT, false,
+            () -> ticketService.findVersion(ticketId)));
+        probes.add(new Probe("TicketService.findPage", Growth.CONSTANT, false,
+            () -> ticketService.findPage(null, null, null, PAGE_SIZE)));
+        probes.add(new Probe("TicketService.findPage(status)", Growth.CONSTANT, false,
+            () -> ticketService.findPage(TicketStatus.EN_COURS, null, null, PAGE_SIZE)));
+        probes.add(new Probe("TicketService.findPageByAssignedUser", Growth.CONSTANT, false,
+            () -> ticketService.findPageByAssignedUser("user1", null, null, PAGE_SIZE)));
+        probes.add(new Probe("TicketService.findPageVersion", Growth.LINEAR, false,
+            () -> ticketService.findPageVersion(null, null)));
+        probes.add(new Probe("TicketService.findPageVersionByAssignedUser", Growth.LINEAR, false,
+            () -> ticketService.findPageVersionByAssignedUser("user1", null)));
+        probes.add(new Probe("TicketService.findChanges", Growth.CONSTANT, false,
+            () -> ticketService.findChanges(null, 500)));
+        probes.add(new Probe("TicketService.findChangesByAssignedUser", Growth.CONSTANT, false,
+            () -> ticketService.findChangesByAssignedUser("user1", null, 500)));
+        probes.add(new Probe("TicketService.statistics", Growth.CONSTANT, false, ticketService::statistics));
+        probes.add(new Probe("TicketService.findByAssignedUser", Growth.LINEAR, true,
+            () -> ticketService.findByAssignedUser("user1")));
+        probes.add(new Probe("TicketService.findByStatus", Growth.LINEAR, true,
+            () -> ticketService.findByStatus(TicketStatus.EN_COURS)));
+        probes.add(new Probe("TicketService.findAll", Growth.LINEAR, true, ticketService::findAll));
+        probes.add(new Probe("TicketService.exportAll", Growth.LINEAR, true, () -> {
+            AtomicLong count = new AtomicLong();
+            ticketService.exportAll(ticket -> count.incrementAndGet());
+        }));
+        probes.add(new Probe("UserService.findByUsername", Growth.CONSTANT, false,
+            () -> userService.findByUsername("user1")));
+        probes.add(new Probe("UserService.findVersion", Growth.CONSTANT, false,
+            () -> userService.findVersion(hotUserId)));
+        probes.add(new Probe("UserService.getUserTickets(page)", Growth.CONSTANT, false,
+            () -> userService.getUserTickets(hotUserId, null, PAGE_SIZE)));
+        probes.add(new Probe("UserService.getUserTicketsVersion", Growth.LINEAR, false,
+            () -> userService.getUserTicketsVersion(hotUserId)));
+        probes.add(new Probe("UserService.findAllVersion", Growth.LINEAR, false, userService::findAllVersion));
+        probes.add(new Probe("UserService.findAll", Growth.LINEAR, false, userService::findAll));
+        probes.add(new Probe("UserService.getUserTickets", Growth.LINEAR, true,
+            () -> userService.getUserTickets(hotUserId)));
+        return probes;
+    }
+    
+    private TicketFilter assignee() {
+        return TicketFilter.builder().assignedUserId(hotUserId).build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ticket.scaling;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Relève le SQL généré par Hibernate sur le thread courant, pour en capturer les plans d'exécution
+public class SqlCapture implements StatementInspector {
+    
+    private static final ThreadLocal<Set<String>> CAPTURED = new ThreadLocal<>();
+    
+    static void start() {
+        CAPTURED.set(new LinkedHashSet<>());
+    }
+    
+    static Set<String> stop() {
+        Set<String> captured = CAPTURED.get();
+        CAPTURED.remove();
+        return captured;
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        Set<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+}
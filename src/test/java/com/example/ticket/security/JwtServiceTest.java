@@ -0,0 +1,71 @@
+package com.example.ticket.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+    
+    private static final String SECRET = "dGlja2V0LXN5c3RlbS10ZXN0LXNlY3JldC1rZXktZm9yLXVuaXQtdGVzdHMhIQ==";
+    private static final String OTHER_SECRET = "YW5vdGhlci10aWNrZXQtc3lzdGVtLXNlY3JldC1rZXktZm9yLXRlc3RzISEhIQ==";
+    
+    private JwtService jwtService;
+    
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, Duration.ofHours(1));
+    }
+    
+    @Test
+    void testConstructor_RejectsMissingOrShortSecret() {
+        assertThrows(IllegalStateException.class, () -> new JwtService("", Duration.ofHours(1)));
+        assertThrows(IllegalStateException.class, () -> new JwtService("c2hvcnQta2V5", Duration.ofHours(1)));
+    }
+    
+    @Test
+    void testGenerateAndParse_RoundTrip() {
+        String token = jwtService.generateToken(authentication("admin", "ROLE_ADMIN"));
+        
+        Authentication parsed = jwtService.parse(token);
+        
+        assertTrue(parsed.isAuthenticated());
+        assertEquals("admin", parsed.getName());
+        assertEquals(List.of("ROLE_ADMIN"),
+            parsed.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+    
+    @Test
+    void testParse_ExpiredToken() {
+        JwtService expired = new JwtService(SECRET, Duration.ofSeconds(-1));
+        String token = expired.generateToken(authentication("user1", "ROLE_USER"));
+        
+        assertThrows(JwtException.class, () -> jwtService.parse(token));
+    }
+    
+    @Test
+    void testParse_WrongSignature() {
+        String token = new JwtService(OTHER_SECRET, Duration.ofHours(1))
+            .generateToken(authentication("admin", "ROLE_ADMIN"));
+        
+        assertThrows(JwtException.class, () -> jwtService.parse(token));
+    }
+    
+    @Test
+    void testParse_MalformedToken() {
+        assertThrows(JwtException.class, () -> jwtService.parse("pas-un-jwt"));
+    }
+    
+    private Authentication authentication(String username, String role) {
+        return UsernamePasswordAuthenticationToken.authenticated(
+            username, null, List.of(new SimpleGrantedAuthority(role)));
+    }
+}
@@ -1,26 +1,61 @@
 package com.example.ticket.service;
 
+import com.example.ticket.dto.BatchItemResultDTO;
+import com.example.ticket.dto.BulkStatusUpdateDTO;
+import com.example.ticket.dto.BulkUpdateResultDTO;
+import com.example.ticket.dto.CursorPage;
+import com.example.ticket.dto.TicketChangesDTO;
+import com.example.ticket.dto.TicketCursor;
 import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.exception.BadRequestException;
 import com.example.ticket.dto.mapper.TicketMapper;
 import com.example.ticket.exception.ResourceNotFoundException;
+import com.example.ticket.exception.UnauthorizedException;
+import com.example.ticket.model.entity.ArchivedTicket;
 import com.example.ticket.model.entity.Ticket;
 import com.example.ticket.model.entity.User;
 import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.repository.ArchivedTicketRepository;
+import com.example.ticket.repository.TicketAssignment;
+import com.example.ticket.repository.TicketFilter;
 import com.example.ticket.repository.TicketRepository;
 import com.example.ticket.repository.UserRepository;
+import com.example.ticket.service.cache.TicketCache;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.retry.OptimisticLockRetry;
+import com.example.ticket.service.stats.TicketStatistics;
+import com.example.ticket.service.sync.TicketChangeLog;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,12 +64,37 @@ class TicketServiceTest {
     @Mock
     private TicketRepository ticketRepository;
     
+    @Mock
+    private ArchivedTicketRepository archivedTicketRepository;
+    
     @Mock
     private UserRepository userRepository;
     
     @Mock
     private TicketMapper ticketMapper;
     
+    @Mock
+    private EntityManager entityManager;
+    
+    @Mock
+    private Validator validator;
+    
+    @Mock
+    private TicketCache ticketCache;
+    
+    @Mock
+    private TicketStatistics ticketStatistics;
+    
+    @Mock
+    private TicketChangeLog ticketChangeLog;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Spy
+    private OptimisticLockRetry optimisticLockRetry =
+        new OptimisticLockRetry(TransactionOperations.withoutTransaction(), 3);
+    
     @InjectMocks
     private TicketServiceImpl ticketService;
     
@@ -70,6 +130,7 @@ class TicketServiceTest {
     @Test
     void testCreateTicket() {
         when(ticketMapper.toEntity(any(TicketDTO.class))).thenReturn(ticket);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(ticketRepository.save(any(Ticket.class))).thenReturn(ticket);
         when(ticketMapper.toDTO(any(Ticket.class))).thenReturn(ticketDTO);
         
@@ -82,34 +143,66 @@ class TicketServiceTest {
     
     @Test
     void testAssignTicket_Success() {
-        when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(ticketRepository.save(any(Ticket.class))).thenReturn(ticket);
+        when(ticketRepository.findForAssignment(1L, 1L)).thenReturn(Optional.of(new TicketAssignment(ticket, user)));
+        when(ticketRepository.saveAndFlush(any(Ticket.class))).thenReturn(ticket);
         when(ticketMapper.toDTO(any(Ticket.class))).thenReturn(ticketDTO);
         
         TicketDTO result = ticketService.assignTicket(1L, 1L);
         
         assertNotNull(result);
-        verify(ticketRepository, times(1)).save(any(Ticket.class));
+        verify(ticketRepository, times(1)).saveAndFlush(any(Ticket.class));
+        verifyNoInteractions(userRepository);
+    }
+    
+    @Test
+    void testAssignTicket_RetriedOnVersionConflict() {
+        when(ticketRepository.findForAssignment(1L, 1L)).thenReturn(Optional.of(new TicketAssignment(ticket, user)));
+        when(ticketRepository.saveAndFlush(any(Ticket.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Ticket.class, 1L))
+            .thenReturn(ticket);
+        when(ticketMapper.toDTO(any(Ticket.class))).thenReturn(ticketDTO);
+        
+        TicketDTO result = ticketService.assignTicket(1L, 1L);
+        
+        assertNotNull(result);
+        verify(ticketRepository, times(2)).findForAssignment(1L, 1L);
+        verify(eventPublisher, times(1)).publishEvent(any(TicketChangedEvent.class));
+    }
+    
+    @Test
+    void testAssignTicket_GivesUpAfterMaxAttempts() {
+        when(ticketRepository.findForAssignment(1L, 1L)).thenReturn(Optional.of(new TicketAssignment(ticket, user)));
+        when(ticketRepository.saveAndFlush(any(Ticket.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Ticket.class, 1L));
+        when(ticketMapper.toDTO(any(Ticket.class))).thenReturn(ticketDTO);
+        
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            ticketService.assignTicket(1L, 1L);
+        });
+        verify(ticketRepository, times(3)).saveAndFlush(any(Ticket.class));
     }
     
     @Test
     void testAssignTicket_TicketNotFound() {
-        when(ticketRepository.findById(999L)).thenReturn(Optional.empty());
+        when(ticketRepository.findForAssignment(999L, 1L)).thenReturn(Optional.empty());
+        when(ticketRepository.existsById(999L)).thenReturn(false);
         
-        assertThrows(ResourceNotFoundException.class, () -> {
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             ticketService.assignTicket(999L, 1L);
         });
+        assertTrue(exception.getMessage().startsWith("Ticket"));
     }
     
     @Test
     void testAssignTicket_UserNotFound() {
-        when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(ticketRepository.findForAssignment(1L, 999L)).thenReturn(Optional.empty());
+        when(ticketRepository.existsById(1L)).thenReturn(true);
         
-        assertThrows(ResourceNotFoundException.class, () -> {
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             ticketService.assignTicket(1L, 999L);
         });
+        assertTrue(exception.getMessage().startsWith("Utilisateur"));
+        verify(ticketRepository, never()).saveAndFlush(any(Ticket.class));
     }
     
     @Test
@@ -124,4 +217,301 @@ class TicketServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
     }
+    
+    @Test
+    void testFindPage_HasNext() {
+        Ticket second = Ticket.builder().title("Second").build();
+        second.setId(2L);
+        second.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        ticket.setId(1L);
+        ticket.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        when(ticketRepository.findPage(any(TicketFilter.class), isNull(), isNull(), eq(2)))
+            .thenReturn(Arrays.asList(ticket, second));
+        when(ticketMapper.toDTO(any(Ticket.class))).thenReturn(ticketDTO);
+        
+        CursorPage<TicketDTO> result = ticketService.findPage(null, null, null, 1);
+        
+        assertEquals(1, result.getContent().size());
+        assertEquals(TicketCursor.of(ticket), TicketCursor.decode(result.getNext()));
+    }
+    
+    @Test
+    void testFindPage_LastPage() {
+        TicketCursor after = new TicketCursor(LocalDateTime.of(2024, 1, 1, 9, 0), 1L);
+        when(ticketRepository.findPage(any(TicketFilter.class),
+                eq(after.createdAt()), eq(1L), eq(CursorPage.MAX_SIZE + 1)))
+            .thenReturn(Arrays.asList(ticket));
+        when(ticketMapper.toDTO(any(Ticket.class))).thenReturn(ticketDTO);
+        
+        CursorPage<TicketDTO> result = ticketService.findPage(
+            TicketStatus.EN_COURS, null, after.encode(), 10_000);
+        
+        assertEquals(1, result.getSize());
+        assertNull(result.getNext());
+    }
+    
+    @Test
+    void testFindPage_InvalidCursor() {
+        assertThrows(BadRequestException.class, () -> {
+            ticketService.findPage(null, null, "pas-un-curseur", 10);
+        });
+    }
+    
+    @Test
+    void testFindPageByAssignedUser_PushesStatusToRepository() {
+        when(ticketRepository.findPage(any(TicketFilter.class), isNull(), isNull(), anyInt()))
+            .thenReturn(Arrays.asList(ticket));
+        when(ticketMapper.toDTO(any(Ticket.class))).thenReturn(ticketDTO);
+        
+        ticketService.findPageByAssignedUser("testuser", TicketStatus.TERMINE, null, 10);
+        
+        ArgumentCaptor<TicketFilter> filter = ArgumentCaptor.forClass(TicketFilter.class);
+        verify(ticketRepository).findPage(filter.capture(), isNull(), isNull(), eq(11));
+        assertEquals("testuser", filter.getValue().getAssignedUsername());
+        assertEquals(TicketStatus.TERMINE, filter.getValue().getStatus());
+    }
+    
+    @Test
+    void testFindChangesByAssignedUser_RestrictsToUserId() {
+        user.setId(7L);
+        TicketChangesDTO changes = TicketChangesDTO.builder().watermark("w").build();
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(ticketChangeLog.changesSince("since", 7L, 100)).thenReturn(changes);
+        
+        assertSame(changes, ticketService.findChangesByAssignedUser("testuser", "since", 100));
+    }
+    
+    @Test
+    void testFindChanges_AllTickets() {
+        ticketService.findChanges(null, 100);
+        
+        verify(ticketChangeLog).changesSince(null, null, 100);
+    }
+    
+    @Test
+    void testExportAll_ClearsPersistenceContextPeriodically() {
+        int rows = TicketRepository.EXPORT_FETCH_SIZE * 2 + 1;
+        Stream<Ticket> tickets = IntStream.range(0, rows).mapToObj(i -> ticket);
+        when(ticketRepository.streamAll()).thenReturn(tickets);
+        when(ticketMapper.toDTO(any(Ticket.class))).thenReturn(ticketDTO);
+        List<TicketDTO> exported = new ArrayList<>();
+        
+        long count = ticketService.exportAll(exported::add);
+        
+        assertEquals(rows, count);
+        assertEquals(rows, exported.size());
+        verify(entityManager, times(2)).clear();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateAll_ReportsEachItem() {
+        TicketDTO invalid = TicketDTO.builder().title("").build();
+        TicketDTO unknownUser = TicketDTO.builder()
+            .title("Autre").description("Desc").status(TicketStatus.EN_COURS)
+            .assignedUserId(999L).build();
+        ConstraintViolation<TicketDTO> violation = mock(ConstraintViolation.class);
+        when(violation.getPropertyPath()).thenReturn(null);
+        when(violation.getMessage()).thenReturn("Le titre est obligatoire");
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+        when(validator.validate(ticketDTO)).thenReturn(Set.of());
+        when(validator.validate(unknownUser)).thenReturn(Set.of());
+        user.setId(1L);
+        when(userRepository.findAllById(anySet())).thenReturn(List.of(user));
+        when(ticketMapper.toEntity(ticketDTO)).thenReturn(ticket);
+        when(ticketRepository.save(ticket)).thenAnswer(invocation -> {
+            ticket.setId(10L);
+            return ticket;
+        });
+        
+        List<BatchItemResultDTO> results = ticketService.createAll(
+            Arrays.asList(ticketDTO, invalid, unknownUser));
+        
+        assertEquals(3, results.size());
+        assertEquals(BatchItemResultDTO.Status.CREATED, results.get(0).getStatus());
+        assertEquals(10L, results.get(0).getId());
+        assertEquals(user, ticket.getAssignedUser());
+        assertEquals(BatchItemResultDTO.Status.INVALID, results.get(1).getStatus());
+        assertEquals(BatchItemResultDTO.Status.NOT_FOUND, results.get(2).getStatus());
+        verify(userRepository, times(1)).findAllById(anySet());
+        verify(ticketRepository, times(1)).save(any(Ticket.class));
+    }
+    
+    @Test
+    void testCreateAll_TooManyItems() {
+        List<TicketDTO> dtos = IntStream.range(0, 10_001).mapToObj(i -> ticketDTO).toList();
+        
+        assertThrows(BadRequestException.class, () -> ticketService.createAll(dtos));
+        verifyNoInteractions(ticketRepository);
+    }
+    
+    @Test
+    void testUpdateAll_ChecksOwnershipAndExistence() {
+        ticket.setId(1L);
+        Ticket otherTicket = Ticket.builder().title("Autre").status(TicketStatus.EN_COURS).build();
+        otherTicket.setId(2L);
+        when(ticketRepository.findAllById(anySet())).thenReturn(List.of(ticket, otherTicket));
+        TicketDTO own = TicketDTO.builder().id(1L).status(TicketStatus.TERMINE).build();
+        TicketDTO notOwned = TicketDTO.builder().id(2L).status(TicketStatus.TERMINE).build();
+        TicketDTO missing = TicketDTO.builder().id(3L).status(TicketStatus.TERMINE).build();
+        TicketDTO withoutId = TicketDTO.builder().status(TicketStatus.TERMINE).build();
+        
+        List<BatchItemResultDTO> results = ticketService.updateAll(
+            Arrays.asList(own, notOwned, missing, withoutId), "testuser");
+        
+        assertEquals(BatchItemResultDTO.Status.UPDATED, results.get(0).getStatus());
+        assertEquals(BatchItemResultDTO.Status.FORBIDDEN, results.get(1).getStatus());
+        assertEquals(BatchItemResultDTO.Status.NOT_FOUND, results.get(2).getStatus());
+        assertEquals(BatchItemResultDTO.Status.INVALID, results.get(3).getStatus());
+        verify(ticketMapper, times(1)).updateEntityFromDTO(own, ticket);
+        verify(ticketRepository, times(1)).findAllById(anySet());
+        verify(entityManager, times(1)).flush();
+    }
+    
+    @Test
+    void testTransitionStatus() {
+        BulkStatusUpdateDTO request = BulkStatusUpdateDTO.builder()
+            .currentStatus(TicketStatus.EN_COURS)
+            .assignedUserId(1L)
+            .targetStatus(TicketStatus.TERMINE)
+            .build();
+        when(ticketRepository.updateStatus(any(TicketFilter.class), eq(TicketStatus.TERMINE), any(LocalDateTime.class)))
+            .thenReturn(42);
+        
+        BulkUpdateResultDTO result = ticketService.transitionStatus(request);
+        
+        assertEquals(42, result.getUpdated());
+        verify(ticketRepository).updateStatus(
+            eq(TicketFilter.builder().status(TicketStatus.EN_COURS).assignedUserId(1L).build()),
+            eq(TicketStatus.TERMINE), any(LocalDateTime.class));
+    }
+    
+    @Test
+    void testTransitionStatus_WithoutFilter() {
+        BulkStatusUpdateDTO request = BulkStatusUpdateDTO.builder()
+            .targetStatus(TicketStatus.ANNULE)
+            .build();
+        
+        assertThrows(BadRequestException.class, () -> ticketService.transitionStatus(request));
+        verifyNoInteractions(ticketRepository);
+    }
+    
+    @Test
+    void testFindById_ServedFromCache() {
+        when(ticketCache.get(eq(1L), any())).thenReturn(Optional.of(ticketDTO));
+        
+        Optional<TicketDTO> result = ticketService.findById(1L);
+        
+        assertTrue(result.isPresent());
+        verifyNoInteractions(ticketRepository);
+        verifyNoInteractions(archivedTicketRepository);
+    }
+    
+    @Test
+    void testFindById_FallsBackToArchive() {
+        ArchivedTicket archived = ArchivedTicket.builder().id(1L).title("Archivé").build();
+        TicketDTO archivedDTO = TicketDTO.builder().id(1L).title("Archivé").build();
+        when(ticketCache.get(eq(1L), any())).thenReturn(Optional.empty());
+        when(archivedTicketRepository.findById(1L)).thenReturn(Optional.of(archived));
+        when(ticketMapper.toDTO(archived)).thenReturn(archivedDTO);
+        
+        Optional<TicketDTO> result = ticketService.findById(1L);
+        
+        assertEquals(Optional.of(archivedDTO), result);
+    }
+    
+    @Test
+    void testUpdate_PublishesChange() {
+        TicketDTO before = TicketDTO.builder().id(1L).status(TicketStatus.EN_COURS).build();
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
+        when(ticketRepository.saveAndFlush(ticket)).thenReturn(ticket);
+        when(ticketMapper.toDTO(ticket)).thenReturn(before, ticketDTO);
+        
+        ticketService.update(1L, ticketDTO);
+        
+        ArgumentCaptor<TicketChangedEvent> event = ArgumentCaptor.forClass(TicketChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TicketChangedEvent.Type.UPDATED, event.getValue().type());
+        assertEquals(1L, event.getValue().ticketId());
+        assertSame(before, event.getValue().before());
+        assertSame(ticketDTO, event.getValue().after());
+    }
+    
+    @Test
+    void testUpdate_StaleVersion() {
+        ticket.setVersion(4L);
+        ticketDTO.setVersion(3L);
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
+        
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            ticketService.update(1L, ticketDTO);
+        });
+        // Une version explicite n'est jamais rejouée
+        verify(ticketRepository, times(1)).findById(1L);
+        verify(ticketRepository, never()).saveAndFlush(any(Ticket.class));
+    }
+    
+    @Test
+    void testUpdate_AsOwner_ChecksOwnershipInQuery() {
+        when(ticketRepository.findByIdAndAssignedUsername(1L, "testuser")).thenReturn(Optional.of(ticket));
+        when(ticketRepository.saveAndFlush(ticket)).thenReturn(ticket);
+        when(ticketMapper.toDTO(ticket)).thenReturn(ticketDTO);
+        
+        ticketService.update(1L, ticketDTO, "testuser");
+        
+        verify(ticketRepository, never()).findById(any());
+        verify(ticketRepository, never()).existsById(any());
+        verify(ticketRepository).saveAndFlush(ticket);
+    }
+    
+    @Test
+    void testUpdate_NotOwner_Forbidden() {
+        when(ticketRepository.findByIdAndAssignedUsername(1L, "other")).thenReturn(Optional.empty());
+        when(ticketRepository.existsById(1L)).thenReturn(true);
+        
+        assertThrows(UnauthorizedException.class, () -> ticketService.update(1L, ticketDTO, "other"));
+        verify(ticketRepository, never()).saveAndFlush(any(Ticket.class));
+        verifyNoInteractions(eventPublisher);
+    }
+    
+    @Test
+    void testUpdate_AsUser_NotFound() {
+        when(ticketRepository.findByIdAndAssignedUsername(999L, "testuser")).thenReturn(Optional.empty());
+        when(ticketRepository.existsById(999L)).thenReturn(false);
+        
+        assertThrows(ResourceNotFoundException.class, () -> ticketService.update(999L, ticketDTO, "testuser"));
+    }
+    
+    @Test
+    void testDelete_PublishesChange() {
+        ticket.setVersion(2L);
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket));
+        when(ticketRepository.deleteByIdAndVersion(1L, 2L)).thenReturn(1);
+        when(ticketMapper.toDTO(ticket)).thenReturn(ticketDTO);
+        
+        ticketService.delete(1L);
+        
+        verify(ticketRepository, never()).delete(any(Ticket.class));
+        verify(eventPublisher).publishEvent(isA(TicketChangedEvent.class));
+    }
+    
+    @Test
+    void testDelete_RetriedWhenRowChanged() {
+        ticket.setVersion(2L);
+        when(ticketRepository.findById(1L)).thenReturn(Optional.of(ticket), Optional.empty());
+        when(ticketRepository.deleteByIdAndVersion(1L, 2L)).thenReturn(0);
+        
+        // Supprimé entre-temps par un autre appel : le rejeu ne trouve plus le ticket
+        assertThrows(ResourceNotFoundException.class, () -> ticketService.delete(1L));
+        verify(ticketRepository, times(2)).findById(1L);
+        verifyNoInteractions(eventPublisher);
+    }
+    
+    @Test
+    void testDelete_NotFound() {
+        when(ticketRepository.findById(999L)).thenReturn(Optional.empty());
+        
+        assertThrows(ResourceNotFoundException.class, () -> ticketService.delete(999L));
+        verifyNoInteractions(eventPublisher);
+    }
 }
\ No newline at end of file
@@ -4,14 +4,23 @@ import com.example.ticket.dto.UserDTO;
 import com.example.ticket.dto.mapper.UserMapper;
 import com.example.ticket.exception.ResourceNotFoundException;
 import com.example.ticket.model.entity.User;
+import com.example.ticket.repository.ArchivedTicketRepository;
+import com.example.ticket.repository.ListVersion;
+import com.example.ticket.repository.TicketRepository;
 import com.example.ticket.repository.UserRepository;
+import com.example.ticket.service.event.UserChangedEvent;
+import com.example.ticket.service.sync.TicketChangeLog;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -26,9 +35,21 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     
+    @Mock
+    private TicketRepository ticketRepository;
+    
+    @Mock
+    private ArchivedTicketRepository archivedTicketRepository;
+    
     @Mock
     private UserMapper userMapper;
     
+    @Mock
+    private TicketChangeLog ticketChangeLog;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     @InjectMocks
     private UserServiceImpl userService;
     
@@ -107,6 +128,25 @@ class UserServiceTest {
         verify(userMapper, times(1)).updateEntityFromDTO(any(), any());
     }
     
+    @Test
+    void testUpdate_RenamePublishesEvent() {
+        user.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        doAnswer(invocation -> {
+            user.setUsername("renamed");
+            return null;
+        }).when(userMapper).updateEntityFromDTO(any(), any());
+        
+        userService.update(1L, userDTO);
+        
+        ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(UserChangedEvent.Type.RENAMED, event.getValue().type());
+        assertEquals("testuser", event.getValue().previousUsername());
+        assertEquals("renamed", event.getValue().username());
+    }
+    
     @Test
     void testUpdate_NotFound() {
         when(userRepository.findById(999L)).thenReturn(Optional.empty());
@@ -121,7 +161,12 @@ class UserServiceTest {
         when(userRepository.existsById(1L)).thenReturn(true);
         
         assertDoesNotThrow(() -> userService.delete(1L));
-        verify(userRepository, times(1)).deleteById(1L);
+        // Les traces des tickets supprimés en cascade sont écrites avant la suppression, l'archive vidée aussi
+        InOrder inOrder = inOrder(ticketChangeLog, archivedTicketRepository, userRepository);
+        inOrder.verify(ticketChangeLog).recordUserDeleted(1L);
+        inOrder.verify(archivedTicketRepository).deleteByAssignedUserId(1L);
+        inOrder.verify(userRepository, times(1)).deleteById(1L);
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
     }
     
     @Test
@@ -132,4 +177,28 @@ class UserServiceTest {
             userService.delete(999L);
         });
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testGetUserTicketsVersion_ExistenceCheckedOnlyWithoutTickets() {
+        when(ticketRepository.listVersion(any())).thenReturn(new ListVersion(2L, LocalDateTime.now()));
+        
+        assertEquals(2, userService.getUserTicketsVersion(1L).getCount());
+        verify(userRepository, never()).existsById(any());
+    }
+    
+    @Test
+    void testGetUserTicketsVersion_NotFound() {
+        when(ticketRepository.listVersion(any())).thenReturn(new ListVersion(0L, null));
+        when(userRepository.existsById(999L)).thenReturn(false);
+        
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserTicketsVersion(999L));
+    }
+    
+    @Test
+    void testGetUserTickets_EmptyPageOfUnknownUser() {
+        when(ticketRepository.findPage(any(), isNull(), isNull(), anyInt())).thenReturn(List.of());
+        when(userRepository.existsById(999L)).thenReturn(false);
+        
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserTickets(999L, null, 10));
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.ticket.service.archive;
+
+import com.example.ticket.dto.CursorPage;
+import com.example.ticket.dto.TicketChangesDTO;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketStatsDTO;
+import com.example.ticket.dto.UserDTO;
+import com.example.ticket.exception.ResourceNotFoundException;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.service.TicketService;
+import com.example.ticket.service.UserService;
+import com.example.ticket.service.dataset.DatasetGenerator;
+import com.example.ticket.service.stats.TicketStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Archivage sur la base H2 : lots de 2 tickets, sans pause ; les tickets sont vieillis en JDBC
+@SpringBootTest(properties = {
+    "ticket.outbox.poll-interval=1h",
+    "ticket.archive.interval=1h",
+    "ticket.archive.min-age=30d",
+    "ticket.archive.batch-size=2",
+    "ticket.archive.batch-pause=0ms",
+    "ticket.sync.settle-window=0s"
+})
+class TicketArchiverTest {
+    
+    @Autowired
+    private TicketArchiver ticketArchiver;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private TicketStatistics ticketStatistics;
+    
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private UserDTO user;
+    
+    @BeforeEach
+    void setUp() {
+        datasetGenerator.clear();
+        ticketStatistics.reconcile();
+        user = userService.create(UserDTO.builder().username("archiviste").email("archiviste@test.com").build());
+    }
+    
+    @Test
+    void archive_MovesOnlyOldClosedTickets() {
+        TicketDTO done = create(TicketStatus.TERMINE, true);
+        TicketDTO cancelled = create(TicketStatus.ANNULE, true);
+        TicketDTO doneToo = create(TicketStatus.TERMINE, true);
+        TicketDTO open = create(TicketStatus.EN_COURS, true);
+        TicketDTO recent = create(TicketStatus.TERMINE, false);
+    
+        ticketArchiver.archive();
+    
+        assertEquals(List.of(open.getId(), recent.getId()),
+            jdbcTemplate.queryForList("SELECT id FROM tickets ORDER BY id", Long.class));
+        assertEquals(List.of(done.getId(), cancelled.getId(), doneToo.getId()),
+            jdbcTemplate.queryForList("SELECT id FROM archived_tickets ORDER BY id", Long.class));
+        assertEquals(3, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM archived_tickets WHERE user_id = ? AND archived_at IS NOT NULL",
+            Integer.class, user.getId()));
+    }
+    
+    @Test
+    void archive_ReportsArchivedTicketsToSyncAndOutbox() {
+        TicketDTO done = create(TicketStatus.TERMINE, true);
+        TicketDTO cancelled = create(TicketStatus.ANNULE, true);
+        create(TicketStatus.EN_COURS, true);
+        TicketChangesDTO all = ticketService.findChanges(null, 100);
+        TicketChangesDTO mine = ticketService.findChangesByAssignedUser(user.getUsername(), null, 100);
+    
+        ticketArchiver.archive();
+    
+        List<Long> archived = List.of(done.getId(), cancelled.getId());
+        assertEquals(archived, ticketService.findChanges(all.getWatermark(), 100).getDeleted());
+        assertEquals(archived, ticketService.findChangesByAssignedUser(
+            user.getUsername(), mine.getWatermark(), 100).getDeleted());
+        assertEquals(archived, jdbcTemplate.queryForList(
+            "SELECT aggregate_id FROM outbox_events WHERE event_type = 'ARCHIVED' ORDER BY aggregate_id", Long.class));
+    }
+    
+    @Test
+    void findById_FallsBackToArchiveAndArchivedTicketIsReadOnly() {
+        TicketDTO done = create(TicketStatus.TERMINE, true);
+        // Mis en cache avant l'archivage : l'entrée doit être invalidée
+        assertNull(ticketService.findById(done.getId()).orElseThrow().getArchivedAt());
+    
+        ticketArchiver.archive();
+    
+        TicketDTO archived = ticketService.findById(done.getId()).orElseThrow();
+        assertEquals(TicketStatus.TERMINE, archived.getStatus());
+        assertEquals(user.getId(), archived.getAssignedUserId());
+        assertNotNull(archived.getArchivedAt());
+        assertEquals(done.getVersion(), ticketService.findVersion(done.getId()).orElseThrow().getVersion());
+        assertThrows(ResourceNotFoundException.class, () ->
+            ticketService.update(done.getId(), TicketDTO.builder().status(TicketStatus.EN_COURS).build()));
+    }
+    
+    @Test
+    void findPage_IncludeArchivedMergesBothTablesInCreationOrder() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(create(i % 2 == 0 ? TicketStatus.TERMINE : TicketStatus.EN_COURS, true).getId());
+        }
+        ticketArchiver.archive();
+    
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<TicketDTO> page = ticketService.findPage(null, user.getId(), true, cursor, 2);
+            page.getContent().forEach(ticket -> walked.add(ticket.getId()));
+            cursor = page.getNext();
+        } while (cursor != null);
+    
+        assertEquals(created, walked);
+        assertEquals(2, ticketService.findPage(null, null, null, 10).getSize());
+        assertEquals(5, ticketService.findPageVersion(null, user.getId(), true).getCount());
+        assertEquals(2, ticketService.findPageVersion(null, user.getId(), false).getCount());
+    }
+    
+    @Test
+    void archive_KeepsStatisticsInLineWithHotTable() {
+        create(TicketStatus.TERMINE, true);
+        create(TicketStatus.ANNULE, true);
+        create(TicketStatus.EN_COURS, true);
+    
+        ticketArchiver.archive();
+    
+        TicketStatsDTO incremental = ticketService.statistics();
+        ticketStatistics.reconcile();
+        TicketStatsDTO reconciled = ticketService.statistics();
+        assertEquals(1, incremental.getTotal());
+        assertEquals(reconciled.getByStatus(), incremental.getByStatus());
+        assertEquals(reconciled.getByAssignee(), incremental.getByAssignee());
+    }
+    
+    private TicketDTO create(TicketStatus status, boolean old) {
+        TicketDTO ticket = ticketService.create(TicketDTO.builder()
+            .title("Ticket").description("Description").status(status).assignedUserId(user.getId()).build());
+        if (old) {
+            jdbcTemplate.update("UPDATE tickets SET updated_at = DATEADD('DAY', -60, CURRENT_TIMESTAMP) WHERE id = ?",
+                ticket.getId());
+        }
+        return ticket;
+    }
+}
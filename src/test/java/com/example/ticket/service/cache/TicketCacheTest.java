@@ -0,0 +1,146 @@
+package com.example.ticket.service.cache;
+
+import com.example.ticket.dto.CacheStatsDTO;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsBulkUpdatedEvent;
+import com.example.ticket.service.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketCacheTest {
+    
+    private TicketCache ticketCache;
+    
+    @BeforeEach
+    void setUp() {
+        ticketCache = new TicketCache(100, Duration.ofMinutes(5));
+    }
+    
+    @Test
+    void testGet_LoadsOnceThenHits() {
+        AtomicInteger loads = new AtomicInteger();
+        
+        for (int i = 0; i < 3; i++) {
+            ticketCache.get(1L, id -> {
+                loads.incrementAndGet();
+                return Optional.of(ticket(id, TicketStatus.EN_COURS, 1L));
+            });
+        }
+        
+        CacheStatsDTO stats = ticketCache.stats();
+        assertEquals(1, loads.get());
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+    
+    @Test
+    void testBindTo_ExportsCaffeineMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ticketCache.bindTo(registry);
+        
+        ticketCache.get(1L, id -> Optional.of(ticket(id, TicketStatus.EN_COURS, 1L)));
+        ticketCache.get(1L, id -> Optional.empty());
+        
+        assertEquals(1, registry.get("cache.gets").tag("cache", "tickets").tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "tickets").tag("result", "miss")
+            .functionCounter().count());
+    }
+    
+    @Test
+    void testGet_MissingTicketIsNotCached() {
+        Optional<TicketDTO> result = ticketCache.get(1L, id -> Optional.empty());
+        
+        assertTrue(result.isEmpty());
+        assertTrue(ticketCache.getIfPresent(1L).isEmpty());
+    }
+    
+    @Test
+    void testOnTicketChanged_EvictsTicket() {
+        cache(ticket(1L, TicketStatus.EN_COURS, 1L), ticket(2L, TicketStatus.EN_COURS, 1L));
+        
+        ticketCache.onTicketChanged(new TicketChangedEvent(
+            TicketChangedEvent.Type.UPDATED, 1L, null, null));
+        
+        assertTrue(ticketCache.getIfPresent(1L).isEmpty());
+        assertTrue(ticketCache.getIfPresent(2L).isPresent());
+    }
+    
+    @Test
+    void testOnTicketsBulkUpdated_EvictsMatchingTickets() {
+        cache(ticket(1L, TicketStatus.EN_COURS, 1L),
+            ticket(2L, TicketStatus.EN_COURS, 2L),
+            ticket(3L, TicketStatus.ANNULE, 1L));
+        
+        ticketCache.onTicketsBulkUpdated(new TicketsBulkUpdatedEvent(
+            TicketFilter.builder().status(TicketStatus.EN_COURS).assignedUserId(1L).build(),
+            TicketStatus.TERMINE, 1));
+        
+        assertTrue(ticketCache.getIfPresent(1L).isEmpty());
+        assertTrue(ticketCache.getIfPresent(2L).isPresent());
+        assertTrue(ticketCache.getIfPresent(3L).isPresent());
+    }
+    
+    @Test
+    void testOnTicketsBulkUpdated_ByIds() {
+        cache(ticket(1L, TicketStatus.EN_COURS, 1L), ticket(2L, TicketStatus.EN_COURS, 1L));
+        
+        ticketCache.onTicketsBulkUpdated(new TicketsBulkUpdatedEvent(
+            TicketFilter.builder().ids(List.of(2L)).build(), TicketStatus.TERMINE, 1));
+        
+        assertTrue(ticketCache.getIfPresent(1L).isPresent());
+        assertTrue(ticketCache.getIfPresent(2L).isEmpty());
+    }
+    
+    @Test
+    void testOnUserChanged_EvictsTicketsOfUser() {
+        cache(ticket(1L, TicketStatus.EN_COURS, 1L), ticket(2L, TicketStatus.EN_COURS, 2L));
+        
+        ticketCache.onUserChanged(new UserChangedEvent(
+            UserChangedEvent.Type.RENAMED, 1L, "old", "new"));
+        
+        assertTrue(ticketCache.getIfPresent(1L).isEmpty());
+        assertTrue(ticketCache.getIfPresent(2L).isPresent());
+    }
+    
+    @Test
+    void testMaximumSizeIsEnforced() {
+        TicketCache small = new TicketCache(10, Duration.ofMinutes(5));
+        for (long id = 0; id < 100; id++) {
+            TicketDTO ticket = ticket(id, TicketStatus.EN_COURS, null);
+            small.get(id, key -> Optional.of(ticket));
+        }
+        small.nativeCache().cleanUp();
+        
+        assertTrue(small.stats().getSize() <= 10);
+        assertTrue(small.stats().getEvictionCount() >= 90);
+    }
+    
+    private void cache(TicketDTO... tickets) {
+        for (TicketDTO ticket : tickets) {
+            ticketCache.get(ticket.getId(), id -> Optional.of(ticket));
+        }
+    }
+    
+    private static TicketDTO ticket(Long id, TicketStatus status, Long assignedUserId) {
+        return TicketDTO.builder()
+            .id(id)
+            .title("Ticket " + id)
+            .description("Description")
+            .status(status)
+            .assignedUserId(assignedUserId)
+            .build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.ticket.service.dataset;
+
+import com.example.ticket.model.enums.TicketStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetGeneratorTest {
+    
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SessionFactory sessionFactory;
+    
+    private DatasetGenerator generator;
+    
+    @BeforeEach
+    void setUp() {
+        lenient().when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        generator = new DatasetGenerator(jdbcTemplate, TransactionOperations.withoutTransaction(),
+            entityManagerFactory);
+    }
+    
+    @Test
+    void testLoad_InsertsUsersAndTicketsThenRestartsSequences() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        
+        generator.load(DatasetSpec.of(25_000));
+        
+        List<Object[]> users = rows("INSERT INTO users");
+        List<Object[]> tickets = rows("INSERT INTO tickets");
+        assertEquals(250, users.size());
+        assertEquals("user1", users.get(0)[4]);
+        assertEquals(25_000, tickets.size());
+        // Lots de BATCH_SIZE lignes, chacun dans sa transaction
+        verify(jdbcTemplate, times(3)).batchUpdate(startsWith("INSERT INTO tickets"), anyList());
+        verify(jdbcTemplate).execute("ALTER SEQUENCE users_seq RESTART WITH 350");
+        verify(jdbcTemplate).execute("ALTER SEQUENCE tickets_seq RESTART WITH 25100");
+        verify(sessionFactory.getCache()).evictAllRegions();
+    }
+    
+    @Test
+    void testLoad_NoTicketModifiedAfterLoad() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        
+        generator.load(DatasetSpec.of(25_000));
+        LocalDateTime loadedAt = LocalDateTime.now();
+        
+        List<Object[]> tickets = rows("INSERT INTO tickets");
+        for (Object[] ticket : tickets) {
+            LocalDateTime updatedAt = ((Timestamp) ticket[2]).toLocalDateTime();
+            assertFalse(updatedAt.isAfter(loadedAt), "updated_at dans le futur pour le ticket " + ticket[0]);
+            assertFalse(updatedAt.isBefore(((Timestamp) ticket[1]).toLocalDateTime()));
+        }
+    }
+    
+    @Test
+    void testLoad_IsDeterministicForASeed() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        
+        generator.load(DatasetSpec.of(1_000));
+        generator.load(DatasetSpec.of(1_000));
+        
+        List<Object[]> tickets = rows("INSERT INTO tickets");
+        for (int i = 0; i < 1_000; i++) {
+            Object[] first = tickets.get(i);
+            Object[] second = tickets.get(1_000 + i);
+            // Les dates sont relatives au moment du chargement : seules les colonnes tirées sont comparées
+            assertEquals(Arrays.asList(first[4], first[5], first[6], first[7]),
+                Arrays.asList(second[4], second[5], second[6], second[7]));
+        }
+    }
+    
+    @Test
+    void testLoad_FollowsStatusMixAndAssigneeSkew() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        Map<TicketStatus, Integer> mix = new EnumMap<>(Map.of(TicketStatus.EN_COURS, 3, TicketStatus.TERMINE, 1));
+        
+        generator.load(new DatasetSpec(100, 20_000, mix, 1.0, 0.0, 200, 7));
+        
+        List<Object[]> tickets = rows("INSERT INTO tickets");
+        long open = tickets.stream().filter(row -> "EN_COURS".equals(row[6])).count();
+        long cancelled = tickets.stream().filter(row -> "ANNULE".equals(row[6])).count();
+        long[] perUser = new long[101];
+        tickets.forEach(row -> perUser[((Long) row[7]).intValue()]++);
+        
+        assertEquals(0.75, open / 20_000.0, 0.02);
+        assertEquals(0, cancelled);
+        // Zipf (s = 1) : le rang 1 reçoit environ deux fois plus que le rang 2, dix fois plus que le rang 10
+        assertEquals(2.0, (double) perUser[1] / perUser[2], 0.3);
+        assertTrue(perUser[1] > 5 * perUser[10]);
+        assertTrue(tickets.stream().allMatch(row -> ((String) row[5]).length() <= 200));
+    }
+    
+    @Test
+    void testLoad_RejectsNonEmptyDatabase() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(3L);
+        
+        assertThrows(IllegalStateException.class, () -> generator.load(DatasetSpec.of(10)));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+    
+    @Test
+    void testDescription_LengthsAreSkewedTowardShortText() {
+        SplittableRandom random = new SplittableRandom(1);
+        int[] lengths = new int[10_000];
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = DatasetGenerator.description(random, DatasetSpec.MAX_DESCRIPTION_LENGTH).length();
+        }
+        Arrays.sort(lengths);
+        
+        assertTrue(lengths[0] >= 10);
+        assertTrue(lengths[lengths.length / 2] < 200);
+        assertTrue(lengths[lengths.length - 1] > 900);
+        assertTrue(lengths[lengths.length - 1] <= DatasetSpec.MAX_DESCRIPTION_LENGTH);
+    }
+    
+    @Test
+    void testSpec_RejectsInvalidSettings() {
+        Map<TicketStatus, Integer> mix = DatasetSpec.parseStatusMix("EN_COURS:1");
+        
+        assertThrows(IllegalArgumentException.class, () -> new DatasetSpec(0, 10, mix, 1.0, 0, 100, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DatasetSpec(1, 10, mix, 1.0, 1.5, 100, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DatasetSpec(1, 10, mix, 1.0, 0, 1001, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new DatasetSpec(1, 10, DatasetSpec.parseStatusMix("EN_COURS:0"), 1.0, 0, 100, 1));
+        assertThrows(IllegalArgumentException.class, () -> DatasetSpec.parseStatusMix("EN_COURS=1"));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<Object[]> rows(String sqlPrefix) {
+        ArgumentCaptor<List<Object[]>> batches = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(startsWith(sqlPrefix), batches.capture());
+        List<Object[]> rows = new ArrayList<>();
+        batches.getAllValues().forEach(rows::addAll);
+        return rows;
+    }
+}
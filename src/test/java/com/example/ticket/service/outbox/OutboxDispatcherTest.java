@@ -0,0 +1,102 @@
+package com.example.ticket.service.outbox;
+
+import com.example.ticket.model.entity.OutboxEvent;
+import com.example.ticket.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+    
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Mock
+    private OutboxPublisher outboxPublisher;
+    
+    @Mock
+    private ObjectProvider<OutboxPublisher> publisherProvider;
+    
+    private OutboxDispatcher dispatcher;
+    
+    @BeforeEach
+    void setUp() {
+        when(publisherProvider.getIfAvailable(any())).thenReturn(outboxPublisher);
+        dispatcher = new OutboxDispatcher(outboxEventRepository, publisherProvider,
+            TransactionOperations.withoutTransaction(), 2, Duration.ofMinutes(10));
+    }
+    
+    @Test
+    void testDispatch_PublishesAndDeletesUntilBatchIsNotFull() throws Exception {
+        OutboxEvent first = event(1L);
+        OutboxEvent second = event(2L);
+        OutboxEvent third = event(3L);
+        when(outboxEventRepository.claimDue(any(LocalDateTime.class), eq(Limit.of(2))))
+            .thenReturn(List.of(first, second))
+            .thenReturn(List.of(third));
+        
+        dispatcher.dispatch();
+        
+        verify(outboxPublisher, times(3)).publish(any());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(outboxEventRepository, times(2)).claimDue(any(), any());
+    }
+    
+    @Test
+    void testDispatchBatch_FailureIsRescheduled() throws Exception {
+        OutboxEvent failing = event(1L);
+        OutboxEvent ok = event(2L);
+        when(outboxEventRepository.claimDue(any(LocalDateTime.class), any())).thenReturn(List.of(failing, ok));
+        doThrow(new IllegalStateException("indexeur indisponible")).when(outboxPublisher).publish(failing);
+        
+        assertEquals(2, dispatcher.dispatchBatch());
+        
+        assertEquals(1, failing.getAttempts());
+        assertTrue(failing.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertTrue(failing.getLastError().contains("indexeur indisponible"));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(2L));
+    }
+    
+    @Test
+    void testDispatchBatch_NothingDue() {
+        when(outboxEventRepository.claimDue(any(LocalDateTime.class), any())).thenReturn(List.of());
+        
+        assertEquals(0, dispatcher.dispatchBatch());
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+    
+    @Test
+    void testRetryDelay_GrowsThenCaps() {
+        assertEquals(Duration.ofSeconds(1), dispatcher.retryDelay(1));
+        assertEquals(Duration.ofSeconds(8), dispatcher.retryDelay(4));
+        assertEquals(Duration.ofMinutes(10), dispatcher.retryDelay(50));
+    }
+    
+    private static OutboxEvent event(Long id) {
+        OutboxEvent event = OutboxEvent.builder()
+            .aggregateType("Ticket")
+            .aggregateId(id)
+            .eventType("CREATED")
+            .payload("{}")
+            .nextAttemptAt(LocalDateTime.now())
+            .build();
+        event.setId(id);
+        return event;
+    }
+}
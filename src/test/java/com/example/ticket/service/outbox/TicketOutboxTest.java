@@ -0,0 +1,102 @@
+package com.example.ticket.service.outbox;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.model.entity.OutboxEvent;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.repository.OutboxEventRepository;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsArchivedEvent;
+import com.example.ticket.service.event.TicketsBulkUpdatedEvent;
+import com.example.ticket.service.event.UserChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TicketOutboxTest {
+    
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    
+    private TicketOutbox outbox;
+    
+    @BeforeEach
+    void setUp() {
+        outbox = new TicketOutbox(outboxEventRepository, new ObjectMapper());
+    }
+    
+    @Test
+    void testOnTicketChanged_AppendsEventWithTicket() {
+        TicketDTO ticket = TicketDTO.builder().id(1L).title("Test Ticket").version(3L).build();
+        
+        outbox.onTicketChanged(new TicketChangedEvent(TicketChangedEvent.Type.ASSIGNED, 1L, null, ticket));
+        
+        OutboxEvent event = saved();
+        assertEquals(TicketOutbox.TICKET, event.getAggregateType());
+        assertEquals(1L, event.getAggregateId());
+        assertEquals("ASSIGNED", event.getEventType());
+        assertTrue(event.getPayload().contains("\"version\":3"));
+        assertNotNull(event.getNextAttemptAt());
+    }
+    
+    @Test
+    void testOnTicketsArchived_OneEventPerTicketWithoutContent() {
+        outbox.onTicketsArchived(new TicketsArchivedEvent(List.of(
+            TicketDTO.builder().id(1L).title("Test Ticket").build(),
+            TicketDTO.builder().id(2L).title("Test Ticket").build())));
+        
+        ArgumentCaptor<OutboxEvent> events = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(2)).save(events.capture());
+        assertEquals(List.of(1L, 2L), events.getAllValues().stream().map(OutboxEvent::getAggregateId).toList());
+        OutboxEvent event = events.getValue();
+        assertEquals(TicketOutbox.TICKET, event.getAggregateType());
+        assertEquals("ARCHIVED", event.getEventType());
+        assertTrue(event.getPayload().contains("\"ticket\":null"));
+    }
+    
+    @Test
+    void testOnTicketsBulkUpdated_OneEventForTheFilter() {
+        outbox.onTicketsBulkUpdated(new TicketsBulkUpdatedEvent(
+            TicketFilter.builder().ids(List.of(1L, 2L)).build(), TicketStatus.TERMINE, 2));
+        
+        OutboxEvent event = saved();
+        assertEquals(TicketOutbox.BULK_STATUS_UPDATED, event.getEventType());
+        assertTrue(event.getPayload().contains("\"ids\":[1,2]"));
+    }
+    
+    @Test
+    void testOnTicketsBulkUpdated_NothingUpdated() {
+        outbox.onTicketsBulkUpdated(new TicketsBulkUpdatedEvent(
+            TicketFilter.builder().ids(List.of(1L)).build(), TicketStatus.TERMINE, 0));
+        
+        verify(outboxEventRepository, never()).save(any());
+    }
+    
+    @Test
+    void testOnUserChanged_OnlyDeletion() {
+        outbox.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.RENAMED, 7L, "old", "new"));
+        verify(outboxEventRepository, never()).save(any());
+        
+        outbox.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.DELETED, 7L, null, null));
+        assertEquals(TicketOutbox.USER, saved().getAggregateType());
+    }
+    
+    private OutboxEvent saved() {
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(event.capture());
+        return event.getValue();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ticket.service.stats;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.TicketStatsDTO;
+import com.example.ticket.model.enums.TicketStatus;
+import com.example.ticket.repository.TicketCountView;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.repository.TicketRepository;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsBulkUpdatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketStatisticsTest {
+    
+    @Mock
+    private TicketRepository ticketRepository;
+    
+    private TicketStatistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = new TicketStatistics(ticketRepository);
+    }
+    
+    @Test
+    void testOnTicketChanged_CreateAssignDelete() {
+        TicketDTO created = ticket(TicketStatus.EN_COURS, null);
+        TicketDTO assigned = ticket(TicketStatus.EN_COURS, 7L);
+        TicketDTO closed = ticket(TicketStatus.TERMINE, 7L);
+        
+        statistics.onTicketChanged(event(TicketChangedEvent.Type.CREATED, null, created));
+        statistics.onTicketChanged(event(TicketChangedEvent.Type.ASSIGNED, created, assigned));
+        statistics.onTicketChanged(event(TicketChangedEvent.Type.UPDATED, assigned, closed));
+        
+        TicketStatsDTO stats = statistics.snapshot();
+        assertEquals(1, stats.getTotal());
+        assertEquals(0, stats.getByStatus().get(TicketStatus.EN_COURS));
+        assertEquals(1, stats.getByStatus().get(TicketStatus.TERMINE));
+        assertEquals(0, stats.getUnassigned().get(TicketStatus.EN_COURS));
+        assertEquals(1, stats.getByAssignee().get(7L).get(TicketStatus.TERMINE));
+        
+        statistics.onTicketChanged(event(TicketChangedEvent.Type.DELETED, closed, null));
+        
+        stats = statistics.snapshot();
+        assertEquals(0, stats.getTotal());
+        assertFalse(stats.getByAssignee().containsKey(7L));
+    }
+    
+    @Test
+    void testReconcile_ReplacesCounters() {
+        statistics.onTicketChanged(event(TicketChangedEvent.Type.CREATED, null, ticket(TicketStatus.ANNULE, 1L)));
+        when(ticketRepository.countByStatusAndAssignee()).thenReturn(List.of(
+            row(TicketStatus.EN_COURS, 1L, 4),
+            row(TicketStatus.EN_COURS, null, 2),
+            row(TicketStatus.TERMINE, 2L, 3)));
+        
+        statistics.reconcile();
+        
+        TicketStatsDTO stats = statistics.snapshot();
+        assertEquals(9, stats.getTotal());
+        assertEquals(6, stats.getByStatus().get(TicketStatus.EN_COURS));
+        assertEquals(0, stats.getByStatus().get(TicketStatus.ANNULE));
+        assertEquals(2, stats.getUnassigned().get(TicketStatus.EN_COURS));
+        assertEquals(4, stats.getByAssignee().get(1L).get(TicketStatus.EN_COURS));
+        assertEquals(3, stats.getByAssignee().get(2L).get(TicketStatus.TERMINE));
+        assertNotNull(stats.getReconciledAt());
+    }
+    
+    @Test
+    void testOnTicketsBulkUpdated_ReconcilesOnlyWhenRowsChanged() {
+        statistics.onTicketsBulkUpdated(new TicketsBulkUpdatedEvent(TicketFilter.all(), TicketStatus.TERMINE, 0));
+        verify(ticketRepository, never()).countByStatusAndAssignee();
+        
+        when(ticketRepository.countByStatusAndAssignee()).thenReturn(List.of());
+        statistics.onTicketsBulkUpdated(new TicketsBulkUpdatedEvent(TicketFilter.all(), TicketStatus.TERMINE, 5));
+        verify(ticketRepository).countByStatusAndAssignee();
+    }
+    
+    private TicketChangedEvent event(TicketChangedEvent.Type type, TicketDTO before, TicketDTO after) {
+        return new TicketChangedEvent(type, 1L, before, after);
+    }
+    
+    private TicketDTO ticket(TicketStatus status, Long userId) {
+        return TicketDTO.builder().id(1L).title("t").status(status).assignedUserId(userId).build();
+    }
+    
+    private TicketCountView row(TicketStatus status, Long userId, long total) {
+        return new TicketCountView() {
+            public TicketStatus getStatus() { return status; }
+            public Long getUserId() { return userId; }
+            public long getTotal() { return total; }
+        };
+    }
+}
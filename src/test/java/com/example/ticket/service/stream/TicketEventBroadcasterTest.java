@@ -0,0 +1,171 @@
+package com.example.ticket.service.stream;
+
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsArchivedEvent;
+import com.example.ticket.service.event.TicketsBulkUpdatedEvent;
+import com.example.ticket.model.enums.TicketStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketEventBroadcasterTest {
+    
+    private final List<Runnable> pendingSends = new ArrayList<>();
+    private TicketEventBroadcaster broadcaster;
+    
+    @BeforeEach
+    void setUp() {
+        // Envois exécutés à la demande, pour simuler un client lent
+        Executor executor = pendingSends::add;
+        broadcaster = new TicketEventBroadcaster(new ObjectMapper(), 2, Duration.ofMinutes(1), executor);
+    }
+    
+    @Test
+    void testOnTicketChanged_FiltersByAccessRule() {
+        RecordingEmitter admin = subscribe("admin", "ROLE_ADMIN");
+        RecordingEmitter alice = subscribe("alice", "ROLE_USER");
+        RecordingEmitter bob = subscribe("bob", "ROLE_USER");
+        
+        broadcaster.onTicketChanged(new TicketChangedEvent(
+            TicketChangedEvent.Type.CREATED, 1L, null, ticket(1L, "alice")));
+        runSends();
+        
+        assertEquals(1, admin.events(TicketEventBroadcaster.TICKET_EVENT).size());
+        assertEquals(1, alice.events(TicketEventBroadcaster.TICKET_EVENT).size());
+        assertTrue(bob.events(TicketEventBroadcaster.TICKET_EVENT).isEmpty());
+        assertTrue(alice.events(TicketEventBroadcaster.TICKET_EVENT).get(0).contains("\"type\":\"CREATED\""));
+    }
+    
+    @Test
+    void testOnTicketChanged_PreviousAssigneeIsNotified() {
+        RecordingEmitter alice = subscribe("alice", "ROLE_USER");
+        RecordingEmitter bob = subscribe("bob", "ROLE_USER");
+        
+        broadcaster.onTicketChanged(new TicketChangedEvent(
+            TicketChangedEvent.Type.ASSIGNED, 1L, ticket(1L, "alice"), ticket(1L, "bob")));
+        runSends();
+        broadcaster.onTicketChanged(new TicketChangedEvent(
+            TicketChangedEvent.Type.DELETED, 2L, ticket(2L, "alice"), null));
+        runSends();
+        
+        // L'ancien assigné n'apprend que le retrait, sans le contenu du ticket réassigné
+        List<String> removed = alice.events(TicketEventBroadcaster.TICKET_EVENT);
+        assertEquals(2, removed.size());
+        assertTrue(removed.get(0).contains("\"type\":\"ASSIGNED\""));
+        assertTrue(removed.get(0).contains("\"ticketId\":1"));
+        assertTrue(removed.get(0).contains("\"ticket\":null"));
+        assertFalse(removed.get(0).contains("bob"));
+        assertTrue(removed.get(1).contains("\"ticket\":null"));
+        // Le nouvel assigné reçoit le ticket complet
+        assertTrue(bob.events(TicketEventBroadcaster.TICKET_EVENT).get(0).contains("\"assignedUsername\":\"bob\""));
+    }
+    
+    @Test
+    void testOnTicketsArchived_RemovalForSubscribersWhoSawTheTicket() {
+        RecordingEmitter alice = subscribe("alice", "ROLE_USER");
+        RecordingEmitter bob = subscribe("bob", "ROLE_USER");
+        
+        broadcaster.onTicketsArchived(new TicketsArchivedEvent(List.of(ticket(1L, "alice"), ticket(2L, null))));
+        runSends();
+        
+        List<String> removed = alice.events(TicketEventBroadcaster.TICKET_EVENT);
+        assertEquals(1, removed.size());
+        assertTrue(removed.get(0).contains("\"type\":\"ARCHIVED\""));
+        assertTrue(removed.get(0).contains("\"ticketId\":1"));
+        assertTrue(removed.get(0).contains("\"ticket\":null"));
+        assertTrue(bob.events(TicketEventBroadcaster.TICKET_EVENT).isEmpty());
+    }
+    
+    @Test
+    void testSlowSubscriber_OverflowSendsResync() {
+        RecordingEmitter admin = subscribe("admin", "ROLE_ADMIN");
+        
+        // File de 2 : le heartbeat initial et 4 événements ne tiennent pas sans envoi
+        for (long id = 1; id <= 4; id++) {
+            broadcaster.onTicketChanged(new TicketChangedEvent(
+                TicketChangedEvent.Type.CREATED, id, null, ticket(id, null)));
+        }
+        runSends();
+        
+        assertEquals(1, admin.events(TicketEventBroadcaster.RESYNC_EVENT).size());
+        assertTrue(admin.events(TicketEventBroadcaster.TICKET_EVENT).size() <= 2);
+    }
+    
+    @Test
+    void testOnTicketsBulkUpdated_ResyncsEveryone() {
+        RecordingEmitter alice = subscribe("alice", "ROLE_USER");
+        
+        broadcaster.onTicketsBulkUpdated(new TicketsBulkUpdatedEvent(
+            TicketFilter.builder().status(TicketStatus.EN_COURS).build(), TicketStatus.TERMINE, 3));
+        runSends();
+        
+        assertEquals(1, alice.events(TicketEventBroadcaster.RESYNC_EVENT).size());
+    }
+    
+    @Test
+    void testClosedConnection_RemovesSubscriber() {
+        RecordingEmitter alice = subscribe("alice", "ROLE_USER");
+        alice.closed = true;
+        
+        broadcaster.heartbeat();
+        runSends();
+        
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+    
+    private RecordingEmitter subscribe(String username, String role) {
+        Authentication auth = new UsernamePasswordAuthenticationToken(
+            username, null, AuthorityUtils.createAuthorityList(role));
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(auth, emitter);
+        return emitter;
+    }
+    
+    private void runSends() {
+        while (!pendingSends.isEmpty()) {
+            pendingSends.remove(0).run();
+        }
+    }
+    
+    private static TicketDTO ticket(Long id, String assignedUsername) {
+        return TicketDTO.builder().id(id).title("Ticket " + id).assignedUsername(assignedUsername).build();
+    }
+    
+    // Enregistre le texte de chaque événement au lieu de l'écrire dans une réponse HTTP
+    private static class RecordingEmitter extends SseEmitter {
+        
+        private final List<String> sent = new ArrayList<>();
+        private boolean closed;
+        
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (closed) {
+                throw new IOException("Connexion fermée");
+            }
+            sent.add(builder.build().stream()
+                .map(part -> part.getData().toString())
+                .collect(Collectors.joining()));
+        }
+        
+        List<String> events(String name) {
+            return sent.stream()
+                .filter(text -> text.startsWith("event:" + name + "\n"))
+                .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.ticket.service.sync;
+
+import com.example.ticket.dto.SyncWatermark;
+import com.example.ticket.dto.TicketChangesDTO;
+import com.example.ticket.dto.TicketDTO;
+import com.example.ticket.dto.mapper.TicketMapper;
+import com.example.ticket.exception.BadRequestException;
+import com.example.ticket.model.entity.Ticket;
+import com.example.ticket.model.entity.TicketTombstone;
+import com.example.ticket.repository.TicketFilter;
+import com.example.ticket.repository.TicketRepository;
+import com.example.ticket.repository.TicketTombstoneRepository;
+import com.example.ticket.service.event.TicketChangedEvent;
+import com.example.ticket.service.event.TicketsArchivedEvent;
+import com.example.ticket.service.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketChangeLogTest {
+    
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 10, 0);
+    
+    @Mock
+    private TicketRepository ticketRepository;
+    
+    @Mock
+    private TicketTombstoneRepository tombstoneRepository;
+    
+    @Mock
+    private TicketMapper ticketMapper;
+    
+    private TicketChangeLog changeLog;
+    
+    @BeforeEach
+    void setUp() {
+        changeLog = new TicketChangeLog(ticketRepository, tombstoneRepository, ticketMapper,
+            Duration.ofSeconds(5), Duration.ofDays(30));
+    }
+    
+    @Test
+    void testOnTicketChanged_DeleteRecordsTombstone() {
+        changeLog.onTicketChanged(new TicketChangedEvent(
+            TicketChangedEvent.Type.DELETED, 1L, dto(1L, 7L), null));
+        
+        TicketTombstone tombstone = savedTombstone();
+        assertEquals(1L, tombstone.getTicketId());
+        assertEquals(7L, tombstone.getUserId());
+        assertEquals(TicketTombstone.Reason.DELETED, tombstone.getReason());
+    }
+    
+    @Test
+    void testOnTicketChanged_ReassignRecordsUnassigned() {
+        changeLog.onTicketChanged(new TicketChangedEvent(
+            TicketChangedEvent.Type.ASSIGNED, 1L, dto(1L, 7L), dto(1L, 8L)));
+        
+        TicketTombstone tombstone = savedTombstone();
+        assertEquals(7L, tombstone.getUserId());
+        assertEquals(TicketTombstone.Reason.UNASSIGNED, tombstone.getReason());
+    }
+    
+    @Test
+    void testOnTicketChanged_UpdateKeepingAssigneeRecordsNothing() {
+        changeLog.onTicketChanged(new TicketChangedEvent(
+            TicketChangedEvent.Type.UPDATED, 1L, dto(1L, 7L), dto(1L, 7L)));
+        changeLog.onTicketChanged(new TicketChangedEvent(
+            TicketChangedEvent.Type.ASSIGNED, 2L, dto(2L, null), dto(2L, 7L)));
+        
+        verify(tombstoneRepository, never()).save(any());
+    }
+    
+    @Test
+    void testOnTicketsArchived_OneTombstonePerTicketForItsAssignee() {
+        changeLog.onTicketsArchived(new TicketsArchivedEvent(List.of(dto(1L, 7L), dto(2L, null))));
+        
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TicketTombstone>> saved = ArgumentCaptor.forClass(List.class);
+        verify(tombstoneRepository).saveAll(saved.capture());
+        assertEquals(List.of(1L, 2L), saved.getValue().stream().map(TicketTombstone::getTicketId).toList());
+        assertEquals(7L, saved.getValue().get(0).getUserId());
+        assertNull(saved.getValue().get(1).getUserId());
+        assertTrue(saved.getValue().stream().allMatch(t -> t.getReason() == TicketTombstone.Reason.ARCHIVED));
+    }
+    
+    @Test
+    void testOnUserChanged_RenamedAssigneeTicketsComeBackInUpdated() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        
+        changeLog.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.RENAMED, 7L, "ancien", "nouveau"));
+        
+        // Après le dernier jeton du client : le prochain appel relit les tickets de l'assigné
+        ArgumentCaptor<LocalDateTime> touchedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(ticketRepository).touchByAssignedUserId(eq(7L), touchedAt.capture());
+        assertTrue(touchedAt.getValue().isAfter(since));
+        
+        Ticket renamed = ticket(1L, touchedAt.getValue());
+        when(ticketRepository.findChanges(any(TicketFilter.class), eq(since), eq(0L), any(), anyInt()))
+            .thenReturn(List.of(renamed));
+        when(tombstoneRepository.findByUserIdAfter(eq(7L), eq(since), eq(0L), any(), any())).thenReturn(List.of());
+        when(ticketMapper.toDTO(renamed)).thenReturn(
+            TicketDTO.builder().id(1L).assignedUserId(7L).assignedUsername("nouveau").build());
+        
+        TicketChangesDTO changes = changeLog.changesSince(
+            new SyncWatermark(since, 0L, since, 0L).encode(), 7L, 10);
+        
+        assertEquals(List.of("nouveau"), changes.getUpdated().stream().map(TicketDTO::getAssignedUsername).toList());
+    }
+    
+    @Test
+    void testOnUserChanged_DeletionTouchesNothing() {
+        changeLog.onUserChanged(new UserChangedEvent(UserChangedEvent.Type.DELETED, 7L, null, null));
+        
+        verify(ticketRepository, never()).touchByAssignedUserId(any(), any());
+    }
+    
+    @Test
+    void testRecordUserDeleted_OneTombstonePerTicket() {
+        when(ticketRepository.findIdsByAssignedUserId(7L)).thenReturn(List.of(1L, 2L));
+        
+        changeLog.recordUserDeleted(7L);
+        
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TicketTombstone>> saved = ArgumentCaptor.forClass(List.class);
+        verify(tombstoneRepository).saveAll(saved.capture());
+        assertEquals(List.of(1L, 2L), saved.getValue().stream().map(TicketTombstone::getTicketId).toList());
+        assertTrue(saved.getValue().stream().allMatch(t -> t.getReason() == TicketTombstone.Reason.DELETED));
+    }
+    
+    @Test
+    void testChangesSince_InitialSyncSkipsTombstones() {
+        Ticket first = ticket(1L, T0);
+        when(ticketRepository.findChanges(any(TicketFilter.class), isNull(), isNull(), any(), eq(3)))
+            .thenReturn(List.of(first));
+        when(tombstoneRepository.findDeletedAfter(any(), eq(Long.MAX_VALUE), any(), eq(Limit.of(3))))
+            .thenReturn(List.of());
+        when(ticketMapper.toDTO(first)).thenReturn(dto(1L, null));
+        
+        TicketChangesDTO changes = changeLog.changesSince(null, null, 2);
+        
+        assertEquals(1, changes.getUpdated().size());
+        assertTrue(changes.getDeleted().isEmpty());
+        assertFalse(changes.isHasMore());
+        assertFalse(changes.isResyncRequired());
+        // Flux lus jusqu'à l'horizon : le jeton y avance
+        SyncWatermark next = SyncWatermark.decode(changes.getWatermark());
+        assertEquals(next.ticketsAt(), next.tombstonesAt());
+        assertTrue(next.ticketsAt().isBefore(LocalDateTime.now()));
+    }
+    
+    @Test
+    void testChangesSince_MergesStreamsInOrderAndStopsAtSize() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        Ticket first = ticket(1L, since.plusSeconds(1));
+        Ticket third = ticket(3L, since.plusSeconds(3));
+        TicketTombstone second = tombstone(10L, 2L, since.plusSeconds(2));
+        when(ticketRepository.findChanges(any(TicketFilter.class), eq(since), eq(0L), any(), eq(3)))
+            .thenReturn(List.of(first, third));
+        when(tombstoneRepository.findDeletedAfter(eq(since), eq(0L), any(), eq(Limit.of(3))))
+            .thenReturn(List.of(second));
+        when(ticketMapper.toDTO(first)).thenReturn(dto(1L, null));
+        
+        TicketChangesDTO changes = changeLog.changesSince(
+            new SyncWatermark(since, 0L, since, 0L).encode(), null, 2);
+        
+        assertEquals(List.of(1L), changes.getUpdated().stream().map(TicketDTO::getId).toList());
+        assertEquals(List.of(2L), changes.getDeleted());
+        assertTrue(changes.isHasMore());
+        // Le flux des tickets reprend après le dernier renvoyé, celui des suppressions à l'horizon
+        SyncWatermark next = SyncWatermark.decode(changes.getWatermark());
+        assertEquals(first.getUpdatedAt(), next.ticketsAt());
+        assertEquals(1L, next.ticketId());
+        assertEquals(Long.MAX_VALUE, next.tombstoneId());
+    }
+    
+    @Test
+    void testChangesSince_TicketBackInViewIsNotReportedDeleted() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        Ticket ticket = ticket(1L, since.plusSeconds(2));
+        when(ticketRepository.findChanges(any(TicketFilter.class), eq(since), eq(0L), any(), anyInt()))
+            .thenReturn(List.of(ticket));
+        when(tombstoneRepository.findByUserIdAfter(eq(7L), eq(since), eq(0L), any(), any()))
+            .thenReturn(List.of(tombstone(10L, 1L, since.plusSeconds(1))));
+        when(ticketMapper.toDTO(ticket)).thenReturn(dto(1L, 7L));
+        
+        TicketChangesDTO changes = changeLog.changesSince(
+            new SyncWatermark(since, 0L, since, 0L).encode(), 7L, 10);
+        
+        assertEquals(1, changes.getUpdated().size());
+        assertTrue(changes.getDeleted().isEmpty());
+        ArgumentCaptor<TicketFilter> filter = ArgumentCaptor.forClass(TicketFilter.class);
+        verify(ticketRepository).findChanges(filter.capture(), any(), anyLong(), any(), anyInt());
+        assertEquals(7L, filter.getValue().getAssignedUserId());
+    }
+    
+    @Test
+    void testChangesSince_ExpiredWatermarkRequiresResync() {
+        LocalDateTime old = LocalDateTime.now().minusDays(31);
+        
+        TicketChangesDTO changes = changeLog.changesSince(
+            new SyncWatermark(old, 1L, old, 1L).encode(), null, 10);
+        
+        assertTrue(changes.isResyncRequired());
+        assertNull(changes.getWatermark());
+        verifyNoInteractions(ticketRepository, tombstoneRepository);
+    }
+    
+    @Test
+    void testChangesSince_InvalidWatermark() {
+        assertThrows(BadRequestException.class, () -> changeLog.changesSince("???", null, 10));
+    }
+    
+    @Test
+    void testPurgeTombstones_DeletesBeyondRetention() {
+        changeLog.purgeTombstones();
+        
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(tombstoneRepository).deleteCreatedBefore(cutoff.capture());
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusDays(29)));
+    }
+    
+    private TicketTombstone savedTombstone() {
+        ArgumentCaptor<TicketTombstone> saved = ArgumentCaptor.forClass(TicketTombstone.class);
+        verify(tombstoneRepository).save(saved.capture());
+        return saved.getValue();
+    }
+    
+    private static Ticket ticket(Long id, LocalDateTime updatedAt) {
+        Ticket ticket = Ticket.builder().title("Ticket " + id).description("Description").build();
+        ticket.setId(id);
+        ticket.setUpdatedAt(updatedAt);
+        return ticket;
+    }
+    
+    private static TicketTombstone tombstone(Long id, Long ticketId, LocalDateTime createdAt) {
+        TicketTombstone tombstone = TicketTombstone.builder()
+            .ticketId(ticketId)
+            .reason(TicketTombstone.Reason.DELETED)
+            .build();
+        tombstone.setId(id);
+        tombstone.setCreatedAt(createdAt);
+        return tombstone;
+    }
+    
+    private static TicketDTO dto(Long id, Long assignedUserId) {
+        return TicketDTO.builder().id(id).assignedUserId(assignedUserId).build();
+    }
+}